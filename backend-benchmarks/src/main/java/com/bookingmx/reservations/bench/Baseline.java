@@ -0,0 +1,52 @@
+package com.bookingmx.reservations.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Runs the hot-path benchmarks ({@link RepositoryBenchmark},
+ * {@link ServiceBenchmark} and {@link SerializationBenchmark}) once per thread
+ * count and writes each run to {@code baseline-t<threads>.json}, so that the
+ * results of a change can be compared with those of the commit before it.
+ * <p>
+ * The thread counts default to 1, 4 and 16. Arguments after {@code --} are
+ * passed to JMH, for example to narrow the store sizes or add a profiler.
+ * </p>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.bookingmx.reservations.bench.Baseline 1 8 -- -p size=100000 -prof gc
+ * </pre>
+ */
+public final class Baseline {
+
+    private static final String HOT_PATHS = "(Repository|Service|Serialization)Benchmark";
+
+    private Baseline() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        int split = Arrays.asList(args).indexOf("--");
+        String[] counts = split < 0 ? args : Arrays.copyOfRange(args, 0, split);
+        String[] jmhArgs = split < 0 ? new String[0] : Arrays.copyOfRange(args, split + 1, args.length);
+        int[] threads = counts.length > 0
+                ? Arrays.stream(counts).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1, 4, 16};
+
+        CommandLineOptions extra = new CommandLineOptions(jmhArgs);
+        for (int t : threads) {
+            new Runner(new OptionsBuilder()
+                    .parent(extra)
+                    .include(HOT_PATHS)
+                    .threads(t)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("baseline-t" + t + ".json")
+                    .build()).run();
+        }
+    }
+}
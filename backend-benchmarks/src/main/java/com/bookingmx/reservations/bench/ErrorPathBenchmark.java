@@ -0,0 +1,117 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.exception.ApiExceptionHandler;
+import com.bookingmx.reservations.exception.NotFoundException;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RoomInventory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A storm of 404s: {@code GET /api/reservations/{id}} for IDs that do not
+ * exist, from the lookup to the bytes of the error body.
+ * <p>
+ * {@code current} is the application's path: the service throws its shared,
+ * stackless {@link NotFoundException} and {@link ApiExceptionHandler} writes
+ * the body. {@code previous} replays the path it replaced: a new exception
+ * with a full stack trace, a {@code Map} body with a freshly formatted
+ * timestamp, and Jackson to serialize it. Run with {@code -prof gc} to
+ * compare allocation; {@link #main(String[])} does, at 1, 4 and 16 threads,
+ * and writes {@code error-path-t<threads>.json}.
+ * </p>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.bookingmx.reservations.bench.ErrorPathBenchmark
+ * java -jar target/benchmarks.jar ErrorPathBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    private ReservationRepository repo;
+    private ReservationService service;
+    private ApiExceptionHandler handler;
+    private ObjectMapper mapper;
+
+    /** Per-thread walk over IDs past the end of the store. */
+    @State(Scope.Thread)
+    public static class Missing {
+        long next = SIZE + 1;
+
+        long next() {
+            return next++;
+        }
+    }
+
+    /** The exception as it was before it dropped its stack trace. */
+    static final class LegacyNotFoundException extends RuntimeException {
+        LegacyNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void fill() throws Exception {
+        repo = new ReservationRepository();
+        Fixtures.fill(repo, SIZE);
+        RoomInventory inventory = new RoomInventory(Integer.MAX_VALUE, Map.of());
+        inventory.restore(repo.findAll());
+        service = new ReservationService(repo, inventory);
+        handler = new ApiExceptionHandler();
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public Object current(Missing missing) {
+        try {
+            return service.findById(missing.next());
+        } catch (NotFoundException e) {
+            return handler.notFound(e).getBody();
+        }
+    }
+
+    @Benchmark
+    public Object previous(Missing missing) throws JsonProcessingException {
+        try {
+            return repo.findById(missing.next())
+                    .orElseThrow(() -> new LegacyNotFoundException("Reservation not found"));
+        } catch (LegacyNotFoundException e) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("timestamp", Instant.now().toString());
+            body.put("status", 404);
+            body.put("message", e.getMessage());
+            return mapper.writeValueAsBytes(body);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 4, 16}) {
+            new Runner(new OptionsBuilder()
+                    .include(ErrorPathBenchmark.class.getSimpleName())
+                    .addProfiler("gc")
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("error-path-t" + threads + ".json")
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Shared data generators for the benchmarks.
+ */
+final class Fixtures {
+
+    /** Writers used to fill durable repositories; more writers share each fsync. */
+    private static final int FILL_THREADS = 256;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Returns a new, unsaved reservation with deterministic contents.
+     *
+     * @param i a sequence number used to vary the fields
+     * @return the reservation
+     */
+    static Reservation reservation(int i) {
+        LocalDate checkIn = LocalDate.now().plusDays(1 + i % 300);
+        return new Reservation(null, "Guest " + i, "Hotel " + (i % 500), checkIn, checkIn.plusDays(1 + i % 7));
+    }
+
+    /**
+     * Returns a request for the same stay as {@link #reservation(int)}, shifted
+     * by {@code shift} days, so that alternating shifts move a stay back and forth.
+     *
+     * @param i     a sequence number used to vary the fields
+     * @param shift days added to both dates
+     * @return the request
+     */
+    static ReservationRequest request(int i, int shift) {
+        Reservation r = reservation(i);
+        ReservationRequest req = new ReservationRequest();
+        req.setGuestName(r.getGuestName());
+        req.setHotelName(r.getHotelName());
+        req.setCheckIn(r.getCheckIn().plusDays(shift));
+        req.setCheckOut(r.getCheckOut().plusDays(shift));
+        return req;
+    }
+
+    /**
+     * Saves {@code count} reservations from many threads at once, so that a
+     * durable repository amortizes its fsyncs through group commit.
+     *
+     * @param repo  the repository to fill
+     * @param count the number of reservations to save
+     * @throws Exception if a save fails
+     */
+    static void fill(ReservationRepository repo, int count) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(FILL_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < FILL_THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = thread; i < count; i += FILL_THREADS) {
+                        repo.save(reservation(i));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.HotelActorMutationExecutor;
+import com.bookingmx.reservations.service.MutationExecutor;
+import com.bookingmx.reservations.service.ReservationEventBus;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RingBufferMutationExecutor;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of a multi-hotel workload: every benchmark thread plays the front
+ * desk of its own hotel and keeps moving that hotel's reservations a day
+ * forward and back, while the {@link MutationExecutor} mode varies.
+ * <p>
+ * No two threads ever touch the same hotel, so any loss of throughput as the
+ * threads grow is contention the execution mode adds. With {@code actor},
+ * every hotel drains its own mailbox and total throughput should grow close
+ * to linearly with the threads up to the number of cores; {@code ring} is
+ * capped by its partitions and {@code direct} by the shared inventory and
+ * repository alone.
+ * </p>
+ *
+ * <p>
+ * {@link #main(String[])} runs it at 1, 2, 4, ... threads up to twice the
+ * number of processors and writes {@code scaling-t<threads>.json}; plot
+ * throughput against threads per mode.
+ * </p>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.bookingmx.reservations.bench.HotelScalingBenchmark
+ * java -jar target/benchmarks.jar HotelScalingBenchmark -t 8 -p mode=actor
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HotelScalingBenchmark {
+
+    /** Hotels in the {@link Fixtures} data; reservation {@code i} is at hotel {@code i % HOTELS}. */
+    private static final int HOTELS = 500;
+    private static final int STAYS_PER_HOTEL = 64;
+
+    @Param({"direct", "ring", "actor"})
+    public String mode;
+
+    private ReservationRepository repo;
+    private MutationExecutor mutations;
+    private ReservationService service;
+    private final AtomicInteger nextHotel = new AtomicInteger();
+
+    /** One hotel per thread, with its reservation IDs and the requests that move them. */
+    @State(Scope.Thread)
+    public static class Desk {
+        final long[] ids = new long[STAYS_PER_HOTEL];
+        final ReservationRequest[][] moves = new ReservationRequest[2][STAYS_PER_HOTEL];
+        int next;
+
+        @Setup(Level.Trial)
+        public void pickHotel(HotelScalingBenchmark bench) {
+            int hotel = bench.nextHotel.getAndIncrement() % HOTELS;
+            for (int k = 0; k < STAYS_PER_HOTEL; k++) {
+                int index = hotel + k * HOTELS;
+                ids[k] = index + 1;
+                moves[0][k] = Fixtures.request(index, 1);
+                moves[1][k] = Fixtures.request(index, 0);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void fill() throws Exception {
+        repo = new ReservationRepository();
+        Fixtures.fill(repo, HOTELS * STAYS_PER_HOTEL);
+        RoomInventory inventory = new RoomInventory(Integer.MAX_VALUE, Map.of());
+        inventory.restore(repo.findAll());
+        mutations = switch (mode) {
+            case "ring" -> new RingBufferMutationExecutor(repo);
+            case "actor" -> new HotelActorMutationExecutor(repo);
+            default -> MutationExecutor.direct();
+        };
+        service = new ReservationService(repo, inventory, new ReservationEventBus(), mutations);
+    }
+
+    @Benchmark
+    public Reservation move(Desk desk) {
+        int n = desk.next++;
+        int k = n % STAYS_PER_HOTEL;
+        return service.update(desk.ids[k], desk.moves[(n / STAYS_PER_HOTEL) & 1][k], null);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        mutations.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int max = 2 * Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= max; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(HotelScalingBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("scaling-t" + threads + ".json")
+                    .build()).run();
+        }
+    }
+}
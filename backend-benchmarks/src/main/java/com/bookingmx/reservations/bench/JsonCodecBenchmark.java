@@ -0,0 +1,126 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.dto.ReservationJsonModule;
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.dto.ReservationResponse;
+import com.bookingmx.reservations.model.Reservation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparison of Jackson's bean codecs ({@code bean}) with the hand-written
+ * ones of {@link ReservationJsonModule} ({@code module}) on the bodies of
+ * {@code POST /api/reservations} and {@code GET /api/reservations}: reading a
+ * {@link ReservationRequest}, writing one {@link ReservationResponse}, and
+ * writing a page of {@code page} of them.
+ * <p>
+ * Both mappers come from Spring's builder, like the application's, so the
+ * only difference is the module. {@link #main(String[])} runs it at 1, 4
+ * and 16 threads and writes {@code json-codec-t<threads>.json}.
+ * </p>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.bookingmx.reservations.bench.JsonCodecBenchmark
+ * java -jar target/benchmarks.jar JsonCodecBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"bean", "module"})
+    public String codec;
+
+    @Param({"100"})
+    public int page;
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private ObjectWriter pageWriter;
+    private byte[][] requests;
+    private ReservationResponse[] responses;
+    private List<ReservationResponse> pageBody;
+
+    /** Per-thread position in the samples. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int next() {
+            return next++ & (SAMPLES - 1);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("module".equals(codec)) {
+            builder.modulesToInstall(new ReservationJsonModule());
+        }
+        ObjectMapper mapper = builder.build();
+        // Request bodies are always written by the bean codec, so both modes read the same bytes.
+        ObjectMapper plain = Jackson2ObjectMapperBuilder.json().build();
+        requestReader = mapper.readerFor(ReservationRequest.class);
+        responseWriter = mapper.writerFor(ReservationResponse.class);
+        requests = new byte[SAMPLES][];
+        responses = new ReservationResponse[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            requests[i] = plain.writeValueAsBytes(Fixtures.request(i, 0));
+            responses[i] = toResponse(Fixtures.reservation(i).withId((long) i + 1).withVersion((long) i + 1));
+        }
+        pageBody = new ArrayList<>(page);
+        for (int i = 0; i < page; i++) {
+            pageBody.add(responses[i % SAMPLES]);
+        }
+        pageWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ReservationResponse.class));
+    }
+
+    @Benchmark
+    public ReservationRequest readRequest(Cursor cursor) throws IOException {
+        return requestReader.readValue(requests[cursor.next()]);
+    }
+
+    @Benchmark
+    public byte[] writeResponse(Cursor cursor) throws IOException {
+        return responseWriter.writeValueAsBytes(responses[cursor.next()]);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws IOException {
+        return pageWriter.writeValueAsBytes(pageBody);
+    }
+
+    private static ReservationResponse toResponse(Reservation r) {
+        return new ReservationResponse(r.getId(), r.getGuestName(), r.getHotelName(),
+                r.getCheckIn(), r.getCheckOut(), r.getStatus(), r.getVersion());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 4, 16}) {
+            new Runner(new OptionsBuilder()
+                    .include(JsonCodecBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("json-codec-t" + threads + ".json")
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.service.LatencyMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one latency in {@link LatencyMetrics}, as every request
+ * and service call does: a single value, and a value timed from a start
+ * stamp. Both should allocate nothing.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar LatencyMetricsBenchmark -prof gc
+ * java -jar target/benchmarks.jar LatencyMetricsBenchmark -t 16 -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyMetricsBenchmark {
+
+    private final LatencyMetrics metrics = new LatencyMetrics();
+    private final LatencyMetrics.Timer timer = metrics.timer("GET /api/reservations/{id}");
+
+    /** Per-thread spread of latencies, so each call lands in a different bucket. */
+    @State(Scope.Thread)
+    public static class Values {
+        long next = 1_000;
+
+        long next() {
+            next = next * 1_103_515_245L + 12_345L;
+            return (next >>> 20) & ((1L << 30) - 1);
+        }
+    }
+
+    @Benchmark
+    public void record(Values values) {
+        timer.record(LatencyMetrics.Outcome.SUCCESS, values.next());
+    }
+
+    @Benchmark
+    public void timed() {
+        timer.succeeded(System.nanoTime());
+    }
+}
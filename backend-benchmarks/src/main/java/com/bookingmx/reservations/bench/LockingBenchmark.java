@@ -0,0 +1,133 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of reservation updates and cancellations under the
+ * service's striped per-reservation locks with the same service behind one
+ * {@code synchronized} monitor, as the number of threads grows.
+ * <p>
+ * Each thread updates random reservations out of {@code size}, moving them
+ * a day forward or back, and cancels one in every {@value #CANCEL_EVERY}
+ * operations (a canceled reservation is skipped afterwards, so the mix
+ * stays mostly updates). Striped locking should scale with the threads until
+ * the repository or the inventory saturate; the monitor should stay flat.
+ * </p>
+ *
+ * <p>
+ * JMH takes one thread count per run, so {@link #main(String[])} runs the
+ * benchmark at 1, 2, 4, ... 128 threads and writes {@code locking-t<threads>.json}.
+ * </p>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.bookingmx.reservations.bench.LockingBenchmark
+ * java -jar target/benchmarks.jar LockingBenchmark -t 32
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LockingBenchmark {
+
+    private static final int KEY_MASK = 4095;
+    private static final int CANCEL_EVERY = 64;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"striped", "synchronized"})
+    public String locking;
+
+    private ReservationService service;
+
+    /** The same service with every mutation behind one monitor. */
+    static final class SynchronizedReservationService extends ReservationService {
+        SynchronizedReservationService(ReservationRepository repo, RoomInventory inventory) {
+            super(repo, inventory);
+        }
+
+        @Override
+        public synchronized Reservation update(Long id, ReservationRequest req, Long expectedVersion) {
+            return super.update(id, req, expectedVersion);
+        }
+
+        @Override
+        public synchronized Reservation cancel(Long id, Long expectedVersion) {
+            return super.cancel(id, expectedVersion);
+        }
+    }
+
+    /** Per-thread random IDs and the requests that move them, so building them is not measured. */
+    @State(Scope.Thread)
+    public static class Keys {
+        final long[] ids = new long[KEY_MASK + 1];
+        final ReservationRequest[][] moves = new ReservationRequest[2][KEY_MASK + 1];
+        int next;
+
+        @Setup(Level.Trial)
+        public void generate(LockingBenchmark bench) {
+            SplittableRandom random = new SplittableRandom(bench.size + Thread.currentThread().getId());
+            for (int i = 0; i < ids.length; i++) {
+                int index = random.nextInt(bench.size);
+                ids[i] = index + 1;
+                moves[0][i] = Fixtures.request(index, 1);
+                moves[1][i] = Fixtures.request(index, 0);
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() throws Exception {
+        // Refilled every iteration so that cancellations never run the store dry.
+        ReservationRepository repo = new ReservationRepository();
+        Fixtures.fill(repo, size);
+        RoomInventory inventory = new RoomInventory(Integer.MAX_VALUE, Map.of());
+        inventory.restore(repo.findAll());
+        service = "synchronized".equals(locking)
+                ? new SynchronizedReservationService(repo, inventory)
+                : new ReservationService(repo, inventory);
+    }
+
+    @Benchmark
+    public Reservation mutate(Keys keys) {
+        int n = keys.next++;
+        int i = n & KEY_MASK;
+        long id = keys.ids[i];
+        if (n % CANCEL_EVERY == 0) {
+            return service.cancel(id, null);
+        }
+        try {
+            return service.update(id, keys.moves[(n >>> 12) & 1][i], null);
+        } catch (BadRequestException canceled) {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 128; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(LockingBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("locking-t" + threads + ".json")
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.HotelActorMutationExecutor;
+import com.bookingmx.reservations.service.MutationExecutor;
+import com.bookingmx.reservations.service.ReservationEventBus;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RingBufferMutationExecutor;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Comparison of the {@link MutationExecutor} modes: mutations applied on the
+ * caller's thread under the striped locks ({@code direct}), published to a
+ * ring buffer per partition and applied by its single writer ({@code ring}),
+ * and posted to the hotel's own mailbox ({@code actor}), in memory and with
+ * the write-ahead log.
+ * <p>
+ * Each thread mixes updates of random reservations with creates and
+ * cancellations, like {@link LockingBenchmark}. The benchmark samples the
+ * latency of every operation, so the JMH output shows the percentiles: the
+ * interesting numbers are p99 and p99.9 as the thread count grows.
+ * </p>
+ *
+ * <p>
+ * {@link #main(String[])} runs it at 1, 4, 16 and 64 threads and writes
+ * {@code mutations-t<threads>.json}.
+ * </p>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.bookingmx.reservations.bench.MutationPipelineBenchmark
+ * java -jar target/benchmarks.jar MutationPipelineBenchmark -t 16 -p storage=durable
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MutationPipelineBenchmark {
+
+    private static final int KEY_MASK = 4095;
+    private static final int CREATE_EVERY = 16;
+    private static final int CANCEL_EVERY = 64;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"direct", "ring", "actor"})
+    public String mode;
+
+    @Param({"memory", "durable"})
+    public String storage;
+
+    private ReservationRepository repo;
+    private MutationExecutor mutations;
+    private ReservationService service;
+    private Path dataDir;
+
+    /** Per-thread random IDs and the requests that move them, so building them is not measured. */
+    @State(Scope.Thread)
+    public static class Keys {
+        final long[] ids = new long[KEY_MASK + 1];
+        final ReservationRequest[][] moves = new ReservationRequest[2][KEY_MASK + 1];
+        int next;
+
+        @Setup(Level.Trial)
+        public void generate(MutationPipelineBenchmark bench) {
+            SplittableRandom random = new SplittableRandom(bench.size + Thread.currentThread().getId());
+            for (int i = 0; i < ids.length; i++) {
+                int index = random.nextInt(bench.size);
+                ids[i] = index + 1;
+                moves[0][i] = Fixtures.request(index, 1);
+                moves[1][i] = Fixtures.request(index, 0);
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() throws Exception {
+        // Refilled every iteration so that cancellations never run the store dry.
+        if ("durable".equals(storage)) {
+            dataDir = Files.createTempDirectory("bookingmx-mutations-");
+            repo = ReservationRepository.durable(dataDir, Duration.ZERO);
+        } else {
+            repo = new ReservationRepository();
+        }
+        Fixtures.fill(repo, size);
+        RoomInventory inventory = new RoomInventory(Integer.MAX_VALUE, Map.of());
+        inventory.restore(repo.findAll());
+        mutations = switch (mode) {
+            case "ring" -> new RingBufferMutationExecutor(repo);
+            case "actor" -> new HotelActorMutationExecutor(repo);
+            default -> MutationExecutor.direct();
+        };
+        service = new ReservationService(repo, inventory, new ReservationEventBus(), mutations);
+    }
+
+    @Benchmark
+    public Reservation mutate(Keys keys) {
+        int n = keys.next++;
+        int i = n & KEY_MASK;
+        if (n % CREATE_EVERY == 0) {
+            return service.create(keys.moves[0][i]);
+        }
+        long id = keys.ids[i];
+        if (n % CANCEL_EVERY == 1) {
+            return service.cancel(id, null);
+        }
+        try {
+            return service.update(id, keys.moves[(n >>> 12) & 1][i], null);
+        } catch (BadRequestException canceled) {
+            return null;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws IOException {
+        mutations.close();
+        repo.close();
+        if (dataDir != null) {
+            try (Stream<Path> files = Files.walk(dataDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+            }
+            dataDir = null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 4, 16, 64}) {
+            new Runner(new OptionsBuilder()
+                    .include(MutationPipelineBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("mutations-t" + threads + ".json")
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures "which stays at this hotel overlap a one-week window" through the
+ * per-hotel interval tree against a linear scan of the hotel's reservations.
+ * Stays of one to fourteen nights start ten a day, over a span that grows
+ * with the hotel, so a query matches about 140 reservations at every size.
+ * The tree walks {@code O((k + 1) log n)} nodes for {@code k} matches, so it
+ * should grow only with {@code log n}, while the scan grows linearly.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar OverlapQueryBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OverlapQueryBenchmark {
+
+    private static final String HOTEL = "Hotel 0";
+    private static final int STAYS_PER_DAY = 10;
+    private static final int WINDOW = 7;
+    private static final int WINDOW_MASK = 1023;
+
+    @Param({"10000", "100000", "1000000"})
+    public int reservations;
+
+    @Param({"tree", "scan"})
+    public String query;
+
+    private final ReservationRepository repo = new ReservationRepository();
+    private final LocalDate[] windows = new LocalDate[WINDOW_MASK + 1];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        LocalDate base = LocalDate.now().plusDays(1);
+        int days = reservations / STAYS_PER_DAY;
+        SplittableRandom random = new SplittableRandom(reservations);
+        for (int i = 0; i < reservations; i++) {
+            LocalDate checkIn = base.plusDays(random.nextInt(days));
+            repo.save(new Reservation(null, "Guest " + i, HOTEL, checkIn, checkIn.plusDays(1 + random.nextInt(14))));
+        }
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = base.plusDays(random.nextInt(days));
+        }
+    }
+
+    @Benchmark
+    public List<Reservation> overlapping() {
+        LocalDate from = windows[next++ & WINDOW_MASK];
+        LocalDate to = from.plusDays(WINDOW);
+        if ("tree".equals(query)) {
+            return repo.findOverlapping(HOTEL, from, to);
+        }
+        List<Reservation> matches = new ArrayList<>();
+        for (Reservation r : repo.findByHotel(HOTEL)) {
+            if (r.isActive() && r.getCheckIn().isBefore(to) && r.getCheckOut().isAfter(from)) {
+                matches.add(r);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,74 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures startup-to-ready time of a durable {@link ReservationRepository}.
+ * <p>
+ * For each store size two data directories are prepared: one holding only the
+ * write-ahead log ({@code log}), and one holding a snapshot plus a fixed tail of
+ * {@value #TAIL} log records ({@code snapshot}). With snapshots the recovery time
+ * should stay roughly flat as the store grows, because the tail stays the same
+ * size and loading the mapped snapshot is much cheaper than replaying frames.
+ * </p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar RecoveryBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class RecoveryBenchmark {
+
+    /** Records written after the snapshot in {@code snapshot} mode. */
+    static final int TAIL = 10_000;
+
+    @Param({"100000", "1000000", "5000000"})
+    public int reservations;
+
+    @Param({"log", "snapshot"})
+    public String recovery;
+
+    private Path dataDir;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        dataDir = Files.createTempDirectory("bookingmx-recovery-");
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            if ("snapshot".equals(recovery)) {
+                Fixtures.fill(repo, reservations - TAIL);
+                repo.snapshot();
+                Fixtures.fill(repo, TAIL);
+            } else {
+                Fixtures.fill(repo, reservations);
+            }
+        }
+    }
+
+    @Benchmark
+    public Reservation recover() throws IOException {
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            return repo.findById((long) reservations).orElseThrow();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the {@link ReservationRepository} operations every request goes
+ * through: {@code save} of an existing reservation, {@code findById} of a
+ * random ID and {@code findAll}, at several store sizes, in memory and with
+ * the write-ahead log.
+ * <p>
+ * {@code save} overwrites existing reservations with unchanged contents, so
+ * the store keeps its size for the whole run while the indexes and the change
+ * log still do their full work. Run it at several thread counts with
+ * {@code -t}, or all of them at once with {@link Baseline}.
+ * </p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar RepositoryBenchmark -t 4 -p storage=memory
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private static final int KEY_MASK = 4095;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"memory", "durable"})
+    public String storage;
+
+    private ReservationRepository repo;
+    private Path dataDir;
+
+    /** Per-thread random IDs and matching copies to save, so generating them is not measured. */
+    @State(Scope.Thread)
+    public static class Keys {
+        final long[] ids = new long[KEY_MASK + 1];
+        final Reservation[] copies = new Reservation[KEY_MASK + 1];
+        int next;
+
+        @Setup(Level.Trial)
+        public void generate(RepositoryBenchmark bench) {
+            SplittableRandom random = new SplittableRandom(bench.size + Thread.currentThread().getId());
+            for (int i = 0; i < ids.length; i++) {
+                int index = random.nextInt(bench.size);
+                ids[i] = index + 1;
+                copies[i] = Fixtures.reservation(index).withId(ids[i]);
+            }
+        }
+
+        int next() {
+            return next++ & KEY_MASK;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void fill() throws Exception {
+        if ("durable".equals(storage)) {
+            dataDir = Files.createTempDirectory("bookingmx-repository-");
+            repo = ReservationRepository.durable(dataDir);
+        } else {
+            repo = new ReservationRepository();
+        }
+        Fixtures.fill(repo, size);
+    }
+
+    @Benchmark
+    public Reservation save(Keys keys) {
+        return repo.save(keys.copies[keys.next()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<Reservation> findById(Keys keys) {
+        return repo.findById(keys.ids[keys.next()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Reservation> findAll() {
+        return repo.findAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        repo.close();
+        if (dataDir != null) {
+            try (Stream<Path> files = Files.walk(dataDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.controller.ReservationController;
+import com.bookingmx.reservations.controller.ReservationJsonCache;
+import com.bookingmx.reservations.dto.ReservationJsonModule;
+import com.bookingmx.reservations.dto.ReservationResponse;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.IdempotencyCache;
+import com.bookingmx.reservations.service.ReservationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the response path of the read endpoints, for a single reservation
+ * ({@code GET /api/reservations/{id}}) and for a page of {@code page}
+ * reservations ({@code GET /api/reservations?limit=}): entity-to-DTO mapping
+ * followed by Jackson serialization on every request ({@code toJson},
+ * {@code pageToJson}), against the controller, which writes the JSON kept in
+ * its {@link ReservationJsonCache} ({@code cachedJson}, {@code pageCachedJson}).
+ * <p>
+ * The {@link ObjectMapper} writes dates as ISO strings and has the
+ * {@link ReservationJsonModule}, like the one Spring Boot creates for the
+ * application. Run at several thread counts with
+ * {@code -t}, or all of them at once with {@link Baseline}.
+ * </p>
+ *
+ * <p>
+ * {@link #main(String[])} samples the latency of every call instead, with the
+ * GC profiler, at 1, 4 and 16 threads, and writes {@code serialization-t<threads>.json}:
+ * the allocation rate per operation ({@code gc.alloc.rate.norm}) and p99 show
+ * what the cache saves.
+ * </p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar SerializationBenchmark -prof gc
+ * java -cp target/benchmarks.jar com.bookingmx.reservations.bench.SerializationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final int KEY_MASK = 4095;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"100"})
+    public int page;
+
+    private ReservationService service;
+    private ReservationController controller;
+    private ObjectMapper mapper;
+
+    /** Per-thread random IDs, so generating them is not measured. */
+    @State(Scope.Thread)
+    public static class Keys {
+        final long[] ids = new long[KEY_MASK + 1];
+        int next;
+
+        @Setup(Level.Trial)
+        public void generate(SerializationBenchmark bench) {
+            SplittableRandom random = new SplittableRandom(bench.size + Thread.currentThread().getId());
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = 1 + random.nextInt(bench.size - bench.page);
+            }
+        }
+
+        long next() {
+            return ids[next++ & KEY_MASK];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void fill() throws Exception {
+        ReservationRepository repo = new ReservationRepository();
+        Fixtures.fill(repo, size);
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new ReservationJsonModule())
+                .build();
+        service = new ReservationService(repo);
+        controller = new ReservationController(service, mapper,
+                new IdempotencyCache<>(), new ReservationJsonCache(mapper, size));
+    }
+
+    @Benchmark
+    public byte[] toJson(Keys keys) throws Exception {
+        return mapper.writeValueAsBytes(toResponse(service.findById(keys.next())));
+    }
+
+    @Benchmark
+    public byte[] cachedJson(Keys keys) {
+        return controller.get(keys.next()).getBody();
+    }
+
+    @Benchmark
+    public byte[] pageToJson(Keys keys) throws Exception {
+        List<Reservation> items = service.listPage(null, keys.next(), page).items();
+        List<ReservationResponse> body = new ArrayList<>(items.size());
+        for (Reservation r : items) {
+            body.add(toResponse(r));
+        }
+        return mapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] pageCachedJson(Keys keys) {
+        return controller.list(null, page, keys.next()).getBody();
+    }
+
+    /** The mapping the controller did on every read before the JSON cache. */
+    private static ReservationResponse toResponse(Reservation r) {
+        return new ReservationResponse(r.getId(), r.getGuestName(), r.getHotelName(),
+                r.getCheckIn(), r.getCheckOut(), r.getStatus(), r.getVersion());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 4, 16}) {
+            new Runner(new OptionsBuilder()
+                    .include(SerializationBenchmark.class.getSimpleName())
+                    .mode(Mode.SampleTime)
+                    .addProfiler("gc")
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("serialization-t" + threads + ".json")
+                    .build()).run();
+        }
+    }
+}
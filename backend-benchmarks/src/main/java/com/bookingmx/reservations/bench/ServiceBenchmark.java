@@ -0,0 +1,92 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ReservationService} {@code create}, {@code update} and
+ * {@code cancel} on an in-memory repository of several sizes, including
+ * validation, room inventory and event publishing.
+ * <p>
+ * Hotels have unlimited rooms, so no operation fails for lack of capacity.
+ * {@code update} moves a random reservation one day forward or back on
+ * alternate passes over the thread's keys. A reservation can only be canceled
+ * once, so {@code createAndCancel} creates the reservation it cancels; the cost
+ * of {@code cancel} is the difference with {@code create}. Run at several thread
+ * counts with {@code -t}, or all of them at once with {@link Baseline}.
+ * </p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar ServiceBenchmark -t 4
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private static final int KEY_MASK = 4095;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private ReservationService service;
+
+    /** Per-thread random IDs and the requests that move them, so building them is not measured. */
+    @State(Scope.Thread)
+    public static class Keys {
+        final long[] ids = new long[KEY_MASK + 1];
+        final ReservationRequest[][] moves = new ReservationRequest[2][KEY_MASK + 1];
+        final ReservationRequest[] creates = new ReservationRequest[KEY_MASK + 1];
+        int next;
+
+        @Setup(Level.Trial)
+        public void generate(ServiceBenchmark bench) {
+            SplittableRandom random = new SplittableRandom(bench.size + Thread.currentThread().getId());
+            for (int i = 0; i < ids.length; i++) {
+                int index = random.nextInt(bench.size);
+                ids[i] = index + 1;
+                moves[0][i] = Fixtures.request(index, 1);
+                moves[1][i] = Fixtures.request(index, 0);
+                creates[i] = Fixtures.request(random.nextInt(bench.size), 0);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void fill() throws Exception {
+        ReservationRepository repo = new ReservationRepository();
+        Fixtures.fill(repo, size);
+        RoomInventory inventory = new RoomInventory(Integer.MAX_VALUE, Map.of());
+        inventory.restore(repo.findAll());
+        service = new ReservationService(repo, inventory);
+    }
+
+    @Benchmark
+    public Reservation create(Keys keys) {
+        return service.create(keys.creates[keys.next++ & KEY_MASK]);
+    }
+
+    @Benchmark
+    public Reservation update(Keys keys) {
+        int n = keys.next++;
+        int i = n & KEY_MASK;
+        return service.update(keys.ids[i], keys.moves[(n >>> 12) & 1][i]);
+    }
+
+    @Benchmark
+    public Reservation createAndCancel(Keys keys) {
+        return service.cancel(create(keys).getId());
+    }
+}
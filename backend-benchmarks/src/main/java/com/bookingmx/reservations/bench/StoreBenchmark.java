@@ -0,0 +1,88 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ConcurrentLongMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reservation store's {@link ConcurrentLongMap} with the
+ * {@link ConcurrentHashMap} it replaced, for lookups and overwrites of random
+ * existing IDs at 1M and 10M entries. All entries share one value so that the
+ * measurement is dominated by the map itself.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar StoreBenchmark -t 4 -prof gc
+ * </pre>
+ *
+ * @see StoreFootprintReport
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class StoreBenchmark {
+
+    private static final int KEY_MASK = 4095;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"ConcurrentHashMap", "ConcurrentLongMap"})
+    public String store;
+
+    private ConcurrentHashMap<Long, Reservation> boxed;
+    private ConcurrentLongMap<Reservation> primitive;
+    private final Reservation value = Fixtures.reservation(0);
+
+    /** Per-thread cursor over pre-generated random keys, so key generation is not measured. */
+    @State(Scope.Thread)
+    public static class Keys {
+        final long[] keys = new long[KEY_MASK + 1];
+        int next;
+
+        @Setup(Level.Trial)
+        public void generate(StoreBenchmark bench) {
+            SplittableRandom random = new SplittableRandom(bench.size);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = 1 + random.nextInt(bench.size);
+            }
+        }
+
+        long next() {
+            return keys[next++ & KEY_MASK];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void fill() {
+        if ("ConcurrentHashMap".equals(store)) {
+            boxed = new ConcurrentHashMap<>();
+            for (long id = 1; id <= size; id++) {
+                boxed.put(id, value);
+            }
+        } else {
+            primitive = new ConcurrentLongMap<>();
+            for (long id = 1; id <= size; id++) {
+                primitive.put(id, value);
+            }
+        }
+    }
+
+    @Benchmark
+    public Reservation get(Keys keys) {
+        long id = keys.next();
+        return boxed != null ? boxed.get(id) : primitive.get(id);
+    }
+
+    @Benchmark
+    public Reservation put(Keys keys) {
+        long id = keys.next();
+        return boxed != null ? boxed.put(id, value) : primitive.put(id, value);
+    }
+}
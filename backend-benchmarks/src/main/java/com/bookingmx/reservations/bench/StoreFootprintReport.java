@@ -0,0 +1,57 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ConcurrentLongMap;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prints the retained heap footprint of the reservation store implementations,
+ * as measured by JOL, at 1M and 10M entries. All entries share one value, so
+ * the figures are the cost of the map structure alone.
+ *
+ * <pre>
+ * java -Xmx8g -Djdk.attach.allowAttachSelf=true \
+ *     -cp target/benchmarks.jar com.bookingmx.reservations.bench.StoreFootprintReport
+ * </pre>
+ */
+public final class StoreFootprintReport {
+
+    private StoreFootprintReport() {
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? parse(args) : new int[]{1_000_000, 10_000_000};
+        Reservation value = Fixtures.reservation(0);
+        System.out.printf("%-20s %12s %16s %14s %12s%n", "store", "entries", "bytes", "bytes/entry", "objects");
+
+        for (int size : sizes) {
+            ConcurrentHashMap<Long, Reservation> boxed = new ConcurrentHashMap<>();
+            for (long id = 1; id <= size; id++) {
+                boxed.put(id, value);
+            }
+            print("ConcurrentHashMap", size, GraphLayout.parseInstance(boxed));
+            boxed = null;
+
+            ConcurrentLongMap<Reservation> primitive = new ConcurrentLongMap<>();
+            for (long id = 1; id <= size; id++) {
+                primitive.put(id, value);
+            }
+            print("ConcurrentLongMap", size, GraphLayout.parseInstance(primitive));
+        }
+    }
+
+    private static void print(String name, int size, GraphLayout layout) {
+        System.out.printf("%-20s %12d %16d %14.1f %12d%n",
+                name, size, layout.totalSize(), layout.totalSize() / (double) size, layout.totalCount());
+    }
+
+    private static int[] parse(String[] args) {
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+}
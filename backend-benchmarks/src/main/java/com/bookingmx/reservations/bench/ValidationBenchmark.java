@@ -0,0 +1,51 @@
+package com.bookingmx.reservations.bench;
+
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.service.ReservationRequestValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link ReservationRequestValidator}: a valid request,
+ * which is the common case and should not allocate, and a request that
+ * breaks several rules at once.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar ValidationBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private final ReservationRequestValidator validator = new ReservationRequestValidator();
+    private ReservationRequest valid;
+    private ReservationRequest invalid;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        valid = Fixtures.request(42, 0);
+        invalid = new ReservationRequest();
+        invalid.setGuestName(" ");
+        invalid.setHotelName("Hotel 42");
+        invalid.setCheckIn(LocalDate.now().minusDays(2));
+        invalid.setCheckOut(LocalDate.now().minusDays(3));
+    }
+
+    @Benchmark
+    public List<String> validRequest() {
+        return validator.violations(valid);
+    }
+
+    @Benchmark
+    public List<String> invalidRequest() {
+        return validator.violations(invalid);
+    }
+}
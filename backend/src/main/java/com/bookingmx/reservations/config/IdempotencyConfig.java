@@ -0,0 +1,43 @@
+package com.bookingmx.reservations.config;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.service.IdempotencyCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Spring configuration for the {@code Idempotency-Key} support of the create
+ * endpoint.
+ * <p>
+ * {@code bookingmx.idempotency.ttl} sets how long a created reservation is
+ * returned to retries of its request, and {@code bookingmx.idempotency.max-entries}
+ * how many keys are remembered at most; past that, the least recently used
+ * keys are forgotten first.
+ * </p>
+ *
+ * @see com.bookingmx.reservations.service.IdempotencyCache
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Creates the cache of reservations created with an idempotency key.
+     *
+     * @param ttl        how long a key is remembered
+     * @param maxEntries the most keys remembered at once
+     * @return the cache used by the controller
+     */
+    @Bean
+    public IdempotencyCache<Reservation> idempotencyCache(
+            @Value("${bookingmx.idempotency.ttl:24h}") Duration ttl,
+            @Value("${bookingmx.idempotency.max-entries:" + IdempotencyCache.DEFAULT_MAX_ENTRIES + "}") int maxEntries) {
+        return new IdempotencyCache<>(ttl, maxEntries);
+    }
+}
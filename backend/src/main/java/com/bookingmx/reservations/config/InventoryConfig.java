@@ -0,0 +1,62 @@
+package com.bookingmx.reservations.config;
+
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * Spring configuration for the hotel room inventory.
+ * <p>
+ * Every hotel has {@code bookingmx.inventory.default-rooms} rooms per night.
+ * Individual hotels can be given their own capacity with
+ * {@code bookingmx.inventory.rooms[<hotel name>]=<rooms>}; the brackets keep
+ * spaces and capitals in the hotel name intact.
+ * </p>
+ *
+ * <p>
+ * {@code bookingmx.inventory.max-nights} caps the length of one stay (365 by
+ * default), which bounds the counters a single booking can create.
+ * </p>
+ *
+ * @see com.bookingmx.reservations.service.RoomInventory
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@Configuration
+public class InventoryConfig {
+
+    /**
+     * Creates the {@link RoomInventory} and books the rooms of every active
+     * reservation already in the repository, so that capacity is enforced
+     * across restarts in durable mode.
+     *
+     * @param repo         the repository whose reservations are counted
+     * @param defaultRooms rooms of any hotel without its own capacity
+     * @param maxNights    the most nights one stay may book
+     * @param env          the environment holding the per-hotel capacities
+     * @return the inventory shared by the service layer
+     */
+    @Bean
+    public RoomInventory roomInventory(
+            ReservationRepository repo,
+            @Value("${bookingmx.inventory.default-rooms:" + RoomInventory.DEFAULT_ROOMS + "}") int defaultRooms,
+            @Value("${bookingmx.inventory.max-nights:" + RoomInventory.DEFAULT_MAX_NIGHTS + "}") int maxNights,
+            Environment env) {
+        Map<String, Integer> roomsByHotel = Binder.get(env)
+                .bind("bookingmx.inventory.rooms", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        RoomInventory inventory = new RoomInventory(defaultRooms, roomsByHotel, maxNights, Clock.systemDefaultZone());
+        inventory.restore(repo.findAll());
+        return inventory;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bookingmx.reservations.config;
+
+import com.bookingmx.reservations.dto.ReservationJsonModule;
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration that adds the reservation codecs to the application's
+ * {@link com.fasterxml.jackson.databind.ObjectMapper}.
+ * <p>
+ * Spring Boot registers every {@link Module} bean with the mapper it creates,
+ * so request bodies, responses, the export and the change feed all go through
+ * the hand-written codecs of {@link ReservationJsonModule}.
+ * </p>
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Creates the module with the reservation codecs.
+     *
+     * @return the module, picked up by Spring Boot's Jackson auto-configuration
+     */
+    @Bean
+    public Module reservationJsonModule() {
+        return new ReservationJsonModule();
+    }
+}
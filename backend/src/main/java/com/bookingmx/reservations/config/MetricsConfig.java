@@ -0,0 +1,44 @@
+package com.bookingmx.reservations.config;
+
+import com.bookingmx.reservations.controller.LatencyInterceptor;
+import com.bookingmx.reservations.service.LatencyMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring configuration for the latency histograms of the API.
+ * <p>
+ * One {@link LatencyMetrics} is shared by the service, which times its own
+ * methods, and by a {@link LatencyInterceptor} on {@code /api/**}, which
+ * times every endpoint. Both are read and reset through
+ * {@code /internal/metrics}, which is not timed itself.
+ * </p>
+ *
+ * @see com.bookingmx.reservations.controller.MetricsController
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final LatencyMetrics metrics = new LatencyMetrics();
+
+    /**
+     * Exposes the histograms to the service and the metrics endpoint.
+     *
+     * @return the application's latency metrics
+     */
+    @Bean
+    public LatencyMetrics latencyMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new LatencyInterceptor(metrics)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,68 @@
+package com.bookingmx.reservations.config;
+
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.HotelActorMutationExecutor;
+import com.bookingmx.reservations.service.MutationExecutor;
+import com.bookingmx.reservations.service.RingBufferMutationExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration that selects which threads apply reservation mutations.
+ * <p>
+ * The mode is chosen with the {@code bookingmx.mutations.mode} property:
+ * </p>
+ * <ul>
+ *   <li>{@code direct} (default): every create, update and cancellation runs on
+ *       the request thread, under the service's striped locks</li>
+ *   <li>{@code ring}: request threads publish mutations to a ring buffer per
+ *       partition of hotels, and one writer thread per partition applies them
+ *       in order, batching the write-ahead log flushes</li>
+ *   <li>{@code actor}: every hotel has its own mailbox that applies its
+ *       mutations in order on a virtual thread (a platform thread before
+ *       Java 21), so hotels never contend with each other</li>
+ * </ul>
+ *
+ * <p>
+ * In {@code ring} mode, {@code bookingmx.mutations.partitions} sets the number
+ * of writer threads ({@code 0} means one per available processor) and
+ * {@code bookingmx.mutations.ring-size} the slots of each ring.
+ * </p>
+ *
+ * @see com.bookingmx.reservations.service.MutationExecutor
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@Configuration
+public class MutationConfig {
+
+    /**
+     * Creates the {@link MutationExecutor} for the configured mode. Spring
+     * closes it on shutdown, after the writers have applied every mutation
+     * already published.
+     *
+     * @param mode       the mutation mode, {@code direct}, {@code ring} or {@code actor}
+     * @param partitions the number of writer threads in {@code ring} mode, or {@code 0} for one per processor
+     * @param ringSize   the slots of each ring in {@code ring} mode
+     * @param repo       the repository whose log flushes the writers batch
+     * @return the executor shared by the service layer
+     * @throws IllegalArgumentException if the mode is not recognized
+     */
+    @Bean
+    public MutationExecutor mutationExecutor(
+            @Value("${bookingmx.mutations.mode:direct}") String mode,
+            @Value("${bookingmx.mutations.partitions:0}") int partitions,
+            @Value("${bookingmx.mutations.ring-size:" + RingBufferMutationExecutor.DEFAULT_RING_SIZE + "}") int ringSize,
+            ReservationRepository repo) {
+        return switch (mode.toLowerCase()) {
+            case "direct" -> MutationExecutor.direct();
+            case "ring" -> new RingBufferMutationExecutor(repo,
+                    partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors(), ringSize);
+            case "actor" -> new HotelActorMutationExecutor(repo);
+            default -> throw new IllegalArgumentException("Unknown mutation mode: " + mode);
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.bookingmx.reservations.config;
+
+import com.bookingmx.reservations.repo.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Spring configuration that selects how reservations are stored.
+ * <p>
+ * The mode is chosen with the {@code bookingmx.persistence.mode} property:
+ * </p>
+ * <ul>
+ *   <li>{@code memory} (default): reservations live only in memory and are lost on restart</li>
+ *   <li>{@code wal}: every save is appended to a write-ahead log under
+ *       {@code bookingmx.persistence.dir} and replayed on startup</li>
+ * </ul>
+ *
+ * <p>
+ * In {@code wal} mode, {@code bookingmx.persistence.snapshot-interval} sets how often
+ * the store is snapshotted so that startup only replays the recent log tail
+ * ({@code 0} disables snapshots).
+ * </p>
+ *
+ * @see com.bookingmx.reservations.repo.ReservationRepository
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@Configuration
+public class PersistenceConfig {
+
+    /**
+     * Creates the {@link ReservationRepository} for the configured persistence mode.
+     * Spring closes the repository on shutdown, which flushes any pending log writes.
+     *
+     * @param mode    the persistence mode, {@code memory} or {@code wal}
+     * @param dataDir the directory holding the durable files in {@code wal} mode
+     * @param snapshotInterval delay between automatic snapshots in {@code wal} mode
+     * @return the repository shared by the service layer
+     * @throws IOException if the durable log cannot be opened or replayed
+     * @throws IllegalArgumentException if the mode is not recognized
+     */
+    @Bean
+    public ReservationRepository reservationRepository(
+            @Value("${bookingmx.persistence.mode:memory}") String mode,
+            @Value("${bookingmx.persistence.dir:data}") String dataDir,
+            @Value("${bookingmx.persistence.snapshot-interval:5m}") Duration snapshotInterval) throws IOException {
+        return switch (mode.toLowerCase()) {
+            case "memory" -> new ReservationRepository();
+            case "wal" -> ReservationRepository.durable(Path.of(dataDir), snapshotInterval);
+            default -> throw new IllegalArgumentException("Unknown persistence mode: " + mode);
+        };
+    }
+}
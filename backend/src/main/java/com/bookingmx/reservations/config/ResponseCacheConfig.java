@@ -0,0 +1,41 @@
+package com.bookingmx.reservations.config;
+
+import com.bookingmx.reservations.controller.ReservationJsonCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring configuration for the cache of serialized reservations used by the
+ * read endpoints.
+ * <p>
+ * {@code bookingmx.json-cache.slots} sets the number of reservations whose
+ * JSON is kept at once. Each slot holds the JSON of one reservation, a few
+ * hundred bytes, so the default of 65536 slots costs at most some tens of
+ * megabytes.
+ * </p>
+ *
+ * @see com.bookingmx.reservations.controller.ReservationJsonCache
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    /**
+     * Creates the cache of serialized reservations.
+     *
+     * @param slots  the number of reservations cached at most
+     * @param mapper the application's {@link ObjectMapper}, so cached JSON matches other responses
+     * @return the cache used by the controller
+     */
+    @Bean
+    public ReservationJsonCache reservationJsonCache(
+            @Value("${bookingmx.json-cache.slots:" + ReservationJsonCache.DEFAULT_SLOTS + "}") int slots,
+            ObjectMapper mapper) {
+        return new ReservationJsonCache(mapper, slots);
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookingmx.reservations.controller;
+
+import com.bookingmx.reservations.exception.PreconditionFailedException;
+
+/**
+ * Conversion between reservation change versions and HTTP entity tags.
+ * <p>
+ * A reservation's ETag is its change version in quotes, for example
+ * {@code "42"}. Versions are never reused, so equal tags always mean the same
+ * saved state and the tags are strong.
+ * </p>
+ *
+ * @see ReservationController
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Returns the ETag of a reservation version.
+     *
+     * @param version the change version
+     * @return the quoted version
+     */
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the version named by an {@code If-Match} header.
+     * <p>
+     * A missing header and {@code *} match any version and give {@code null}.
+     * Only a single strong tag can match a version; weak tags, lists and
+     * malformed values cannot, so they fail the precondition.
+     * </p>
+     *
+     * @param ifMatch the header value, or {@code null}
+     * @return the expected version, or {@code null} for any version
+     * @throws PreconditionFailedException if the header cannot match any version
+     */
+    static Long version(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.length() > 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+            try {
+                return Long.parseLong(tag, 1, tag.length() - 1, 10);
+            } catch (NumberFormatException e) {
+                // Not one of our tags, so it cannot match.
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current version");
+    }
+}
@@ -0,0 +1,108 @@
+package com.bookingmx.reservations.controller;
+
+import com.bookingmx.reservations.service.LatencyMetrics;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the latency of every request to a controller method in
+ * {@link LatencyMetrics}, by endpoint and response status.
+ * <p>
+ * Endpoints are named by HTTP method and path pattern, such as
+ * {@code GET /api/reservations/{id}}, followed by the required parameters of
+ * mappings that share a pattern, such as {@code GET /api/reservations [ids]}.
+ * The name and timer of a handler method are built on its first request and
+ * kept, and the start time is kept in a per-thread slot rather than a request
+ * attribute, so timing a request allocates nothing.
+ * </p>
+ *
+ * <p>
+ * A request is timed from the start of its handling to the end of the
+ * response; an exception that escapes every handler counts as {@code 500}.
+ * For streaming endpoints, whose body is written after the handler returns,
+ * only the time to start the stream is recorded.
+ * </p>
+ *
+ * @see com.bookingmx.reservations.config.MetricsConfig
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+public class LatencyInterceptor implements AsyncHandlerInterceptor {
+
+    /** Marks a slot with no request being timed. */
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final LatencyMetrics metrics;
+    private final Map<Method, LatencyMetrics.Timer> timers = new ConcurrentHashMap<>();
+
+    /** Start of the request the thread is handling, in {@link System#nanoTime()}. */
+    private final ThreadLocal<long[]> started = ThreadLocal.withInitial(() -> new long[] {NOT_TIMED});
+
+    /**
+     * Constructs the interceptor.
+     *
+     * @param metrics where endpoint latencies are recorded
+     */
+    public LatencyInterceptor(LatencyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch finishes a request that was timed when it started.
+        started.get()[0] = handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC
+                ? System.nanoTime() : NOT_TIMED;
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        record(request, handler, LatencyMetrics.Outcome.SUCCESS);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        record(request, handler, ex != null ? LatencyMetrics.Outcome.SERVER_ERROR
+                : LatencyMetrics.Outcome.of(response.getStatus()));
+    }
+
+    private void record(HttpServletRequest request, Object handler, LatencyMetrics.Outcome outcome) {
+        long[] slot = started.get();
+        long start = slot[0];
+        if (start == NOT_TIMED) {
+            return;
+        }
+        slot[0] = NOT_TIMED;
+        long elapsed = System.nanoTime() - start;
+        Method method = ((HandlerMethod) handler).getMethod();
+        LatencyMetrics.Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> metrics.timer(endpoint(request, m)));
+        }
+        timer.record(outcome, elapsed);
+    }
+
+    private static String endpoint(HttpServletRequest request, Method method) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String name = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+        if (mapping != null && mapping.params().length > 0) {
+            name += " [" + String.join(", ", mapping.params()) + "]";
+        }
+        return name;
+    }
+}
@@ -0,0 +1,104 @@
+package com.bookingmx.reservations.controller;
+
+import com.bookingmx.reservations.exception.NotFoundException;
+import com.bookingmx.reservations.service.LatencyHistogram;
+import com.bookingmx.reservations.service.LatencyMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+
+/**
+ * Local-only endpoint exposing the latency histograms recorded in
+ * {@link LatencyMetrics}.
+ * <p>
+ * {@code GET /internal/metrics} returns, for every endpoint and service
+ * method, the count, p50, p90, p99, p99.9 and maximum latency of each
+ * outcome, in nanoseconds:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   "GET /api/reservations/{id}": {
+ *     "success": { "count": 1520, "p50": 41215, "p90": 60415, "p99": 120831, "p999": 456703, "max": 1203311 },
+ *     "404": { "count": 12, "p50": 30207, "p90": 33279, "p99": 35802, "p999": 35802, "max": 35802 }
+ *   },
+ *   "ReservationService.findById": { ... }
+ * }
+ * </pre>
+ *
+ * <p>
+ * {@code DELETE /internal/metrics} starts every histogram over. Both answer
+ * only requests from the loopback interface; any other client gets a
+ * {@code 404}, as if the endpoint did not exist. Behind a proxy on the same
+ * host every request looks local, so the proxy must not forward
+ * {@code /internal}.
+ * </p>
+ *
+ * @see LatencyMetrics
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@RestController
+@RequestMapping(value = "/internal/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
+public class MetricsController {
+
+    private final LatencyMetrics metrics;
+
+    /**
+     * Constructs the controller.
+     *
+     * @param metrics the latencies recorded by the API
+     */
+    public MetricsController(LatencyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the latency percentiles of every endpoint and service method.
+     *
+     * @param request the request, to check that it is local
+     * @return the snapshots by operation and outcome
+     * @throws NotFoundException if the request is not from the loopback interface
+     */
+    @GetMapping
+    public Map<String, Map<String, LatencyHistogram.Snapshot>> snapshot(HttpServletRequest request) {
+        requireLocal(request);
+        return metrics.snapshot();
+    }
+
+    /**
+     * Forgets every latency recorded so far.
+     *
+     * @param request the request, to check that it is local
+     * @return an empty {@code 204 No Content}
+     * @throws NotFoundException if the request is not from the loopback interface
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> reset(HttpServletRequest request) {
+        requireLocal(request);
+        metrics.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    private static void requireLocal(HttpServletRequest request) {
+        try {
+            // The remote address is an IP literal, so this never does a DNS lookup.
+            if (InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress()) {
+                return;
+            }
+        } catch (UnknownHostException e) {
+            // Not an address we can vouch for.
+        }
+        throw new NotFoundException("Not found");
+    }
+}
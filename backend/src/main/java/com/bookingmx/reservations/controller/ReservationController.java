@@ -1,14 +1,34 @@
 package com.bookingmx.reservations.controller;
 
+import com.bookingmx.reservations.dto.ReservationBatchResponse;
+import com.bookingmx.reservations.dto.ReservationChangesResponse;
+import com.bookingmx.reservations.dto.ReservationJsonModule;
+import com.bookingmx.reservations.dto.ReservationLookupResponse;
+import com.bookingmx.reservations.dto.ReservationOperation;
 import com.bookingmx.reservations.dto.ReservationRequest;
 import com.bookingmx.reservations.dto.ReservationResponse;
 import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.IdempotencyCache;
 import com.bookingmx.reservations.service.ReservationService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,34 +48,217 @@ import java.util.List;
  * All endpoints produce responses in JSON format.
  * </p>
  *
+ * <p>
+ * Single-reservation responses carry the reservation's change version as a
+ * strong {@code ETag}. Updates and cancellations accept it back in
+ * {@code If-Match} and fail with {@code 412 Precondition Failed} if the
+ * reservation has changed since; without {@code If-Match} the latest version
+ * is changed.
+ * </p>
+ *
  * @author
  *     BookingMX Team
  * @version 1.0
  */
 @RestController
-@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173", "*"})
+@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173", "*"},
+        exposedHeaders = {ReservationController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
 @RequestMapping(value = "/api/reservations", produces = MediaType.APPLICATION_JSON_VALUE)
 public class ReservationController {
 
+    /** Response header carrying the cursor of the next page of a paginated listing. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Request header that makes a create safe to retry. */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /** Media type of the streaming export: one JSON object per line. */
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    /** Reservations read from the service per page while exporting. */
+    private static final int EXPORT_PAGE_SIZE = ReservationService.MAX_PAGE_SIZE;
+
     private final ReservationService service;
 
+    /** Writes export lines; separators and flushing are left to {@link #export()}. */
+    private final ObjectWriter exportWriter;
+
+    /** Reservations created with an {@value #IDEMPOTENCY_KEY_HEADER}, by key. */
+    private final IdempotencyCache<Reservation> idempotency;
+
+    /** JSON of the reservations read most recently, written as is by the read endpoints. */
+    private final ReservationJsonCache json;
+
     /**
-     * Constructs a new {@code ReservationController} with the specified service dependency.
+     * Constructs a new {@code ReservationController} with the specified service dependency
+     * and Jackson's default Spring configuration, with the {@link ReservationJsonModule},
+     * to write responses.
      *
      * @param service the {@link ReservationService} used to handle reservation operations
      */
     public ReservationController(ReservationService service) {
+        this(service, Jackson2ObjectMapperBuilder.json().modulesToInstall(new ReservationJsonModule()).build());
+    }
+
+    /**
+     * Constructs a new {@code ReservationController} with the specified dependencies,
+     * a default {@link IdempotencyCache} and a default {@link ReservationJsonCache}.
+     *
+     * @param service the {@link ReservationService} used to handle reservation operations
+     * @param mapper  the application's {@link ObjectMapper}, used to write responses
+     */
+    public ReservationController(ReservationService service, ObjectMapper mapper) {
+        this(service, mapper, new IdempotencyCache<>(), new ReservationJsonCache(mapper));
+    }
+
+    /**
+     * Constructs a new {@code ReservationController} with the specified dependencies.
+     *
+     * @param service     the {@link ReservationService} used to handle reservation operations
+     * @param mapper      the application's {@link ObjectMapper}, used to write the export
+     * @param idempotency the reservations already created for each idempotency key
+     * @param json        the cache of serialized reservations used by the read endpoints
+     */
+    @Autowired
+    public ReservationController(ReservationService service, ObjectMapper mapper,
+                                 IdempotencyCache<Reservation> idempotency, ReservationJsonCache json) {
         this.service = service;
+        this.idempotency = idempotency;
+        this.json = json;
+        this.exportWriter = mapper.writerFor(ReservationResponse.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
-     * Retrieves a list of all reservations.
+     * Retrieves a list of all reservations, optionally restricted to one hotel.
+     * <p>
+     * When {@code limit} is given, the list is paginated by ID: the response
+     * holds at most {@code limit} reservations with an ID greater than
+     * {@code after}, and the {@value #NEXT_CURSOR_HEADER} header carries the
+     * {@code after} value of the next page. The header is absent on the last page.
+     * </p>
      *
-     * @return a list of {@link ReservationResponse} objects representing all reservations
+     * @param hotel if present, only reservations at this exact hotel name are returned
+     * @param limit if present, the page size
+     * @param after the cursor of the page to return; only used with {@code limit}
+     * @return a JSON array of {@link ReservationResponse} objects representing the matching
+     *         reservations, joined from the {@link ReservationJsonCache}
+     * @throws com.bookingmx.reservations.exception.BadRequestException
+     *         if the limit is out of range or the cursor is negative
      */
     @GetMapping
-    public List<ReservationResponse> list() {
-        return service.list().stream()
+    public ResponseEntity<byte[]> list(@RequestParam(value = "hotel", required = false) String hotel,
+                                       @RequestParam(value = "limit", required = false) Integer limit,
+                                       @RequestParam(value = "after", required = false) Long after) {
+        if (limit == null) {
+            List<Reservation> reservations = hotel == null ? service.list() : service.listByHotel(hotel);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(json.jsonArray(reservations));
+        }
+        ReservationRepository.Page page = service.listPage(hotel, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+        }
+        return response.body(json.jsonArray(page.items()));
+    }
+
+    /**
+     * Retrieves many reservations by ID in one request, for example the rows
+     * of a list the client already knows.
+     * <p>
+     * Selected over {@link #list(String, Integer, Long)} whenever the
+     * {@code ids} parameter is present. IDs are comma-separated or repeated
+     * ({@code ?ids=1,2,3} or {@code ?ids=1&ids=2}). IDs without a reservation
+     * do not fail the request; they are listed under {@code missing}.
+     * </p>
+     *
+     * @param ids the IDs to retrieve, at most {@link ReservationService#MAX_PAGE_SIZE}
+     * @return the reservations found and the IDs that were missing
+     * @throws com.bookingmx.reservations.exception.BadRequestException
+     *         if no IDs or too many are given
+     */
+    @GetMapping(params = "ids")
+    public ReservationLookupResponse getMany(@RequestParam("ids") List<Long> ids) {
+        ReservationRepository.Lookup lookup = service.findByIds(ids);
+        return new ReservationLookupResponse(
+                lookup.found().stream().map(this::toResponse).toList(),
+                lookup.missing());
+    }
+
+    /**
+     * Streams every reservation as newline-delimited JSON, in ascending ID order.
+     * <p>
+     * Reservations are read from the service one page at a time and written
+     * straight to the response, so memory use does not grow with the number of
+     * reservations. The first line is flushed as soon as it is written. The
+     * export is weakly consistent: reservations saved while it runs appear if
+     * their ID has not been passed yet.
+     * </p>
+     *
+     * @return the streaming response body
+     */
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public StreamingResponseBody export() {
+        return out -> {
+            try (JsonGenerator gen = exportWriter.createGenerator(out)) {
+                boolean first = true;
+                Long after = null;
+                do {
+                    ReservationRepository.Page page = service.listPage(null, after, EXPORT_PAGE_SIZE);
+                    for (Reservation r : page.items()) {
+                        exportWriter.writeValue(gen, toResponse(r));
+                        gen.writeRaw('\n');
+                        if (first) {
+                            gen.flush();
+                            first = false;
+                        }
+                    }
+                    after = page.nextCursor();
+                } while (after != null);
+            }
+        };
+    }
+
+    /**
+     * Retrieves the reservations created, updated or canceled after a given
+     * change version, for clients that keep a local copy.
+     * <p>
+     * The response carries a new {@code version}; passing it as {@code since}
+     * on the next call returns exactly the changes made in between. A
+     * reservation changed several times is returned once, in its current state.
+     * </p>
+     *
+     * @param since the version from the previous response; {@code 0} returns every reservation
+     * @return the changed reservations and the new version
+     * @throws com.bookingmx.reservations.exception.BadRequestException if {@code since} is negative
+     */
+    @GetMapping("/changes")
+    public ReservationChangesResponse changes(@RequestParam(value = "since", defaultValue = "0") long since) {
+        ReservationRepository.Changes changes = service.changesSince(since);
+        return new ReservationChangesResponse(changes.version(), changes.items().stream()
+                .map(this::toResponse)
+                .toList());
+    }
+
+    /**
+     * Retrieves the active reservations at a hotel whose stay overlaps the
+     * half-open window {@code [from, to)}.
+     *
+     * @param hotel the exact hotel name
+     * @param from  the first night of the window ({@code yyyy-MM-dd})
+     * @param to    the day the window ends, exclusive ({@code yyyy-MM-dd})
+     * @return the overlapping reservations, in ascending check-in order
+     * @throws com.bookingmx.reservations.exception.BadRequestException
+     *         if {@code to} is not after {@code from}
+     */
+    @GetMapping("/overlapping")
+    public List<ReservationResponse> overlapping(@RequestParam("hotel") String hotel,
+                                                 @RequestParam("from") LocalDate from,
+                                                 @RequestParam("to") LocalDate to) {
+        return service.findOverlapping(hotel, from, to).stream()
                 .map(this::toResponse)
                 .toList();
     }
@@ -64,55 +267,181 @@ public class ReservationController {
      * Retrieves a reservation by its ID.
      *
      * @param id the unique identifier of the reservation
-     * @return a {@link ReservationResponse} object representing the found reservation
+     * @return a {@link ReservationResponse} object representing the found reservation,
+     *         from the {@link ReservationJsonCache}, with its version as the {@code ETag}
      * @throws com.bookingmx.reservations.exception.ReservationNotFoundException
      *         if no reservation with the given ID exists
      */
     @GetMapping("/{id}")
-    public ReservationResponse get(@PathVariable("id") Long id) {
-        return toResponse(service.findById(id));
+    public ResponseEntity<byte[]> get(@PathVariable("id") Long id) {
+        Reservation r = service.findById(id);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(r.getVersion()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.json(r));
     }
 
     /**
      * Creates a new reservation using the provided request data.
+     * <p>
+     * With an {@value #IDEMPOTENCY_KEY_HEADER} header, the request can be
+     * retried safely: a retry with the same key and body gets the reservation
+     * the first request created, as it was then, instead of creating another.
+     * A retry sent while the first request is still running waits for it.
+     * Reusing a key for a different body is rejected with {@code 409 Conflict}.
+     * Failed requests are not remembered.
+     * </p>
      *
+     * @param key the client's idempotency key, or {@code null}
      * @param req the {@link ReservationRequest} containing guest, hotel, and date information
-     * @return a {@link ReservationResponse} representing the created reservation
-     * @throws jakarta.validation.ConstraintViolationException
-     *         if the provided data fails validation
+     * @return a {@link ReservationResponse} representing the created reservation,
+     *         with its version as the {@code ETag}
+     * @throws com.bookingmx.reservations.exception.InvalidRequestException
+     *         listing every validation rule the provided data breaks
+     * @throws com.bookingmx.reservations.exception.BadRequestException
+     *         if the key is blank or longer than {@value IdempotencyCache#MAX_KEY_LENGTH} characters
+     * @throws com.bookingmx.reservations.exception.ConflictException
+     *         if the key was already used for a different request
      */
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ReservationResponse create(@Valid @RequestBody ReservationRequest req) {
-        return toResponse(service.create(req));
+    public ResponseEntity<ReservationResponse> create(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String key,
+            @Valid @RequestBody ReservationRequest req) {
+        if (key == null) {
+            return tagged(service.create(req));
+        }
+        return tagged(idempotency.execute(key, fingerprint(req), () -> service.create(req)));
+    }
+
+    /**
+     * Identifies a create request, so that a key cannot be replayed for another one.
+     * Each field is prefixed with its length, or written as {@code -} when absent,
+     * so no two different requests share a fingerprint whatever their names contain.
+     */
+    private static String fingerprint(ReservationRequest req) {
+        StringBuilder sb = new StringBuilder(64);
+        for (Object field : new Object[] {req.getGuestName(), req.getHotelName(), req.getCheckIn(), req.getCheckOut()}) {
+            if (field == null) {
+                sb.append('-');
+            } else {
+                String s = field.toString();
+                sb.append(s.length()).append(':').append(s);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates many reservations in one request, reporting the outcome of each.
+     * <p>
+     * The response is {@code 200 OK} as long as the batch itself is acceptable;
+     * every item carries the status it would have had as a single create, so a
+     * channel manager can retry only the failed ones. Created reservations get
+     * consecutive IDs in request order.
+     * </p>
+     *
+     * @param reqs the reservations to create, at most {@link ReservationService#MAX_BATCH_SIZE}
+     * @return the number of created and failed items and the outcome of each
+     * @throws com.bookingmx.reservations.exception.BadRequestException
+     *         if the batch is empty or too large
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ReservationBatchResponse createBatch(@RequestBody List<ReservationRequest> reqs) {
+        List<ReservationService.BatchOutcome> outcomes = service.createAll(reqs);
+        List<ReservationBatchResponse.Item> items = new ArrayList<>(outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            ReservationService.BatchOutcome outcome = outcomes.get(i);
+            items.add(outcome.error() == null
+                    ? new ReservationBatchResponse.Item(i, HttpStatus.OK.value(), toResponse(outcome.reservation()), null)
+                    : new ReservationBatchResponse.Item(i, statusOf(outcome.error()), null, outcome.error().getMessage()));
+        }
+        return new ReservationBatchResponse(items);
+    }
+
+    /**
+     * Applies a mix of creates, updates and cancellations atomically: either
+     * all of them take effect or none does.
+     * <p>
+     * If any operation fails, the whole transaction fails with that
+     * operation's status, for example {@code 409} when a hotel is full or
+     * {@code 412} when a given version is stale, and a message naming the
+     * operation's index.
+     * </p>
+     *
+     * @param ops the operations, at most {@link ReservationService#MAX_BATCH_SIZE}
+     * @return the state of each operation's reservation afterwards, in operation order
+     * @throws com.bookingmx.reservations.exception.BadRequestException
+     *         if the transaction is malformed or an operation is invalid
+     * @throws com.bookingmx.reservations.exception.NotFoundException
+     *         if a reservation to update or cancel does not exist
+     * @throws com.bookingmx.reservations.exception.ConflictException
+     *         if a hotel has no room left on one of the added nights
+     * @throws com.bookingmx.reservations.exception.PreconditionFailedException
+     *         if a reservation is not at the version its operation gives
+     */
+    @PostMapping(value = "/transactions", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<ReservationResponse> transaction(@RequestBody List<ReservationOperation> ops) {
+        return service.applyAll(ops).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * Returns the HTTP status an exception is mapped to by its
+     * {@link ResponseStatus} annotation, or {@code 500} if it has none.
+     */
+    private static int statusOf(RuntimeException e) {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        return status == null ? HttpStatus.INTERNAL_SERVER_ERROR.value() : status.code().value();
     }
 
     /**
      * Updates an existing reservation with new data.
      *
-     * @param id  the unique identifier of the reservation to update
-     * @param req the {@link ReservationRequest} containing updated reservation details
-     * @return a {@link ReservationResponse} representing the updated reservation
+     * @param id      the unique identifier of the reservation to update
+     * @param ifMatch if present, the {@code ETag} of the version the update is based on
+     * @param req     the {@link ReservationRequest} containing updated reservation details
+     * @return a {@link ReservationResponse} representing the updated reservation,
+     *         with its new version as the {@code ETag}
      * @throws com.bookingmx.reservations.exception.ReservationNotFoundException
      *         if no reservation with the given ID exists
-     * @throws jakarta.validation.ConstraintViolationException
-     *         if the provided data fails validation
+     * @throws com.bookingmx.reservations.exception.PreconditionFailedException
+     *         if {@code If-Match} does not match the current version
+     * @throws com.bookingmx.reservations.exception.InvalidRequestException
+     *         listing every validation rule the provided data breaks
      */
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ReservationResponse update(@PathVariable("id") Long id, @Valid @RequestBody ReservationRequest req) {
-        return toResponse(service.update(id, req));
+    public ResponseEntity<ReservationResponse> update(@PathVariable("id") Long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @Valid @RequestBody ReservationRequest req) {
+        return tagged(service.update(id, req, ETags.version(ifMatch)));
     }
 
     /**
      * Cancels an existing reservation.
      *
-     * @param id the unique identifier of the reservation to cancel
-     * @return a {@link ReservationResponse} representing the canceled reservation
+     * @param id      the unique identifier of the reservation to cancel
+     * @param ifMatch if present, the {@code ETag} of the version the cancellation is based on
+     * @return a {@link ReservationResponse} representing the canceled reservation,
+     *         with its version as the {@code ETag}
      * @throws com.bookingmx.reservations.exception.ReservationNotFoundException
      *         if no reservation with the given ID exists
+     * @throws com.bookingmx.reservations.exception.PreconditionFailedException
+     *         if {@code If-Match} does not match the current version
      */
     @DeleteMapping("/{id}")
-    public ReservationResponse cancel(@PathVariable("id") Long id) {
-        return toResponse(service.cancel(id));
+    public ResponseEntity<ReservationResponse> cancel(@PathVariable("id") Long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return tagged(service.cancel(id, ETags.version(ifMatch)));
+    }
+
+    /**
+     * Wraps a reservation in a {@code 200 OK} response tagged with its version.
+     */
+    private ResponseEntity<ReservationResponse> tagged(Reservation r) {
+        return ResponseEntity.ok()
+                .eTag(ETags.of(r.getVersion()))
+                .body(toResponse(r));
     }
 
     /**
@@ -128,7 +457,8 @@ public class ReservationController {
                 r.getHotelName(),
                 r.getCheckIn(),
                 r.getCheckOut(),
-                r.getStatus()
+                r.getStatus(),
+                r.getVersion()
         );
     }
 }
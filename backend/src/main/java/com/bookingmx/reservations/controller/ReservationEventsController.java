@@ -0,0 +1,192 @@
+package com.bookingmx.reservations.controller;
+
+import com.bookingmx.reservations.service.ReservationEvent;
+import com.bookingmx.reservations.service.ReservationEventBus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * REST controller that streams reservation changes to clients as
+ * Server-Sent Events, so that they can keep a list up to date without polling.
+ * <p>
+ * Each connection subscribes to the {@link ReservationEventBus} with a queue
+ * of {@code bookingmx.events.buffer-size} events. Events are written by a
+ * delivery thread, never by the request that caused the change, and a
+ * comment line is sent every {@code bookingmx.events.heartbeat} so that
+ * broken connections are noticed. A client that cannot keep up and lets its
+ * queue fill receives a final {@code resync} event and the stream is closed;
+ * it should reload the full list and reconnect.
+ * </p>
+ *
+ * <p>
+ * Events are named after {@link ReservationEvent.Type} in lower case
+ * ({@code created}, {@code updated}, {@code canceled}), carry the event
+ * sequence as their ID and the reservation as JSON data.
+ * </p>
+ *
+ * @see ReservationEventBus
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@RestController
+@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173", "*"})
+@RequestMapping("/api/reservations")
+public class ReservationEventsController {
+
+    /** Name of the event telling a client it missed events and must reload. */
+    public static final String RESYNC_EVENT = "resync";
+
+    private final ReservationEventBus bus;
+    private final int bufferSize;
+
+    /** Writes events; one task per subscriber at a time, so a slow client only ties up its own thread. */
+    private final ExecutorService delivery = Executors.newCachedThreadPool(task -> {
+        Thread t = new Thread(task, "reservation-events");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread t = new Thread(task, "reservation-events-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs the controller.
+     *
+     * @param bus        the bus the service publishes changes on
+     * @param bufferSize the most events queued per client before it must resync
+     * @param heartbeat  delay between keep-alive comments
+     */
+    public ReservationEventsController(ReservationEventBus bus,
+                                       @Value("${bookingmx.events.buffer-size:256}") int bufferSize,
+                                       @Value("${bookingmx.events.heartbeat:15s}") Duration heartbeat) {
+        this.bus = bus;
+        this.bufferSize = bufferSize;
+        long millis = heartbeat.toMillis();
+        heartbeats.scheduleWithFixedDelay(() -> subscribers.forEach(Subscriber::heartbeat),
+                millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of reservation changes. A comment is sent straight away
+     * so that the client knows the stream is live before the first change.
+     *
+     * @return the event stream
+     * @throws IOException if the opening comment cannot be sent
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() throws IOException {
+        SseEmitter emitter = new SseEmitter();
+        emitter.send(SseEmitter.event().comment("connected"));
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.open();
+        return emitter;
+    }
+
+    /**
+     * Stops delivery and heartbeats on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        delivery.shutdownNow();
+    }
+
+    /** One connected client: its bus subscription and the drain task that writes to it. */
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+        private ReservationEventBus.Subscription subscription;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void open() {
+            subscription = bus.subscribe(bufferSize, this::signal);
+        }
+
+        void heartbeat() {
+            heartbeatDue = true;
+            signal();
+        }
+
+        void signal() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                delivery.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                drain();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; Spring reports it through onError/onCompletion too.
+                close();
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!closed && (subscription.hasPending() || subscription.isOverflowed() || heartbeatDue)) {
+                signal();
+            }
+        }
+
+        private void drain() throws IOException {
+            if (subscription.isOverflowed()) {
+                emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+                close();
+                emitter.complete();
+                return;
+            }
+            ReservationEvent event;
+            while (!closed && (event = subscription.poll()) != null) {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.sequence()))
+                        .name(event.type().name().toLowerCase())
+                        .data(event.reservation(), MediaType.APPLICATION_JSON));
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            if (subscription != null) {
+                subscription.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.bookingmx.reservations.controller;
+
+import com.bookingmx.reservations.dto.ReservationResponse;
+import com.bookingmx.reservations.model.Reservation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.List;
+
+/**
+ * Cache of reservations already serialized as JSON, so that reads of a
+ * reservation that has not changed skip the DTO mapping and Jackson.
+ * <p>
+ * Entries are keyed by ID and change version. Every save stamps a new version
+ * and versions are never reused, so a save invalidates the cached JSON of the
+ * reservation by itself: the next read sees a different version, misses, and
+ * replaces the entry.
+ * </p>
+ *
+ * <p>
+ * The cache is a fixed array of slots indexed by ID, so its memory is bounded
+ * by the number of slots and a lookup costs one array read. Two reservations
+ * whose IDs share a slot take turns in it. Entries are immutable and written
+ * without locks; a thread that reads a slot while another replaces it sees one
+ * entry or the other, and checks its ID and version either way.
+ * </p>
+ *
+ * <p>
+ * The returned arrays are shared and must not be modified.
+ * </p>
+ *
+ * @see ReservationController
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+public final class ReservationJsonCache {
+
+    /** Default number of slots. */
+    public static final int DEFAULT_SLOTS = 65_536;
+
+    private final ObjectWriter writer;
+    private final Entry[] slots;
+    private final int mask;
+
+    /**
+     * Creates a cache with {@link #DEFAULT_SLOTS} slots.
+     *
+     * @param mapper the application's {@link ObjectMapper}, used on misses
+     */
+    public ReservationJsonCache(ObjectMapper mapper) {
+        this(mapper, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param mapper the application's {@link ObjectMapper}, used on misses
+     * @param slots  the number of slots, rounded up to a power of two
+     * @throws IllegalArgumentException if {@code slots} is not between 1 and 2<sup>30</sup>
+     */
+    public ReservationJsonCache(ObjectMapper mapper, int slots) {
+        if (slots < 1 || slots > 1 << 30) {
+            throw new IllegalArgumentException("Slots must be between 1 and 2^30: " + slots);
+        }
+        int size = Integer.highestOneBit(slots - 1) << 1;
+        this.slots = new Entry[Math.max(1, size)];
+        this.mask = this.slots.length - 1;
+        this.writer = mapper.writerFor(ReservationResponse.class);
+    }
+
+    /**
+     * Returns a reservation as a JSON object.
+     *
+     * @param r the reservation
+     * @return its JSON, as the {@link ReservationResponse} the API returns
+     */
+    public byte[] json(Reservation r) {
+        Long version = r.getVersion();
+        if (version == null) {
+            return write(r);
+        }
+        long id = r.getId();
+        int slot = slot(id);
+        Entry e = slots[slot];
+        if (e != null && e.id == id && e.version == version) {
+            return e.json;
+        }
+        byte[] json = write(r);
+        slots[slot] = new Entry(id, version, json);
+        return json;
+    }
+
+    /**
+     * Returns reservations as a JSON array, joining their cached objects.
+     *
+     * @param reservations the reservations, in response order
+     * @return the JSON array
+     */
+    public byte[] jsonArray(List<Reservation> reservations) {
+        int n = reservations.size();
+        byte[][] parts = new byte[n][];
+        int length = n == 0 ? 2 : n + 1;
+        for (int i = 0; i < n; i++) {
+            parts[i] = json(reservations.get(i));
+            length += parts[i].length;
+        }
+        byte[] out = new byte[length];
+        out[0] = '[';
+        int at = 1;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                out[at++] = ',';
+            }
+            System.arraycopy(parts[i], 0, out, at, parts[i].length);
+            at += parts[i].length;
+        }
+        out[at] = ']';
+        return out;
+    }
+
+    /** @return the number of slots */
+    public int slots() {
+        return slots.length;
+    }
+
+    private int slot(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private byte[] write(Reservation r) {
+        try {
+            return writer.writeValueAsBytes(new ReservationResponse(
+                    r.getId(),
+                    r.getGuestName(),
+                    r.getHotelName(),
+                    r.getCheckIn(),
+                    r.getCheckOut(),
+                    r.getStatus(),
+                    r.getVersion()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize reservation " + r.getId(), e);
+        }
+    }
+
+    /** The JSON of one version of one reservation. */
+    private static final class Entry {
+        final long id;
+        final long version;
+        final byte[] json;
+
+        Entry(long id, long version, byte[] json) {
+            this.id = id;
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
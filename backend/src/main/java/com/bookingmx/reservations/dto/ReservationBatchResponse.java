@@ -0,0 +1,139 @@
+package com.bookingmx.reservations.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) returned by the batch create endpoint: how many
+ * reservations were created, how many failed, and the outcome of every item
+ * in request order.
+ * <p>
+ * Typical usage:
+ * </p>
+ * <pre>
+ * {
+ *   "created": 1,
+ *   "failed": 1,
+ *   "results": [
+ *     { "index": 0, "status": 200, "reservation": { "id": 41, "guestName": "John Doe", ... } },
+ *     { "index": 1, "status": 400, "error": "Check-out must be after check-in" }
+ *   ]
+ * }
+ * </pre>
+ *
+ * @see ReservationResponse
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+public class ReservationBatchResponse {
+
+    /**
+     * Number of reservations created.
+     */
+    private final int created;
+
+    /**
+     * Number of items that were rejected.
+     */
+    private final int failed;
+
+    /**
+     * Outcome of every item, in request order.
+     */
+    private final List<Item> results;
+
+    /**
+     * Constructs a new {@code ReservationBatchResponse}, counting the outcomes.
+     *
+     * @param results the outcome of every item, in request order
+     */
+    public ReservationBatchResponse(List<Item> results) {
+        int ok = 0;
+        for (Item item : results) {
+            if (item.getReservation() != null) {
+                ok++;
+            }
+        }
+        this.created = ok;
+        this.failed = results.size() - ok;
+        this.results = results;
+    }
+
+    /**
+     * Returns the number of reservations created.
+     *
+     * @return the number of successful items
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    /**
+     * Returns the number of items that were rejected.
+     *
+     * @return the number of failed items
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the outcome of every item.
+     *
+     * @return the outcomes, in request order
+     */
+    public List<Item> getResults() {
+        return results;
+    }
+
+    /**
+     * Outcome of one item: the created reservation, or the HTTP status and
+     * message the item would have failed with on its own.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+
+        private final int index;
+        private final int status;
+        private final ReservationResponse reservation;
+        private final String error;
+
+        /**
+         * Constructs a new {@code Item}.
+         *
+         * @param index       the position of the item in the request
+         * @param status      the HTTP status of the item
+         * @param reservation the created reservation, or {@code null} on failure
+         * @param error       the error message, or {@code null} on success
+         */
+        public Item(int index, int status, ReservationResponse reservation, String error) {
+            this.index = index;
+            this.status = status;
+            this.reservation = reservation;
+            this.error = error;
+        }
+
+        /** @return the position of the item in the request */
+        public int getIndex() {
+            return index;
+        }
+
+        /** @return the HTTP status of the item */
+        public int getStatus() {
+            return status;
+        }
+
+        /** @return the created reservation, or {@code null} on failure */
+        public ReservationResponse getReservation() {
+            return reservation;
+        }
+
+        /** @return the error message, or {@code null} on success */
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.bookingmx.reservations.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) returned by the delta-sync endpoint: the
+ * reservations changed since a client's last sync and the version to sync
+ * from next time.
+ * <p>
+ * Typical usage:
+ * </p>
+ * <pre>
+ * {
+ *   "version": 57,
+ *   "reservations": [
+ *     { "id": 3, "guestName": "John Doe", ..., "status": "CANCELED", "version": 55 }
+ *   ]
+ * }
+ * </pre>
+ *
+ * @see ReservationResponse
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+public class ReservationChangesResponse {
+
+    /**
+     * High-water mark to send as {@code since} on the next request.
+     */
+    private final long version;
+
+    /**
+     * Reservations changed since the requested version, oldest change first.
+     */
+    private final List<ReservationResponse> reservations;
+
+    /**
+     * Constructs a new {@code ReservationChangesResponse}.
+     *
+     * @param version      the new high-water mark
+     * @param reservations the changed reservations
+     */
+    public ReservationChangesResponse(long version, List<ReservationResponse> reservations) {
+        this.version = version;
+        this.reservations = reservations;
+    }
+
+    /**
+     * Returns the high-water mark to send as {@code since} on the next request.
+     *
+     * @return the new high-water mark
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the reservations changed since the requested version.
+     *
+     * @return the changed reservations, oldest change first
+     */
+    public List<ReservationResponse> getReservations() {
+        return reservations;
+    }
+}
@@ -0,0 +1,213 @@
+package com.bookingmx.reservations.dto;
+
+import com.bookingmx.reservations.model.ReservationStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Jackson module with hand-written codecs for the reservation DTOs that every
+ * request goes through: a serializer for {@link ReservationResponse} and a
+ * deserializer for {@link ReservationRequest}.
+ * <p>
+ * Both produce exactly the JSON the bean codecs would, but skip the
+ * reflection: field names are pre-encoded, and ISO dates are written from a
+ * table of two-digit pairs and parsed digit by digit, without an intermediate
+ * {@code String}. Anything off the fast path, such as dates written as
+ * timestamps or a date that is not {@code yyyy-MM-dd}, falls back to the
+ * mapper's own {@link LocalDate} codecs, so the module never changes what the
+ * API accepts or returns.
+ * </p>
+ *
+ * @see com.bookingmx.reservations.config.JacksonConfig
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+public class ReservationJsonModule extends SimpleModule {
+
+    /** {@code "00"} to {@code "99"}, two characters per number. */
+    private static final char[] DIGIT_PAIRS = new char[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    /**
+     * Creates the module.
+     */
+    public ReservationJsonModule() {
+        super("ReservationJsonModule");
+        addSerializer(ReservationResponse.class, new ResponseSerializer());
+        addDeserializer(ReservationRequest.class, new RequestDeserializer());
+    }
+
+    /**
+     * Writes {@link ReservationResponse} field by field, in the order of the bean.
+     */
+    static final class ResponseSerializer extends StdSerializer<ReservationResponse> {
+
+        private static final SerializableString ID = new SerializedString("id");
+        private static final SerializableString GUEST_NAME = new SerializedString("guestName");
+        private static final SerializableString HOTEL_NAME = new SerializedString("hotelName");
+        private static final SerializableString CHECK_IN = new SerializedString("checkIn");
+        private static final SerializableString CHECK_OUT = new SerializedString("checkOut");
+        private static final SerializableString STATUS = new SerializedString("status");
+        private static final SerializableString VERSION = new SerializedString("version");
+
+        private static final SerializableString[] STATUSES = new SerializableString[ReservationStatus.values().length];
+
+        static {
+            for (ReservationStatus s : ReservationStatus.values()) {
+                STATUSES[s.ordinal()] = new SerializedString(s.name());
+            }
+        }
+
+        ResponseSerializer() {
+            super(ReservationResponse.class);
+        }
+
+        @Override
+        public void serialize(ReservationResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(value);
+            gen.writeFieldName(ID);
+            writeNumber(value.getId(), gen);
+            gen.writeFieldName(GUEST_NAME);
+            gen.writeString(value.getGuestName());
+            gen.writeFieldName(HOTEL_NAME);
+            gen.writeString(value.getHotelName());
+            gen.writeFieldName(CHECK_IN);
+            writeDate(value.getCheckIn(), gen, provider);
+            gen.writeFieldName(CHECK_OUT);
+            writeDate(value.getCheckOut(), gen, provider);
+            gen.writeFieldName(STATUS);
+            if (value.getStatus() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(STATUSES[value.getStatus().ordinal()]);
+            }
+            gen.writeFieldName(VERSION);
+            writeNumber(value.getVersion(), gen);
+            gen.writeEndObject();
+        }
+
+        private static void writeNumber(Long n, JsonGenerator gen) throws IOException {
+            if (n == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(n.longValue());
+            }
+        }
+
+        private static void writeDate(LocalDate date, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            int year = date == null ? -1 : date.getYear();
+            if (year < 0 || year > 9999 || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                provider.defaultSerializeValue(date, gen);
+                return;
+            }
+            char[] buf = new char[10];
+            int hi = year / 100;
+            int lo = year - hi * 100;
+            buf[0] = DIGIT_PAIRS[2 * hi];
+            buf[1] = DIGIT_PAIRS[2 * hi + 1];
+            buf[2] = DIGIT_PAIRS[2 * lo];
+            buf[3] = DIGIT_PAIRS[2 * lo + 1];
+            buf[4] = '-';
+            buf[5] = DIGIT_PAIRS[2 * date.getMonthValue()];
+            buf[6] = DIGIT_PAIRS[2 * date.getMonthValue() + 1];
+            buf[7] = '-';
+            buf[8] = DIGIT_PAIRS[2 * date.getDayOfMonth()];
+            buf[9] = DIGIT_PAIRS[2 * date.getDayOfMonth() + 1];
+            gen.writeString(buf, 0, 10);
+        }
+    }
+
+    /**
+     * Reads {@link ReservationRequest} token by token.
+     */
+    static final class RequestDeserializer extends StdDeserializer<ReservationRequest> {
+
+        RequestDeserializer() {
+            super(ReservationRequest.class);
+        }
+
+        @Override
+        public ReservationRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken t = p.currentToken();
+            if (t != JsonToken.START_OBJECT && t != JsonToken.FIELD_NAME) {
+                return (ReservationRequest) ctxt.handleUnexpectedToken(ReservationRequest.class, p);
+            }
+            ReservationRequest req = new ReservationRequest();
+            String name = t == JsonToken.START_OBJECT ? p.nextFieldName() : p.currentName();
+            for (; name != null; name = p.nextFieldName()) {
+                p.nextToken();
+                switch (name) {
+                    case "guestName" -> req.setGuestName(readString(p, ctxt));
+                    case "hotelName" -> req.setHotelName(readString(p, ctxt));
+                    case "checkIn" -> req.setCheckIn(readDate(p, ctxt));
+                    case "checkOut" -> req.setCheckOut(readDate(p, ctxt));
+                    default -> ctxt.handleUnknownProperty(p, this, ReservationRequest.class, name);
+                }
+            }
+            return req;
+        }
+
+        private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return switch (p.currentToken()) {
+                case VALUE_STRING -> p.getText();
+                case VALUE_NULL -> null;
+                default -> ctxt.readValue(p, String.class);
+            };
+        }
+
+        private static LocalDate readDate(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (p.currentToken() == JsonToken.VALUE_STRING && p.getTextLength() == 10) {
+                char[] c = p.getTextCharacters();
+                int o = p.getTextOffset();
+                if (c[o + 4] == '-' && c[o + 7] == '-') {
+                    int year = digits(c, o, 4);
+                    int month = digits(c, o + 5, 2);
+                    int day = digits(c, o + 8, 2);
+                    if (year >= 0 && month >= 1 && month <= 12 && day >= 1
+                            && day <= LocalDate.of(year, month, 1).lengthOfMonth()) {
+                        return LocalDate.of(year, month, day);
+                    }
+                }
+            }
+            return ctxt.readValue(p, LocalDate.class);
+        }
+
+        /** @return the number written by {@code n} ASCII digits, or -1 if any is not a digit */
+        private static int digits(char[] c, int from, int n) {
+            int value = 0;
+            for (int i = from; i < from + n; i++) {
+                int d = c[i] - '0';
+                if (d < 0 || d > 9) {
+                    return -1;
+                }
+                value = value * 10 + d;
+            }
+            return value;
+        }
+    }
+}
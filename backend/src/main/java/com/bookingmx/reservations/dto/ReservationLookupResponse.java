@@ -0,0 +1,67 @@
+package com.bookingmx.reservations.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) returned by the multi-get endpoint: the
+ * reservations found for the requested IDs and the IDs that matched none.
+ * <p>
+ * Typical usage:
+ * </p>
+ * <pre>
+ * {
+ *   "reservations": [
+ *     { "id": 1, "guestName": "John Doe", ... },
+ *     { "id": 3, "guestName": "Ana", ... }
+ *   ],
+ *   "missing": [2]
+ * }
+ * </pre>
+ *
+ * @see ReservationResponse
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+public class ReservationLookupResponse {
+
+    /**
+     * Reservations found, in the order their IDs were requested.
+     */
+    private final List<ReservationResponse> reservations;
+
+    /**
+     * Requested IDs that match no reservation, in request order.
+     */
+    private final List<Long> missing;
+
+    /**
+     * Constructs a new {@code ReservationLookupResponse}.
+     *
+     * @param reservations the reservations found
+     * @param missing      the IDs that match no reservation
+     */
+    public ReservationLookupResponse(List<ReservationResponse> reservations, List<Long> missing) {
+        this.reservations = reservations;
+        this.missing = missing;
+    }
+
+    /**
+     * Returns the reservations found.
+     *
+     * @return the reservations, in the order their IDs were requested
+     */
+    public List<ReservationResponse> getReservations() {
+        return reservations;
+    }
+
+    /**
+     * Returns the requested IDs that match no reservation.
+     *
+     * @return the missing IDs, in request order
+     */
+    public List<Long> getMissing() {
+        return missing;
+    }
+}
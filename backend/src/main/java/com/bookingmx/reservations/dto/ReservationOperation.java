@@ -0,0 +1,103 @@
+package com.bookingmx.reservations.dto;
+
+/**
+ * Data Transfer Object (DTO) for one operation of an atomic transaction:
+ * a create, an update or a cancellation.
+ * <p>
+ * Typical usage, a guest moving from one hotel to another:
+ * </p>
+ * <pre>
+ * [
+ *   { "type": "CANCEL", "id": 12, "version": 40 },
+ *   { "type": "CREATE", "reservation": { "guestName": "Ana", "hotelName": "Hotel Chapala", ... } }
+ * ]
+ * </pre>
+ *
+ * <ul>
+ *   <li>{@code CREATE} needs {@code reservation} and no {@code id}</li>
+ *   <li>{@code UPDATE} needs {@code id} and {@code reservation}</li>
+ *   <li>{@code CANCEL} needs {@code id}</li>
+ * </ul>
+ *
+ * <p>
+ * {@code version} is optional on updates and cancellations: when present,
+ * the transaction fails unless the reservation is still at that version,
+ * like a request with {@code If-Match}.
+ * </p>
+ *
+ * @see ReservationRequest
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+public class ReservationOperation {
+
+    /**
+     * Kind of change an operation makes.
+     */
+    public enum Type {
+        CREATE, UPDATE, CANCEL
+    }
+
+    private Type type;
+
+    private Long id;
+
+    private Long version;
+
+    private ReservationRequest reservation;
+
+    /**
+     * Creates an empty operation, for JSON binding.
+     */
+    public ReservationOperation() {
+    }
+
+    /**
+     * Creates an operation.
+     *
+     * @param type        the kind of change
+     * @param id          the reservation to change, or {@code null} for a create
+     * @param version     the version the change is based on, or {@code null} for any
+     * @param reservation the new details, or {@code null} for a cancellation
+     */
+    public ReservationOperation(Type type, Long id, Long version, ReservationRequest reservation) {
+        this.type = type;
+        this.id = id;
+        this.version = version;
+        this.reservation = reservation;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public ReservationRequest getReservation() {
+        return reservation;
+    }
+
+    public void setReservation(ReservationRequest reservation) {
+        this.reservation = reservation;
+    }
+}
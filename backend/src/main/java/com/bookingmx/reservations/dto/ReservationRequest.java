@@ -19,6 +19,8 @@ import java.time.LocalDate;
  *   <li>Guest and hotel names are not blank.</li>
  *   <li>Check-in and check-out dates are not null and must represent future dates.</li>
  * </ul>
+ * They are enforced by
+ * {@link com.bookingmx.reservations.service.ReservationRequestValidator}.
  * </p>
  *
  * <p>
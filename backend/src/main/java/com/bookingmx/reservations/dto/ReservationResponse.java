@@ -22,7 +22,8 @@ import java.time.LocalDate;
  *   "hotelName": "Ocean View Resort",
  *   "checkIn": "2025-12-10",
  *   "checkOut": "2025-12-15",
- *   "status": "CONFIRMED"
+ *   "status": "CONFIRMED",
+ *   "version": 42
  * }
  * </pre>
  *
@@ -66,7 +67,12 @@ public class ReservationResponse {
     private ReservationStatus status;
 
     /**
-     * Constructs a new {@code ReservationResponse} with all required fields.
+     * Change version of the reservation's latest save.
+     */
+    private Long version;
+
+    /**
+     * Constructs a new {@code ReservationResponse} without a change version.
      *
      * @param id         the unique identifier of the reservation
      * @param guestName  the name of the guest
@@ -81,12 +87,34 @@ public class ReservationResponse {
                                LocalDate checkIn,
                                LocalDate checkOut,
                                ReservationStatus status) {
+        this(id, guestName, hotelName, checkIn, checkOut, status, null);
+    }
+
+    /**
+     * Constructs a new {@code ReservationResponse} with all fields.
+     *
+     * @param id         the unique identifier of the reservation
+     * @param guestName  the name of the guest
+     * @param hotelName  the name of the hotel
+     * @param checkIn    the check-in date
+     * @param checkOut   the check-out date
+     * @param status     the current reservation status
+     * @param version    the change version of the latest save
+     */
+    public ReservationResponse(Long id,
+                               String guestName,
+                               String hotelName,
+                               LocalDate checkIn,
+                               LocalDate checkOut,
+                               ReservationStatus status,
+                               Long version) {
         this.id = id;
         this.guestName = guestName;
         this.hotelName = hotelName;
         this.checkIn = checkIn;
         this.checkOut = checkOut;
         this.status = status;
+        this.version = version;
     }
 
     /**
@@ -142,4 +170,13 @@ public class ReservationResponse {
     public ReservationStatus getStatus() {
         return status;
     }
+
+    /**
+     * Returns the change version of the reservation's latest save.
+     *
+     * @return the change version
+     */
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -1,11 +1,12 @@
 package com.bookingmx.reservations.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.*;
-
-import java.time.Instant;
-import java.util.Map;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 /**
  * Global exception handler for the Reservation API.
@@ -22,6 +23,20 @@ import java.util.Map;
  * </p>
  *
  * <p>
+ * Requests that Spring MVC cannot bind, such as a missing or malformed query
+ * parameter or an unreadable JSON body, are client errors too and are
+ * answered with 400 in the same format, rather than falling through to the
+ * generic 500.
+ * </p>
+ *
+ * <p>
+ * Clients reach the error paths often, for example by probing IDs that do
+ * not exist, so they are kept cheap: domain exceptions carry no stack trace,
+ * and the bodies are written as bytes by {@link ErrorBodyWriter} from parts
+ * it has already encoded, rather than built as a {@code Map} for Jackson.
+ * </p>
+ *
+ * <p>
  * The default error format returned by this handler is:
  * </p>
  *
@@ -34,7 +49,10 @@ import java.util.Map;
  * </pre>
  *
  * @see BadRequestException
+ * @see InvalidRequestException
  * @see NotFoundException
+ * @see ConflictException
+ * @see PreconditionFailedException
  * @see org.springframework.web.bind.annotation.RestControllerAdvice
  *
  * @author
@@ -44,6 +62,9 @@ import java.util.Map;
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
+    /** Writes the error bodies from cached parts, without a {@code Map} or Jackson. */
+    private final ErrorBodyWriter bodies = new ErrorBodyWriter();
+
     /**
      * Handles {@link BadRequestException} errors and returns a 400 Bad Request response.
      *
@@ -52,9 +73,23 @@ public class ApiExceptionHandler {
      */
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<?> badRequest(BadRequestException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    /**
+     * Handles {@link InvalidRequestException} errors and returns a 400 Bad Request
+     * response that lists every violation.
+     *
+     * @param ex the {@code InvalidRequestException} thrown by the application
+     * @return a {@link ResponseEntity} with HTTP 400 and a structured JSON error body
+     *         with a {@code violations} array
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<?> invalidRequest(InvalidRequestException ex) {
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
-                .body(errorBody(ex.getMessage(), 400));
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(bodies.write(400, ex.getMessage(), ex.getViolations()));
     }
 
     /**
@@ -65,9 +100,65 @@ public class ApiExceptionHandler {
      */
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<?> notFound(NotFoundException ex) {
-        return ResponseEntity
-                .status(HttpStatus.NOT_FOUND)
-                .body(errorBody(ex.getMessage(), 404));
+        return error(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    /**
+     * Handles {@link ConflictException} errors and returns a 409 Conflict response.
+     *
+     * @param ex the {@code ConflictException} thrown by the application
+     * @return a {@link ResponseEntity} with HTTP 409 and a structured JSON error body
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<?> conflict(ConflictException ex) {
+        return error(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    /**
+     * Handles {@link PreconditionFailedException} errors and returns a 412 Precondition Failed response.
+     *
+     * @param ex the {@code PreconditionFailedException} thrown by the application
+     * @return a {@link ResponseEntity} with HTTP 412 and a structured JSON error body
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<?> preconditionFailed(PreconditionFailedException ex) {
+        return error(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    /**
+     * Handles a query parameter or path variable that cannot be converted to
+     * its type, such as {@code ?limit=abc} or {@code ?from=tomorrow}, and
+     * returns a 400 Bad Request response.
+     *
+     * @param ex the conversion failure reported by Spring MVC
+     * @return a {@link ResponseEntity} with HTTP 400 and a structured JSON error body
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<?> typeMismatch(MethodArgumentTypeMismatchException ex) {
+        return error(HttpStatus.BAD_REQUEST, "Invalid value for parameter '" + ex.getName() + "'");
+    }
+
+    /**
+     * Handles a required query parameter that is absent and returns a 400 Bad Request response.
+     *
+     * @param ex the missing parameter reported by Spring MVC
+     * @return a {@link ResponseEntity} with HTTP 400 and a structured JSON error body
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<?> missingParameter(MissingServletRequestParameterException ex) {
+        return error(HttpStatus.BAD_REQUEST, "Missing required parameter '" + ex.getParameterName() + "'");
+    }
+
+    /**
+     * Handles a request body that is not valid JSON or does not match the
+     * expected shape, and returns a 400 Bad Request response.
+     *
+     * @param ex the read failure reported by Spring MVC
+     * @return a {@link ResponseEntity} with HTTP 400 and a structured JSON error body
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<?> unreadableBody(HttpMessageNotReadableException ex) {
+        return error(HttpStatus.BAD_REQUEST, "Malformed request body");
     }
 
     /**
@@ -82,31 +173,28 @@ public class ApiExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> generic(Exception ex) {
-        return ResponseEntity
-                .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(errorBody("Unexpected error", 500));
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error");
     }
 
     /**
-     * Builds a structured JSON response body for API errors.
+     * Builds an error response with a structured JSON body.
      * <p>
-     * The response includes:
+     * The body includes:
      * <ul>
-     *     <li>{@code timestamp}: when the error occurred</li>
+     *     <li>{@code timestamp}: when the error occurred, to the millisecond</li>
      *     <li>{@code status}: HTTP status code</li>
      *     <li>{@code message}: error message or description</li>
      * </ul>
      * </p>
      *
+     * @param status  the HTTP status
      * @param message the error message to include
-     * @param status  the HTTP status code
-     * @return a {@link Map} containing error details
+     * @return the response, with the body already written as JSON
      */
-    private Map<String, Object> errorBody(String message, int status) {
-        return Map.of(
-                "timestamp", Instant.now().toString(),
-                "status", status,
-                "message", message
-        );
+    private ResponseEntity<byte[]> error(HttpStatus status, String message) {
+        return ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(bodies.write(status.value(), message));
     }
 }
\ No newline at end of file
@@ -37,10 +37,14 @@ public class BadRequestException extends RuntimeException {
 
     /**
      * Constructs a new {@code BadRequestException} with the specified detail message.
+     * <p>
+     * No stack trace is captured: the fault is in the request, and the trace
+     * would only ever point at the code that checked it.
+     * </p>
      *
      * @param m the error message describing why the request was invalid
      */
     public BadRequestException(String m) {
-        super(m);
+        super(m, null, false, false);
     }
 }
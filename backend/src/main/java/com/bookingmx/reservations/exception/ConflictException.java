@@ -0,0 +1,43 @@
+package com.bookingmx.reservations.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request is valid but conflicts with the current
+ * state of the system.
+ * <p>
+ * This exception is mapped to the HTTP {@code 409 Conflict} status code.
+ * It should be used when a request cannot be fulfilled because of existing
+ * data, for example when a hotel has no rooms left for one of the nights
+ * being booked.
+ * </p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * if (booked &gt;= rooms) {
+ *     throw new ConflictException("No rooms available at " + hotel + " on " + night);
+ * }
+ * </pre>
+ *
+ * @see org.springframework.web.bind.annotation.ResponseStatus
+ * @see com.bookingmx.reservations.exception.ApiExceptionHandler
+ * @see com.bookingmx.reservations.exception.BadRequestException
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code ConflictException} with the specified detail message.
+     * The exception reports a business outcome, not a bug, so it carries no stack trace.
+     *
+     * @param m the error message describing the conflict
+     */
+    public ConflictException(String m) {
+        super(m, null, false, false);
+    }
+}
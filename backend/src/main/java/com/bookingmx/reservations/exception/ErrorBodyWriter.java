@@ -0,0 +1,173 @@
+package com.bookingmx.reservations.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes the JSON error bodies of {@link ApiExceptionHandler} straight to
+ * bytes.
+ * <p>
+ * A body is assembled from parts that are encoded once and reused: the
+ * fixed text around each field, the quoted message, and the timestamp, which
+ * is formatted at most once per millisecond. Messages are quoted by Jackson
+ * and kept in a small table indexed by their hash, so the fixed messages of
+ * frequent errors are encoded once, and a message that is not in the table is
+ * simply encoded again. Writing a body then costs one array.
+ * </p>
+ *
+ * @see ApiExceptionHandler
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+final class ErrorBodyWriter {
+
+    private static final int MESSAGE_SLOTS = 256;
+
+    private static final byte[] OPEN = ascii("{\"timestamp\":\"");
+    private static final byte[] STATUS = ascii("\",\"status\":");
+    private static final byte[] MESSAGE = ascii(",\"message\":\"");
+    private static final byte[] VIOLATIONS = ascii("\",\"violations\":[");
+    private static final byte[] CLOSE = ascii("\"}");
+    private static final byte[] CLOSE_VIOLATIONS = ascii("]}");
+
+    private static final byte[] BAD_REQUEST = ascii("400");
+    private static final byte[] NOT_FOUND = ascii("404");
+    private static final byte[] CONFLICT = ascii("409");
+    private static final byte[] PRECONDITION_FAILED = ascii("412");
+    private static final byte[] INTERNAL_ERROR = ascii("500");
+
+    private final Message[] messages = new Message[MESSAGE_SLOTS];
+
+    /** The timestamp of the current millisecond, replaced when the clock moves on. */
+    private volatile Stamp stamp = new Stamp(Long.MIN_VALUE, new byte[0]);
+
+    /**
+     * Writes {@code {"timestamp": ..., "status": ..., "message": ...}}.
+     *
+     * @param status  the HTTP status code
+     * @param message the error message
+     * @return the JSON body
+     */
+    byte[] write(int status, String message) {
+        return write(status, message, null);
+    }
+
+    /**
+     * Writes an error body, with a {@code violations} array when given.
+     *
+     * @param status     the HTTP status code
+     * @param message    the error message
+     * @param violations the broken validation rules, or {@code null} for none
+     * @return the JSON body
+     */
+    byte[] write(int status, String message, List<String> violations) {
+        byte[] timestamp = timestamp();
+        byte[] code = ascii(status);
+        byte[] text = quoted(message);
+        byte[][] items = null;
+        int length = OPEN.length + timestamp.length + STATUS.length + code.length + MESSAGE.length + text.length;
+        if (violations == null) {
+            length += CLOSE.length;
+        } else {
+            items = new byte[violations.size()][];
+            length += VIOLATIONS.length + CLOSE_VIOLATIONS.length;
+            for (int i = 0; i < items.length; i++) {
+                items[i] = quoted(violations.get(i));
+                length += items[i].length + (i == 0 ? 2 : 3);
+            }
+        }
+        byte[] out = new byte[length];
+        int at = put(out, 0, OPEN);
+        at = put(out, at, timestamp);
+        at = put(out, at, STATUS);
+        at = put(out, at, code);
+        at = put(out, at, MESSAGE);
+        at = put(out, at, text);
+        if (items == null) {
+            put(out, at, CLOSE);
+            return out;
+        }
+        at = put(out, at, VIOLATIONS);
+        for (int i = 0; i < items.length; i++) {
+            if (i > 0) {
+                out[at++] = ',';
+            }
+            out[at++] = '"';
+            at = put(out, at, items[i]);
+            out[at++] = '"';
+        }
+        put(out, at, CLOSE_VIOLATIONS);
+        return out;
+    }
+
+    private byte[] timestamp() {
+        long now = System.currentTimeMillis();
+        Stamp s = stamp;
+        if (s.millis != now) {
+            s = new Stamp(now, ascii(Instant.ofEpochMilli(now).toString()));
+            stamp = s;
+        }
+        return s.text;
+    }
+
+    private byte[] quoted(String message) {
+        if (message == null) {
+            message = "";
+        }
+        int slot = (message.hashCode() ^ (message.hashCode() >>> 16)) & (MESSAGE_SLOTS - 1);
+        Message m = messages[slot];
+        if (m != null && m.text.equals(message)) {
+            return m.quoted;
+        }
+        byte[] quoted = JsonStringEncoder.getInstance().quoteAsUTF8(message);
+        messages[slot] = new Message(message, quoted);
+        return quoted;
+    }
+
+    private static byte[] ascii(int status) {
+        return switch (status) {
+            case 400 -> BAD_REQUEST;
+            case 404 -> NOT_FOUND;
+            case 409 -> CONFLICT;
+            case 412 -> PRECONDITION_FAILED;
+            case 500 -> INTERNAL_ERROR;
+            default -> ascii(Integer.toString(status));
+        };
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static int put(byte[] out, int at, byte[] part) {
+        System.arraycopy(part, 0, out, at, part.length);
+        return at + part.length;
+    }
+
+    /** A timestamp formatted for one millisecond. */
+    private static final class Stamp {
+        final long millis;
+        final byte[] text;
+
+        Stamp(long millis, byte[] text) {
+            this.millis = millis;
+            this.text = text;
+        }
+    }
+
+    /** A message and its quoted UTF-8 form. */
+    private static final class Message {
+        final String text;
+        final byte[] quoted;
+
+        Message(String text, byte[] quoted) {
+            this.text = text;
+            this.quoted = quoted;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.bookingmx.reservations.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+/**
+ * Exception thrown when a request body breaks one or more validation rules.
+ * <p>
+ * It is a {@link BadRequestException} that carries every rule the request
+ * broke, not just the first, so that a client can fix them all at once. The
+ * message joins the violations with {@code "; "}; a request with a single
+ * violation therefore has the same message as a plain
+ * {@code BadRequestException} for that rule.
+ * </p>
+ *
+ * <p><b>Example response:</b></p>
+ * <pre>
+ * {
+ *   "timestamp": "2025-11-08T18:30:12.456Z",
+ *   "status": 400,
+ *   "message": "Guest name cannot be blank; Check-out must be after check-in",
+ *   "violations": ["Guest name cannot be blank", "Check-out must be after check-in"]
+ * }
+ * </pre>
+ *
+ * @see com.bookingmx.reservations.service.ReservationRequestValidator
+ * @see com.bookingmx.reservations.exception.ApiExceptionHandler
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends BadRequestException {
+
+    private final List<String> violations;
+
+    /**
+     * Constructs a new {@code InvalidRequestException} from its violations.
+     *
+     * @param violations the rules the request broke, at least one
+     */
+    public InvalidRequestException(List<String> violations) {
+        this(String.join("; ", violations), violations);
+    }
+
+    /**
+     * Constructs a new {@code InvalidRequestException} with its own message.
+     *
+     * @param m          the error message
+     * @param violations the rules the request broke, at least one
+     */
+    public InvalidRequestException(String m, List<String> violations) {
+        super(m);
+        this.violations = List.copyOf(violations);
+    }
+
+    /**
+     * Returns the rules the request broke.
+     *
+     * @return the violations, in the order the rules were checked
+     */
+    public List<String> getViolations() {
+        return violations;
+    }
+}
@@ -35,10 +35,15 @@ public class NotFoundException extends RuntimeException {
 
     /**
      * Constructs a new {@code NotFoundException} with the specified detail message.
+     * <p>
+     * Clients probe unknown IDs often, so the exception does not capture a
+     * stack trace, and an instance with a fixed message can be thrown again
+     * and again.
+     * </p>
      *
      * @param m the error message explaining which resource could not be found
      */
     public NotFoundException(String m) {
-        super(m);
+        super(m, null, false, false);
     }
 }
\ No newline at end of file
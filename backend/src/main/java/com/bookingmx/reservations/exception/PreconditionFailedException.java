@@ -0,0 +1,43 @@
+package com.bookingmx.reservations.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a conditional request names a version of a resource
+ * that is no longer current.
+ * <p>
+ * This exception is mapped to the HTTP {@code 412 Precondition Failed} status
+ * code. It is used when an {@code If-Match} header does not match the ETag of
+ * the reservation being changed, meaning the client last read a version that
+ * has since been overwritten.
+ * </p>
+ *
+ * <p><b>Example usage:</b></p>
+ * <pre>
+ * if (!current.getVersion().equals(expectedVersion)) {
+ *     throw new PreconditionFailedException("Reservation has been modified");
+ * }
+ * </pre>
+ *
+ * @see org.springframework.web.bind.annotation.ResponseStatus
+ * @see com.bookingmx.reservations.exception.ApiExceptionHandler
+ * @see com.bookingmx.reservations.exception.ConflictException
+ *
+ * @author
+ *     BookingMX Team
+ * @version 1.0
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code PreconditionFailedException} with the specified detail message.
+     * Like the other client errors, it carries no stack trace.
+     *
+     * @param m the error message describing the failed precondition
+     */
+    public PreconditionFailedException(String m) {
+        super(m, null, false, false);
+    }
+}
@@ -15,6 +15,13 @@ import java.util.Objects;
  * reservation data, and may be mapped to a database entity in future extensions.
  * </p>
  *
+ * <p>
+ * Reservations are immutable. A change is made by deriving a new value with
+ * one of the {@code with...} methods and saving it, which replaces the stored
+ * value in one step. A reservation read from the repository is therefore a
+ * consistent snapshot that can be shared between threads without locking.
+ * </p>
+ *
  * <p><b>Example usage:</b></p>
  * <pre>
  * Reservation reservation = new Reservation(
@@ -24,6 +31,7 @@ import java.util.Objects;
  *     LocalDate.of(2025, 12, 10),
  *     LocalDate.of(2025, 12, 15)
  * );
+ * Reservation canceled = reservation.withStatus(ReservationStatus.CANCELED);
  * </pre>
  *
  * @see com.bookingmx.reservations.model.ReservationStatus
@@ -39,27 +47,27 @@ public class Reservation {
     /**
      * Unique identifier for the reservation.
      */
-    private Long id;
+    private final Long id;
 
     /**
      * The name of the guest who made the reservation.
      */
-    private String guestName;
+    private final String guestName;
 
     /**
      * The name of the hotel where the reservation is booked.
      */
-    private String hotelName;
+    private final String hotelName;
 
     /**
      * The date when the guest will check into the hotel.
      */
-    private LocalDate checkIn;
+    private final LocalDate checkIn;
 
     /**
      * The date when the guest will check out of the hotel.
      */
-    private LocalDate checkOut;
+    private final LocalDate checkOut;
 
     /**
      * The current status of the reservation.
@@ -67,7 +75,24 @@ public class Reservation {
      * Defaults to {@link ReservationStatus#ACTIVE}.
      * </p>
      */
-    private ReservationStatus status = ReservationStatus.ACTIVE;
+    private final ReservationStatus status;
+
+    /**
+     * Change version stamped by the repository on every save.
+     * <p>
+     * Versions come from one counter shared by all reservations, so they also
+     * order changes across reservations. {@code null} until first saved.
+     * </p>
+     *
+     * <p>
+     * The version also identifies the saved state for optimistic concurrency:
+     * it is the ETag of the reservation, and
+     * {@link com.bookingmx.reservations.repo.ReservationRepository#saveIfVersion(Reservation, long)}
+     * only replaces the stored reservation if its version is still the one the
+     * writer read.
+     * </p>
+     */
+    private final Long version;
 
     /**
      * Constructs a new {@code Reservation} with the specified details.
@@ -82,49 +107,102 @@ public class Reservation {
      * @param checkOut   the check-out date
      */
     public Reservation(Long id, String guestName, String hotelName, LocalDate checkIn, LocalDate checkOut) {
+        this(id, guestName, hotelName, checkIn, checkOut, ReservationStatus.ACTIVE, null);
+    }
+
+    /**
+     * Constructs a new {@code Reservation} with every field given.
+     *
+     * @param id         the unique identifier of the reservation
+     * @param guestName  the name of the guest
+     * @param hotelName  the name of the hotel
+     * @param checkIn    the check-in date
+     * @param checkOut   the check-out date
+     * @param status     the reservation status
+     * @param version    the change version, or {@code null} if never saved
+     */
+    public Reservation(Long id, String guestName, String hotelName, LocalDate checkIn, LocalDate checkOut,
+                       ReservationStatus status, Long version) {
         this.id = id;
         this.guestName = guestName;
         this.hotelName = hotelName;
         this.checkIn = checkIn;
         this.checkOut = checkOut;
-        this.status = ReservationStatus.ACTIVE;
+        this.status = status;
+        this.version = version;
     }
 
     /** @return the unique reservation ID */
     public Long getId() { return id; }
 
-    /** @param id sets the unique reservation ID */
-    public void setId(Long id) { this.id = id; }
 
     /** @return the name of the guest */
     public String getGuestName() { return guestName; }
 
-    /** @param guestName sets the guest name */
-    public void setGuestName(String guestName) { this.guestName = guestName; }
 
     /** @return the name of the hotel */
     public String getHotelName() { return hotelName; }
 
-    /** @param hotelName sets the hotel name */
-    public void setHotelName(String hotelName) { this.hotelName = hotelName; }
 
     /** @return the check-in date */
     public LocalDate getCheckIn() { return checkIn; }
 
-    /** @param checkIn sets the check-in date */
-    public void setCheckIn(LocalDate checkIn) { this.checkIn = checkIn; }
 
     /** @return the check-out date */
     public LocalDate getCheckOut() { return checkOut; }
 
-    /** @param checkOut sets the check-out date */
-    public void setCheckOut(LocalDate checkOut) { this.checkOut = checkOut; }
 
     /** @return the current reservation status */
     public ReservationStatus getStatus() { return status; }
 
-    /** @param status sets the reservation status */
-    public void setStatus(ReservationStatus status) { this.status = status; }
+
+    /** @return the change version of the latest save, or {@code null} if never saved */
+    public Long getVersion() { return version; }
+
+
+    /**
+     * Returns this reservation with another ID.
+     *
+     * @param id the new ID
+     * @return a copy with {@code id}
+     */
+    public Reservation withId(Long id) {
+        return new Reservation(id, guestName, hotelName, checkIn, checkOut, status, version);
+    }
+
+    /**
+     * Returns this reservation with another status.
+     *
+     * @param status the new status
+     * @return a copy with {@code status}
+     */
+    public Reservation withStatus(ReservationStatus status) {
+        return new Reservation(id, guestName, hotelName, checkIn, checkOut, status, version);
+    }
+
+    /**
+     * Returns this reservation with another change version; used by the
+     * repository when it saves the reservation.
+     *
+     * @param version the new version
+     * @return a copy with {@code version}
+     */
+    public Reservation withVersion(Long version) {
+        return new Reservation(id, guestName, hotelName, checkIn, checkOut, status, version);
+    }
+
+    /**
+     * Returns this reservation with new guest, hotel and dates, keeping its ID and status.
+     *
+     * @param guestName the new guest name
+     * @param hotelName the new hotel name
+     * @param checkIn   the new check-in date
+     * @param checkOut  the new check-out date
+     * @return the changed copy
+     */
+    public Reservation withDetails(String guestName, String hotelName, LocalDate checkIn, LocalDate checkOut) {
+        return new Reservation(id, guestName, hotelName, checkIn, checkOut, status, version);
+    }
 
     /**
      * Determines whether this reservation is currently active.
@@ -15,7 +15,7 @@ package com.bookingmx.reservations.model;
  * <p><b>Example usage:</b></p>
  * <pre>
  * Reservation reservation = new Reservation(...);
- * reservation.setStatus(ReservationStatus.CANCELED);
+ * Reservation canceled = reservation.withStatus(ReservationStatus.CANCELED);
  * </pre>
  *
  * @see com.bookingmx.reservations.model.Reservation
@@ -0,0 +1,123 @@
+package com.bookingmx.reservations.repo;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongConsumer;
+
+/**
+ * Index of the latest change version of every reservation, ordered by version.
+ * <p>
+ * Each save is stamped with the next value of a global counter. The log keeps
+ * one entry per reservation, under the version of its latest save, so the IDs
+ * changed after a given version are a tail of the map and are found in
+ * {@code O(log n + k)} for {@code k} changes.
+ * </p>
+ *
+ * <p>
+ * Concurrent saves may finish out of version order. A version is therefore
+ * <em>in flight</em> from the moment it is stamped until the save has been
+ * applied, and {@link #highWaterMark()} never moves past the oldest version
+ * still in flight. Every version at or below the high-water mark is either
+ * visible in the log or superseded by a newer save of the same reservation,
+ * so a client that asks for changes since the mark it last received never
+ * misses one.
+ * </p>
+ *
+ * @see ReservationRepository#findChangedSince(long)
+ * @since 1.0
+ */
+final class ChangeLog {
+
+    /** Latest version stamped; guarded by {@code this} together with {@link #inFlight}. */
+    private long lastVersion;
+
+    /** Versions stamped but not yet applied or abandoned. */
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+
+    /** Reservation ID by the version of its latest applied save. */
+    private final ConcurrentSkipListMap<Long, Long> idByVersion = new ConcurrentSkipListMap<>();
+
+    /** Version under which each reservation is currently filed in {@link #idByVersion}. */
+    private final ConcurrentLongMap<Long> versionById = new ConcurrentLongMap<>();
+
+    /**
+     * Stamps a new version and marks it in flight. Stamping and marking happen
+     * together so that {@link #highWaterMark()} never sees one without the other.
+     *
+     * @return the new version
+     */
+    synchronized long stamp() {
+        long version = ++lastVersion;
+        inFlight.add(version);
+        return version;
+    }
+
+    /**
+     * Files {@code id} under {@code version}, replacing its older entry, and
+     * ends the version's flight. An entry older than the one already filed is
+     * ignored, so saves of one reservation that finish out of order keep the
+     * newest version.
+     *
+     * @param id      the reservation ID
+     * @param version the version of the save that was applied
+     */
+    void record(long id, long version) {
+        versionById.compute(id, (key, previous) -> {
+            if (previous != null) {
+                if (previous >= version) {
+                    return previous;
+                }
+                idByVersion.remove(previous);
+            }
+            idByVersion.put(version, key);
+            return version;
+        });
+        inFlight.remove(version);
+    }
+
+    /**
+     * Ends the flight of a version whose save failed before being applied.
+     *
+     * @param version the abandoned version
+     */
+    void abandon(long version) {
+        inFlight.remove(version);
+    }
+
+    /**
+     * Moves the counter past a version recovered from storage.
+     *
+     * @param version the recovered version
+     */
+    synchronized void advanceTo(long version) {
+        lastVersion = Math.max(lastVersion, version);
+    }
+
+    /**
+     * Returns the highest version up to which every save has been applied.
+     *
+     * @return the high-water mark
+     */
+    synchronized long highWaterMark() {
+        // Versions may leave the set concurrently, so look it up once rather than test then read.
+        Long oldest = inFlight.ceiling(0L);
+        return oldest == null ? lastVersion : oldest - 1;
+    }
+
+    /**
+     * Reports, in ascending version order, the ID of every reservation whose
+     * latest save has a version in {@code (since, upTo]}.
+     *
+     * @param since the exclusive lower bound
+     * @param upTo  the inclusive upper bound
+     * @param sink  receives the IDs
+     */
+    void changedBetween(long since, long upTo, LongConsumer sink) {
+        if (upTo <= since) {
+            return;
+        }
+        for (Long id : idByVersion.subMap(since, false, upTo, true).values()) {
+            sink.accept(id);
+        }
+    }
+}
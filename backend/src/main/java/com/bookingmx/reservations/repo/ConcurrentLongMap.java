@@ -0,0 +1,400 @@
+package com.bookingmx.reservations.repo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Concurrent hash map specialised for primitive {@code long} keys.
+ * <p>
+ * Entries live in parallel {@code long[]} / {@code Object[]} arrays with open
+ * addressing and linear probing, so there is no boxed key and no per-entry node
+ * object. The key space is split into independently locked segments: writes
+ * lock one segment, while reads never lock and only use acquire/release array
+ * accesses. A removed entry keeps its key with a {@code null} value (a
+ * tombstone) until the segment is next rehashed.
+ * </p>
+ *
+ * <p>
+ * Key {@code 0} marks an empty slot and cannot be stored. Iteration is weakly
+ * consistent, like {@link java.util.concurrent.ConcurrentHashMap}'s: it never
+ * fails under concurrent updates and may or may not reflect them.
+ * </p>
+ *
+ * @param <V> the type of mapped values
+ * @see ReservationRepository
+ * @since 1.0
+ */
+public final class ConcurrentLongMap<V> {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /**
+     * Function computing a new mapping from a key and its current value, for
+     * {@link #compute(long, Remapping)}.
+     *
+     * @param <V> the type of mapped values
+     */
+    @FunctionalInterface
+    public interface Remapping<V> {
+
+        /**
+         * @param key      the key being updated
+         * @param oldValue the current value, or {@code null} if absent
+         * @return the new value, or {@code null} to remove the mapping
+         */
+        V apply(long key, V oldValue);
+    }
+
+    /** Number of segments; a power of two. */
+    private static final int SEGMENT_COUNT = 64;
+    private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENT_COUNT);
+    private static final int MIN_CAPACITY = 16;
+
+    /** Slots used (live entries plus tombstones) per slot allowed before rehashing. */
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    /**
+     * Creates an empty map.
+     */
+    public ConcurrentLongMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map sized to hold {@code expectedSize} entries without rehashing.
+     *
+     * @param expectedSize the number of entries expected
+     */
+    public ConcurrentLongMap(int expectedSize) {
+        int perSegment = (int) Math.ceil(expectedSize / (double) SEGMENT_COUNT / LOAD_FACTOR);
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, perSegment - 1)) << 1);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    /**
+     * Returns the value mapped to {@code key}, or {@code null} if there is none.
+     *
+     * @param key the key to look up
+     * @return the mapped value or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return null;
+        }
+        long h = hash(key);
+        Table t = segmentFor(h).table;
+        int mask = t.keys.length - 1;
+        for (int i = (int) h & mask; ; i = (i + 1) & mask) {
+            long k = (long) KEYS.getAcquire(t.keys, i);
+            if (k == key) {
+                return (V) VALUES.getAcquire(t.values, i);
+            }
+            if (k == 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Maps {@code key} to {@code value}.
+     *
+     * @param key   the key; must not be {@code 0}
+     * @param value the value; must not be {@code null}
+     * @return the previous value or {@code null}
+     * @throws IllegalArgumentException if {@code key} is {@code 0}
+     * @throws NullPointerException     if {@code value} is {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long h = hash(key);
+        Segment s = segmentFor(h);
+        synchronized (s) {
+            return (V) s.put(h, key, value);
+        }
+    }
+
+    /**
+     * Atomically replaces the mapping of {@code key} with the result of
+     * {@code remapping}, which runs while the key's segment is locked. It
+     * should be short and must not update this map.
+     *
+     * @param key       the key; must not be {@code 0}
+     * @param remapping computes the new value from the current one
+     * @return the new value, or {@code null} if the key is now unmapped
+     * @throws IllegalArgumentException if {@code key} is {@code 0}
+     */
+    @SuppressWarnings("unchecked")
+    public V compute(long key, Remapping<V> remapping) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        long h = hash(key);
+        Segment s = segmentFor(h);
+        synchronized (s) {
+            V old = (V) s.get(h, key);
+            V value = remapping.apply(key, old);
+            if (value != null) {
+                s.put(h, key, value);
+            } else if (old != null) {
+                s.remove(h, key);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Runs {@code action} while holding the segment locks of all the given
+     * keys, so that no other writer can change any of them until it returns.
+     * The locks are taken in segment order, so concurrent callers cannot
+     * deadlock. Inside the action {@link #put(long, Object)} and
+     * {@link #compute(long, Remapping)} may be used on these keys; other
+     * keys must not be written.
+     *
+     * @param keys   the keys to hold; may repeat
+     * @param action the action to run
+     */
+    public void withKeysLocked(long[] keys, Runnable action) {
+        boolean[] held = new boolean[SEGMENT_COUNT];
+        for (long key : keys) {
+            held[(int) (hash(key) >>> SEGMENT_SHIFT)] = true;
+        }
+        lockFrom(0, held, action);
+    }
+
+    private void lockFrom(int segment, boolean[] held, Runnable action) {
+        while (segment < SEGMENT_COUNT && !held[segment]) {
+            segment++;
+        }
+        if (segment == SEGMENT_COUNT) {
+            action.run();
+            return;
+        }
+        synchronized (segments[segment]) {
+            lockFrom(segment + 1, held, action);
+        }
+    }
+
+    /**
+     * Returns the number of entries. Under concurrent updates the result is a
+     * moment-in-time estimate.
+     *
+     * @return the number of mapped keys
+     */
+    public int size() {
+        long size = 0;
+        for (Segment s : segments) {
+            size += s.size;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Applies {@code action} to every value.
+     *
+     * @param action the action to apply
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Segment s : segments) {
+            Table t = s.table;
+            for (int i = 0; i < t.keys.length; i++) {
+                if ((long) KEYS.getAcquire(t.keys, i) != 0) {
+                    Object v = VALUES.getAcquire(t.values, i);
+                    if (v != null) {
+                        action.accept((V) v);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the values.
+     *
+     * @return an iterator that does not support removal
+     */
+    public Iterator<V> valueIterator() {
+        return new ValueIterator();
+    }
+
+    private Segment segmentFor(long h) {
+        return segments[(int) (h >>> SEGMENT_SHIFT)];
+    }
+
+    /** Spreads key bits so that sequential ids are scattered across segments and slots. */
+    private static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    /** Immutable-size slot arrays; replaced as a whole when a segment is rehashed. */
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+    /** One independently locked partition of the key space; mutated only while holding its monitor. */
+    private static final class Segment {
+        volatile Table table;
+        volatile int size;
+
+        /** Live entries plus tombstones in {@link #table}. */
+        int used;
+
+        Segment(int capacity) {
+            table = new Table(capacity);
+        }
+
+        Object get(long h, long key) {
+            Table t = table;
+            int mask = t.keys.length - 1;
+            for (int i = (int) h & mask; ; i = (i + 1) & mask) {
+                long k = t.keys[i];
+                if (k == key) {
+                    return t.values[i];
+                }
+                if (k == 0) {
+                    return null;
+                }
+            }
+        }
+
+        /** Turns the entry for {@code key}, if any, into a tombstone. */
+        Object remove(long h, long key) {
+            Table t = table;
+            int mask = t.keys.length - 1;
+            for (int i = (int) h & mask; ; i = (i + 1) & mask) {
+                long k = t.keys[i];
+                if (k == key) {
+                    Object old = t.values[i];
+                    if (old != null) {
+                        VALUES.setRelease(t.values, i, null);
+                        size--;
+                    }
+                    return old;
+                }
+                if (k == 0) {
+                    return null;
+                }
+            }
+        }
+
+        Object put(long h, long key, Object value) {
+            Table t = table;
+            int mask = t.keys.length - 1;
+            int i = (int) h & mask;
+            for (long k; (k = t.keys[i]) != 0; i = (i + 1) & mask) {
+                if (k == key) {
+                    Object old = t.values[i];
+                    VALUES.setRelease(t.values, i, value);
+                    if (old == null) {
+                        size++;
+                    }
+                    return old;
+                }
+            }
+            if (used + 1 > t.keys.length * LOAD_FACTOR) {
+                rehash();
+                return put(h, key, value);
+            }
+            VALUES.setRelease(t.values, i, value);
+            KEYS.setRelease(t.keys, i, key);
+            used++;
+            size++;
+            return null;
+        }
+
+        /** Copies the live entries into a new table, doubling it unless most used slots are tombstones. */
+        private void rehash() {
+            Table old = table;
+            int capacity = size * 2 > old.keys.length * LOAD_FACTOR ? old.keys.length * 2 : old.keys.length;
+            Table t = new Table(capacity);
+            int mask = capacity - 1;
+            int live = 0;
+            for (int j = 0; j < old.keys.length; j++) {
+                long key = old.keys[j];
+                Object value = old.values[j];
+                if (key != 0 && value != null) {
+                    int i = (int) hash(key) & mask;
+                    while (t.keys[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    t.keys[i] = key;
+                    t.values[i] = value;
+                    live++;
+                }
+            }
+            used = live;
+            table = t;
+        }
+    }
+
+    /** Walks the segments' current tables slot by slot. */
+    private final class ValueIterator implements Iterator<V> {
+        private int segment = -1;
+        private Table table;
+        private int slot;
+        private V next;
+
+        ValueIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public V next() {
+            V v = next;
+            if (v == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return v;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            while (true) {
+                if (table == null || slot >= table.keys.length) {
+                    if (++segment >= SEGMENT_COUNT) {
+                        next = null;
+                        return;
+                    }
+                    table = segments[segment].table;
+                    slot = 0;
+                }
+                int i = slot++;
+                if ((long) KEYS.getAcquire(table.keys, i) != 0) {
+                    Object v = VALUES.getAcquire(table.values, i);
+                    if (v != null) {
+                        next = (V) v;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
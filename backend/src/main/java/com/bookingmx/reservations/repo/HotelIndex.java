@@ -0,0 +1,63 @@
+package com.bookingmx.reservations.repo;
+
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Concurrent secondary index from hotel name to the IDs of its reservations.
+ * <p>
+ * The index remembers which hotel each ID is currently filed under, so that a
+ * reservation moving to another hotel is taken out of the old hotel's set. Each
+ * move runs atomically for its ID, and the per-hotel sets are kept in ID order.
+ * </p>
+ *
+ * @see ReservationRepository#findByHotel(String)
+ * @since 1.0
+ */
+final class HotelIndex {
+
+    /** Hotel each ID is currently filed under. */
+    private final ConcurrentLongMap<String> hotelById = new ConcurrentLongMap<>();
+
+    /** IDs filed under each hotel; a hotel's entry is dropped once its set is empty. */
+    private final ConcurrentHashMap<String, NavigableSet<Long>> idsByHotel = new ConcurrentHashMap<>();
+
+    /**
+     * Files {@code id} under {@code hotel}, removing it from the hotel it was
+     * previously filed under if that differs.
+     *
+     * @param id    the reservation ID
+     * @param hotel the reservation's current hotel, or {@code null} to unfile it
+     */
+    void update(long id, String hotel) {
+        hotelById.compute(id, (key, previous) -> {
+            if (previous != null && !previous.equals(hotel)) {
+                idsByHotel.computeIfPresent(previous, (name, ids) -> {
+                    ids.remove(key);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+            if (hotel != null && !hotel.equals(previous)) {
+                idsByHotel.compute(hotel, (name, ids) -> {
+                    NavigableSet<Long> set = ids != null ? ids : new ConcurrentSkipListSet<>();
+                    set.add(key);
+                    return set;
+                });
+            }
+            return hotel;
+        });
+    }
+
+    /**
+     * Returns a live, ascending view of the IDs filed under {@code hotel}.
+     *
+     * @param hotel the hotel name
+     * @return the IDs, or an empty set if the hotel has no reservations
+     */
+    NavigableSet<Long> idsFor(String hotel) {
+        NavigableSet<Long> ids = idsByHotel.get(hotel);
+        return ids != null ? ids : Collections.emptyNavigableSet();
+    }
+}
@@ -0,0 +1,224 @@
+package com.bookingmx.reservations.repo;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Augmented interval tree over half-open {@code [start, end)} intervals of
+ * epoch days, each tagged with a reservation ID.
+ * <p>
+ * The tree is a treap ordered by {@code (start, id)} whose nodes also record the
+ * largest {@code end} in their subtree. A stabbing query can therefore skip
+ * every subtree whose intervals all end before the window starts, and every
+ * right subtree that starts after the window ends. Priorities are derived
+ * from the ID, so the shape is deterministic and of expected depth
+ * {@code O(log n)}.
+ * </p>
+ *
+ * <p>
+ * A query costs {@code O((k + 1) log n)} expected time for {@code k} matches,
+ * not {@code O(log n + k)}: a subtree is entered whenever it holds a match,
+ * and the nodes on the way down may themselves end before the window, so
+ * each match can bring up to a root path of visited nodes that are not
+ * reported. The bound is reached when long stays nest around many short ones
+ * that ended earlier; with stays of similar length most visited nodes match.
+ * </p>
+ *
+ * <p>
+ * Writers take an exclusive lock; queries share a read lock.
+ * </p>
+ *
+ * @see StayIndex
+ * @since 1.0
+ */
+final class IntervalTree {
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final long id;
+        final int priority;
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(long start, long end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.priority = Long.hashCode(id * 0x9E3779B97F4A7C15L);
+            this.maxEnd = end;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+    private int size;
+
+    /**
+     * Adds the interval {@code [start, end)} for {@code id}.
+     *
+     * @param id    the reservation ID
+     * @param start the first day, inclusive
+     * @param end   the last day, exclusive
+     */
+    void insert(long id, long start, long end) {
+        lock.writeLock().lock();
+        try {
+            root = insert(root, new Node(start, end, id));
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the interval previously added for {@code id} with the same bounds.
+     *
+     * @param id    the reservation ID
+     * @param start the first day the interval was inserted with
+     * @param end   the last day the interval was inserted with
+     */
+    void remove(long id, long start, long end) {
+        lock.writeLock().lock();
+        try {
+            int before = size;
+            root = remove(root, start, id);
+            if (size == before) {
+                throw new IllegalStateException("Interval for reservation " + id + " is not indexed");
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reports the ID of every interval overlapping {@code [from, to)}, in
+     * ascending start order.
+     *
+     * @param from the first day of the window, inclusive
+     * @param to   the last day of the window, exclusive
+     * @param sink receives the matching IDs
+     */
+    void overlapping(long from, long to, LongConsumer sink) {
+        lock.readLock().lock();
+        try {
+            overlapping(root, from, to, sink);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of intervals in the tree
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void overlapping(Node n, long from, long to, LongConsumer sink) {
+        while (n != null && n.maxEnd > from) {
+            overlapping(n.left, from, to, sink);
+            if (n.start >= to) {
+                return;
+            }
+            if (n.end > from) {
+                sink.accept(n.id);
+            }
+            n = n.right;
+        }
+    }
+
+    private static int compare(long start, long id, Node n) {
+        int c = Long.compare(start, n.start);
+        return c != 0 ? c : Long.compare(id, n.id);
+    }
+
+    private static Node insert(Node n, Node added) {
+        if (n == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, n) < 0) {
+            n.left = insert(n.left, added);
+            if (n.left.priority > n.priority) {
+                n = rotateRight(n);
+            }
+        } else {
+            n.right = insert(n.right, added);
+            if (n.right.priority > n.priority) {
+                n = rotateLeft(n);
+            }
+        }
+        update(n);
+        return n;
+    }
+
+    private Node remove(Node n, long start, long id) {
+        if (n == null) {
+            return null;
+        }
+        int c = compare(start, id, n);
+        if (c < 0) {
+            n.left = remove(n.left, start, id);
+        } else if (c > 0) {
+            n.right = remove(n.right, start, id);
+        } else {
+            size--;
+            return merge(n.left, n.right);
+        }
+        update(n);
+        return n;
+    }
+
+    /** Joins two treaps where every key of {@code a} precedes every key of {@code b}. */
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static void update(Node n) {
+        long max = n.end;
+        if (n.left != null && n.left.maxEnd > max) {
+            max = n.left.maxEnd;
+        }
+        if (n.right != null && n.right.maxEnd > max) {
+            max = n.right.maxEnd;
+        }
+        n.maxEnd = max;
+    }
+}
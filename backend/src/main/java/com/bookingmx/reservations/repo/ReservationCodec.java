@@ -0,0 +1,138 @@
+package com.bookingmx.reservations.repo;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.model.ReservationStatus;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Compact binary encoding of {@link Reservation} entities used by the durable
+ * storage files of {@link ReservationRepository}.
+ * <p>
+ * Layout of a single encoded reservation (big-endian):
+ * </p>
+ * <pre>
+ * long   id
+ * byte   status ordinal
+ * long   change version
+ * long   check-in epoch day   ({@link Long#MIN_VALUE} when absent)
+ * long   check-out epoch day  ({@link Long#MIN_VALUE} when absent)
+ * int    guest name length    (-1 when absent) + UTF-8 bytes
+ * int    hotel name length    (-1 when absent) + UTF-8 bytes
+ * </pre>
+ *
+ * @see WriteAheadLog
+ * @since 1.0
+ */
+final class ReservationCodec {
+
+    /** Marker stored in place of an absent date. */
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    /** Cached enum values to avoid cloning the array on every decode. */
+    private static final ReservationStatus[] STATUSES = ReservationStatus.values();
+
+    /** Fixed-size part of an encoded reservation, in bytes. */
+    private static final int FIXED_BYTES = Long.BYTES + 1 + Long.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private ReservationCodec() {
+    }
+
+    /**
+     * Returns the number of bytes {@link #encode} will write for the given
+     * pre-encoded name fields.
+     *
+     * @param guest the UTF-8 guest name, or {@code null}
+     * @param hotel the UTF-8 hotel name, or {@code null}
+     * @return the encoded size in bytes
+     */
+    static int encodedSize(byte[] guest, byte[] hotel) {
+        return FIXED_BYTES + (guest == null ? 0 : guest.length) + (hotel == null ? 0 : hotel.length);
+    }
+
+    /**
+     * Returns the UTF-8 bytes of a string, or {@code null} for a {@code null} input.
+     *
+     * @param s the string to convert
+     * @return the UTF-8 bytes or {@code null}
+     */
+    static byte[] utf8(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a reservation into the buffer. The caller must make sure at least
+     * {@link #encodedSize(byte[], byte[])} bytes are remaining.
+     *
+     * @param r     the reservation to encode (must have an id and a version)
+     * @param guest the UTF-8 guest name, as returned by {@link #utf8(String)}
+     * @param hotel the UTF-8 hotel name, as returned by {@link #utf8(String)}
+     * @param out   the destination buffer
+     */
+    static void encode(Reservation r, byte[] guest, byte[] hotel, ByteBuffer out) {
+        out.putLong(r.getId());
+        out.put((byte) r.getStatus().ordinal());
+        out.putLong(r.getVersion());
+        out.putLong(r.getCheckIn() == null ? NO_DATE : r.getCheckIn().toEpochDay());
+        out.putLong(r.getCheckOut() == null ? NO_DATE : r.getCheckOut().toEpochDay());
+        putBytes(guest, out);
+        putBytes(hotel, out);
+    }
+
+    /**
+     * Reads one reservation from the buffer's current position.
+     *
+     * @param in the source buffer
+     * @return the decoded reservation
+     * @throws BufferUnderflowException if the buffer ends in the middle of a record
+     * @throws IllegalStateException    if the record contains an unknown status
+     */
+    static Reservation decode(ByteBuffer in) {
+        long id = in.getLong();
+        int status = in.get() & 0xFF;
+        if (status >= STATUSES.length) {
+            throw new IllegalStateException("Unknown reservation status " + status);
+        }
+        long version = in.getLong();
+        LocalDate checkIn = toDate(in.getLong());
+        LocalDate checkOut = toDate(in.getLong());
+        String guest = getString(in);
+        String hotel = getString(in);
+
+        return new Reservation(id, guest, hotel, checkIn, checkOut, STATUSES[status], version);
+    }
+
+    private static void putBytes(byte[] bytes, ByteBuffer out) {
+        if (bytes == null) {
+            out.putInt(-1);
+        } else {
+            out.putInt(bytes.length);
+            out.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int len = in.getInt();
+        if (len < 0) {
+            return null;
+        }
+        if (len > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (in.hasArray()) {
+            String s = new String(in.array(), in.arrayOffset() + in.position(), len, StandardCharsets.UTF_8);
+            in.position(in.position() + len);
+            return s;
+        }
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDate toDate(long epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
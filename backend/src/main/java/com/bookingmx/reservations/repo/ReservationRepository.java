@@ -1,19 +1,53 @@
 package com.bookingmx.reservations.repo;
 
 import com.bookingmx.reservations.model.Reservation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * In-memory repository for managing {@link Reservation} entities.
  * <p>
  * This repository acts as a simple data access layer, simulating database behavior
- * using a thread-safe {@link ConcurrentHashMap}. It is primarily intended for
+ * using a thread-safe {@link ConcurrentLongMap} keyed by the primitive ID, which
+ * avoids boxing keys and allocating a node per entry. It is primarily intended for
  * testing, development, or demo environments where a persistent database is not required.
  * </p>
  *
  * <p>
+ * A durable variant is available through {@link #durable(Path)}. In that mode every
+ * {@link #save(Reservation)} is appended to a {@link WriteAheadLog} and only returns
+ * once the record is on stable storage. Concurrent writers share a single fsync
+ * (group commit). To keep recovery time flat as data grows, the store is
+ * periodically written to a memory-mapped {@link SnapshotFile}; startup loads the
+ * newest snapshot and replays only the log segments written after it.
+ * </p>
+ *
+ * <p>
+ * A save is applied to the store, the indexes and the change log before its
+ * record is forced, so other readers can see it, through a lookup, a delta
+ * sync or the change feed, while its writer is still waiting for the flush.
+ * If the flush then fails, the writer gets an error but the save stays in
+ * memory, and it will be gone after a restart. The repository therefore
+ * fails stop: once the log has failed, every read and write throws
+ * {@link java.io.UncheckedIOException}, so nothing that may not be on disk
+ * is served after the failure is known, and the process must be restarted
+ * to recover from the log. A save observed during the window just before
+ * the failure may still be lost.
+ * </p>
+ *
+ * <p>
  * Each saved {@link Reservation} is assigned a unique, auto-incrementing ID
  * managed by an {@link AtomicLong} sequence generator.
  * </p>
@@ -30,21 +64,162 @@ import java.util.concurrent.atomic.AtomicLong;
  * @see com.bookingmx.reservations.model.Reservation
  * @since 1.0
  */
-public class ReservationRepository {
+public class ReservationRepository implements Closeable {
+
+    private static final System.Logger LOG = System.getLogger(ReservationRepository.class.getName());
 
     /** Thread-safe in-memory store of reservations indexed by ID. */
-    private final Map<Long, Reservation> store = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<Reservation> store = new ConcurrentLongMap<>();
+
+    /** Every stored ID in ascending order, for paging; reservations are never removed. */
+    private final NavigableSet<Long> allIds = new ConcurrentSkipListSet<>();
+
+    /** Secondary index of reservation IDs by hotel name. */
+    private final HotelIndex hotelIndex = new HotelIndex();
+
+    /** Per-hotel interval trees of active stays. */
+    private final StayIndex stayIndex = new StayIndex();
+
+    /** Change versions and the version-ordered index of changed reservations. */
+    private final ChangeLog changeLog = new ChangeLog();
+
+    /**
+     * One page of reservations in ascending ID order.
+     *
+     * @param items      the reservations on this page
+     * @param nextCursor the ID to pass as {@code after} for the next page, or
+     *                   {@code null} if this is the last page
+     */
+    public record Page(List<Reservation> items, Long nextCursor) {
+    }
+
+    /**
+     * Reservations changed after a given version.
+     *
+     * @param items   the changed reservations, in ascending version order
+     * @param version the high-water mark to pass as {@code since} next time
+     */
+    public record Changes(List<Reservation> items, long version) {
+    }
+
+    /**
+     * Result of looking up several reservations by ID.
+     *
+     * @param found   the reservations that exist, in the order their IDs were given
+     * @param missing the IDs that match no reservation, in the order they were given
+     */
+    public record Lookup(List<Reservation> found, List<Long> missing) {
+    }
 
     /** Sequence generator for auto-incrementing reservation IDs. */
     private final AtomicLong seq = new AtomicLong(1L);
 
+    /** Write-ahead log backing the store, or {@code null} for the purely in-memory mode. */
+    private final WriteAheadLog wal;
+
+    /** Directory holding the log segments and snapshots in durable mode. */
+    private final Path dataDir;
+
+    /**
+     * Held shared by writers between logging a record and applying it, and
+     * exclusively while rolling the log, so that a snapshot taken right after a
+     * roll includes every record of the older segments.
+     */
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+
+    /**
+     * Highest log position saved by the current thread's durable batch, or
+     * {@code null} outside {@link #inDurableBatch(Runnable)}.
+     */
+    private final ThreadLocal<long[]> batchLsn = new ThreadLocal<>();
+
+    /** Background snapshot scheduler, or {@code null} when snapshots are manual only. */
+    private final ScheduledExecutorService snapshotter;
+
+    /**
+     * Creates an empty, purely in-memory repository.
+     */
+    public ReservationRepository() {
+        this.wal = null;
+        this.dataDir = null;
+        this.snapshotter = null;
+    }
+
+    /**
+     * Creates a repository whose contents are recovered from, and persisted to,
+     * the snapshot and write-ahead log in the given directory.
+     */
+    private ReservationRepository(Path dataDir, Duration snapshotInterval) throws IOException {
+        Files.createDirectories(dataDir);
+        this.dataDir = dataDir;
+
+        SnapshotFile.Loaded snapshot = SnapshotFile.loadLatest(dataDir, this::recover);
+        long fromSegment = 0;
+        if (snapshot != null) {
+            seq.accumulateAndGet(snapshot.nextId(), Math::max);
+            fromSegment = snapshot.segment();
+        }
+        this.wal = WriteAheadLog.open(dataDir, fromSegment, this::recover);
+
+        if (snapshotInterval.isZero() || snapshotInterval.isNegative()) {
+            this.snapshotter = null;
+        } else {
+            this.snapshotter = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread t = new Thread(task, "reservation-snapshotter");
+                t.setDaemon(true);
+                return t;
+            });
+            long millis = snapshotInterval.toMillis();
+            snapshotter.scheduleWithFixedDelay(this::periodicSnapshot, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Opens a durable repository backed by a write-ahead log in {@code dataDir},
+     * without periodic snapshots.
+     *
+     * @param dataDir directory holding the log; created if missing
+     * @return the recovered repository
+     * @throws IOException if the log cannot be opened or read
+     * @see #durable(Path, Duration)
+     */
+    public static ReservationRepository durable(Path dataDir) throws IOException {
+        return durable(dataDir, Duration.ZERO);
+    }
+
+    /**
+     * Opens a durable repository backed by a write-ahead log in {@code dataDir}.
+     * <p>
+     * The newest snapshot, if any, is loaded first and only the log written
+     * after it is replayed, so the store and the ID sequence are fully rebuilt
+     * before the repository is returned.
+     * </p>
+     *
+     * @param dataDir          directory holding the log and snapshots; created if missing
+     * @param snapshotInterval delay between automatic snapshots; zero disables them
+     * @return the recovered repository
+     * @throws IOException if the snapshot or log cannot be opened or read
+     */
+    public static ReservationRepository durable(Path dataDir, Duration snapshotInterval) throws IOException {
+        return new ReservationRepository(dataDir, snapshotInterval);
+    }
+
     /**
      * Retrieves all stored reservations.
+     * <p>
+     * Each reservation is an immutable snapshot of one saved state, so it can
+     * be read without locking while writers carry on. The list as a whole is
+     * not a point-in-time view: reservations saved during the call may or may
+     * not be included.
+     * </p>
      *
      * @return a list containing all reservations currently in the repository
      */
     public List<Reservation> findAll() {
-        return new ArrayList<>(store.values());
+        checkAvailable();
+        List<Reservation> all = new ArrayList<>(store.size());
+        store.forEachValue(all::add);
+        return all;
     }
 
     /**
@@ -54,23 +229,551 @@ public class ReservationRepository {
      * @return an {@link Optional} containing the reservation if found, or empty otherwise
      */
     public Optional<Reservation> findById(Long id) {
-        return Optional.ofNullable(store.get(id));
+        checkAvailable();
+        return id == null ? Optional.empty() : Optional.ofNullable(store.get(id));
+    }
+
+    /**
+     * Retrieves several reservations by ID in one pass over the store.
+     * <p>
+     * Each ID is one lock-free lookup; IDs with no reservation are collected
+     * rather than reported one by one. Every reservation is an immutable
+     * snapshot, but the lookups are not one atomic read: a save that lands
+     * during the call may be seen for some IDs and not for others.
+     * </p>
+     *
+     * @param ids the IDs to look up; should not repeat
+     * @return the reservations found and the IDs that were missing
+     */
+    public Lookup findAllById(List<Long> ids) {
+        checkAvailable();
+        List<Reservation> found = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Reservation r = id == null ? null : store.get(id);
+            if (r != null) {
+                found.add(r);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new Lookup(found, missing);
+    }
+
+    /**
+     * Retrieves the reservations booked at a hotel, in ascending ID order.
+     * <p>
+     * The lookup goes through the hotel index, so its cost is proportional to
+     * the number of matches rather than to the size of the store.
+     * </p>
+     *
+     * @param hotelName the exact hotel name to match
+     * @return the reservations currently booked at that hotel
+     */
+    public List<Reservation> findByHotel(String hotelName) {
+        checkAvailable();
+        List<Reservation> matches = new ArrayList<>();
+        for (long id : hotelIndex.idsFor(hotelName)) {
+            Reservation r = store.get(id);
+            if (r != null && hotelName.equals(r.getHotelName())) {
+                matches.add(r);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Retrieves up to {@code limit} reservations with an ID greater than
+     * {@code after}, in ascending ID order, optionally restricted to one hotel.
+     * <p>
+     * The page is read from an ordered set of IDs: the set of every stored ID,
+     * or the hotel index's set for one hotel. Seeking the cursor costs
+     * {@code O(log n)} and each reservation on the page one more step, so a
+     * page costs {@code O(log n + limit)} whatever the size of the store, and
+     * the gaps left in the ID sequence by failed batches and transactions are
+     * never walked. Only the page is copied, so memory is bounded by
+     * {@code limit}. Reservations saved while a client is paging appear on a
+     * later page if their ID is past the cursor.
+     * </p>
+     *
+     * @param hotelName the exact hotel name to match, or {@code null} for every hotel
+     * @param after     the cursor; only IDs greater than it are returned ({@code 0} for the first page)
+     * @param limit     the maximum number of reservations on the page
+     * @return the page and the cursor of the next one
+     */
+    public Page findPage(String hotelName, long after, int limit) {
+        checkAvailable();
+        List<Reservation> items = new ArrayList<>(Math.min(limit, 1024) + 1);
+        NavigableSet<Long> candidates = hotelName == null ? allIds : hotelIndex.idsFor(hotelName);
+        for (long id : candidates.tailSet(after, false)) {
+            Reservation r = store.get(id);
+            if (r != null && (hotelName == null || hotelName.equals(r.getHotelName()))) {
+                items.add(r);
+                if (items.size() > limit) {
+                    break;
+                }
+            }
+        }
+        if (items.size() <= limit) {
+            return new Page(items, null);
+        }
+        items.remove(limit);
+        return new Page(items, items.get(limit - 1).getId());
+    }
+
+    /**
+     * Retrieves the active reservations at a hotel whose stay overlaps the
+     * half-open window {@code [from, to)}, in ascending check-in order.
+     * <p>
+     * Stays are half-open too, so a reservation checking out on {@code from}
+     * or checking in on {@code to} does not overlap. The lookup goes through
+     * the hotel's interval tree and costs {@code O((k + 1) log n)} expected
+     * time for {@code n} stays at the hotel and {@code k} matches, as
+     * explained in {@code IntervalTree}; it never scans the hotel's stays.
+     * </p>
+     *
+     * @param hotelName the exact hotel name to match
+     * @param from      the first night of the window
+     * @param to        the day the window ends, exclusive
+     * @return the overlapping active reservations
+     */
+    public List<Reservation> findOverlapping(String hotelName, LocalDate from, LocalDate to) {
+        checkAvailable();
+        List<Reservation> matches = new ArrayList<>();
+        stayIndex.overlapping(hotelName, from, to, id -> {
+            Reservation r = store.get(id);
+            if (r != null && r.isActive() && hotelName.equals(r.getHotelName())
+                    && r.getCheckIn().isBefore(to) && r.getCheckOut().isAfter(from)) {
+                matches.add(r);
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Retrieves the reservations whose latest save has a version greater than
+     * {@code since}, together with a new high-water mark.
+     * <p>
+     * The lookup walks the tail of the version-ordered change log, so its cost
+     * is proportional to the number of changes rather than to the size of the
+     * store. Only saves up to the returned mark are reported; saves still in
+     * progress, or that finished after a newer one, are reported by the next
+     * call with {@code since} set to the mark, so no change is missed. A
+     * reservation saved several times appears once, with its current state.
+     * </p>
+     *
+     * @param since the high-water mark from the previous call, or {@code 0} for everything
+     * @return the changed reservations and the new high-water mark
+     */
+    public Changes findChangedSince(long since) {
+        checkAvailable();
+        long mark = changeLog.highWaterMark();
+        List<Reservation> items = new ArrayList<>();
+        changeLog.changedBetween(since, mark, id -> {
+            Reservation r = store.get(id);
+            if (r != null) {
+                items.add(r);
+            }
+        });
+        return new Changes(items, Math.max(mark, since));
     }
 
     /**
      * Saves or updates a reservation.
      * <p>
      * If the reservation does not yet have an ID, a new one is generated automatically.
+     * Every save stamps the reservation with a new change version. Reservations
+     * are immutable, so the stored value is a copy of {@code r} carrying the
+     * ID and version, and callers must continue with the returned instance.
+     * In durable mode the call blocks until the record has been forced to the
+     * write-ahead log, or until the end of the {@link #inDurableBatch(Runnable) batch}
+     * it is part of.
      * </p>
      *
      * @param r the reservation to save
-     * @return the saved reservation instance (with an assigned ID if newly created)
+     * @return the saved reservation (with an assigned ID if newly created, and its new version)
+     * @see #saveIfVersion(Reservation, long)
      */
     public Reservation save(Reservation r) {
+        return write(r.getId() == null ? r.withId(seq.getAndIncrement()) : r, null);
+    }
+
+    /**
+     * Replaces a stored reservation only if it is still at {@code expectedVersion}.
+     * <p>
+     * This is a compare-and-set on the reservation's change version: a writer
+     * reads a reservation, derives its new state and saves it against the
+     * version it read. If another save of the same reservation got in first,
+     * nothing is written and the writer can re-read and retry, or report the
+     * conflict. Writers of different reservations never wait for each other,
+     * and readers never lock: the stored value is immutable and replaced in
+     * one step, so a reader sees either the old reservation or the new one.
+     * </p>
+     *
+     * @param r               the new state of the reservation; must have an ID
+     * @param expectedVersion the version of the stored reservation the new state is based on
+     * @return the saved reservation with its new version, or empty if the
+     *         reservation is missing or at another version
+     * @throws IllegalArgumentException if {@code r} has no ID
+     */
+    public Optional<Reservation> saveIfVersion(Reservation r, long expectedVersion) {
         if (r.getId() == null) {
-            r.setId(seq.getAndIncrement());
+            throw new IllegalArgumentException("Reservation has no ID");
         }
+        return Optional.ofNullable(write(r, expectedVersion));
+    }
+
+    /**
+     * Inserts new reservations in one bulk operation.
+     * <p>
+     * The reservations get a contiguous block of IDs, in list order, and one
+     * change version each. In durable mode they are written to the log as a
+     * single frame, so after a crash either all of them are recovered or none,
+     * and the call waits for one flush instead of one per reservation.
+     * </p>
+     *
+     * @param rs the reservations to insert; none may have an ID yet
+     * @return the saved reservations, in the same order, with their IDs and versions
+     * @throws IllegalArgumentException if a reservation already has an ID
+     */
+    public List<Reservation> insertAll(List<Reservation> rs) {
+        for (Reservation r : rs) {
+            if (r.getId() != null) {
+                throw new IllegalArgumentException("Reservation already has an ID: " + r.getId());
+            }
+        }
+        if (rs.isEmpty()) {
+            return List.of();
+        }
+        long firstId = seq.getAndAdd(rs.size());
+        List<Reservation> saved = new ArrayList<>(rs.size());
+        long lsn = -1;
+        if (wal != null) {
+            checkpointLock.readLock().lock();
+        }
+        try {
+            for (int i = 0; i < rs.size(); i++) {
+                saved.add(rs.get(i).withId(firstId + i).withVersion(changeLog.stamp()));
+            }
+            if (wal != null) {
+                try {
+                    lsn = wal.append(saved);
+                } catch (RuntimeException e) {
+                    for (Reservation r : saved) {
+                        changeLog.abandon(r.getVersion());
+                    }
+                    throw e;
+                }
+            }
+            // The IDs are new, so no other writer can be saving them concurrently.
+            for (Reservation r : saved) {
+                store.put(r.getId(), r);
+                hotelIndex.update(r.getId(), r.getHotelName());
+                allIds.add(r.getId());
+                stayIndex.update(r.getId(), r.getHotelName(), r.getCheckIn(), r.getCheckOut(), r.isActive());
+            }
+        } finally {
+            if (wal != null) {
+                checkpointLock.readLock().unlock();
+            }
+        }
+        for (Reservation r : saved) {
+            changeLog.record(r.getId(), r.getVersion());
+        }
+        awaitDurable(lsn);
+        return saved;
+    }
+
+    /**
+     * Saves several reservations as one atomic commit: either every one of
+     * them is written or none is.
+     * <p>
+     * A reservation without an ID is inserted with a new one; the new IDs form
+     * a contiguous block in list order. A reservation with an ID replaces the
+     * stored one only if that is still at the version {@code r} carries, that
+     * is, the version it was read at. If any stored reservation has moved on,
+     * nothing is written. Otherwise every reservation gets a new version, the
+     * whole commit goes to the log as a single frame, so recovery replays all
+     * of it or none, and the store is updated while holding the store
+     * segments of every ID, so no other writer can interleave with it.
+     * Lock-free readers may see the reservations change one after the other
+     * while the commit is being applied.
+     * </p>
+     *
+     * @param rs the reservations to save; IDs may not repeat
+     * @return the saved reservations in the same order, or empty if a stored
+     *         reservation is missing or at another version
+     * @throws IllegalArgumentException if an ID repeats, or a reservation with an ID has no version
+     */
+    public Optional<List<Reservation>> saveAllIfVersions(List<Reservation> rs) {
+        int inserts = 0;
+        Set<Long> seen = new HashSet<>();
+        for (Reservation r : rs) {
+            if (r.getId() == null) {
+                inserts++;
+            } else if (r.getVersion() == null) {
+                throw new IllegalArgumentException("Reservation " + r.getId() + " has no version to check");
+            } else if (!seen.add(r.getId())) {
+                throw new IllegalArgumentException("Reservation " + r.getId() + " appears twice");
+            }
+        }
+        if (rs.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        long nextId = inserts == 0 ? 0 : seq.getAndAdd(inserts);
+        long[] ids = new long[rs.size()];
+        List<Reservation> pending = new ArrayList<>(rs.size());
+        for (int i = 0; i < rs.size(); i++) {
+            Reservation r = rs.get(i);
+            if (r.getId() == null) {
+                r = r.withId(nextId++);
+            }
+            ids[i] = r.getId();
+            pending.add(r);
+        }
+
+        List<Reservation> saved = new ArrayList<>(rs.size());
+        long[] lsn = {-1};
+        if (wal != null) {
+            checkpointLock.readLock().lock();
+        }
+        try {
+            store.withKeysLocked(ids, () -> {
+                for (int i = 0; i < pending.size(); i++) {
+                    Reservation current = store.get(ids[i]);
+                    if (rs.get(i).getId() != null
+                            && (current == null || !pending.get(i).getVersion().equals(current.getVersion()))) {
+                        return;
+                    }
+                }
+                for (Reservation r : pending) {
+                    saved.add(r.withVersion(changeLog.stamp()));
+                }
+                if (wal != null) {
+                    try {
+                        lsn[0] = wal.append(saved);
+                    } catch (RuntimeException e) {
+                        for (Reservation r : saved) {
+                            changeLog.abandon(r.getVersion());
+                        }
+                        throw e;
+                    }
+                }
+                for (Reservation r : saved) {
+                    store.put(r.getId(), r);
+                    hotelIndex.update(r.getId(), r.getHotelName());
+                    allIds.add(r.getId());
+                    stayIndex.update(r.getId(), r.getHotelName(), r.getCheckIn(), r.getCheckOut(), r.isActive());
+                }
+            });
+        } finally {
+            if (wal != null) {
+                checkpointLock.readLock().unlock();
+            }
+        }
+        if (saved.isEmpty()) {
+            return Optional.empty();
+        }
+        for (Reservation r : saved) {
+            changeLog.record(r.getId(), r.getVersion());
+        }
+        awaitDurable(lsn[0]);
+        return Optional.of(saved);
+    }
+
+    /**
+     * Stamps, logs and stores a save while holding the ID's store segment, so
+     * that saves of one reservation reach the store, the indexes and the log in
+     * version order. The change log is told only once the reservation is
+     * visible in the store, so a delta sync never sees a version it cannot read.
+     *
+     * @param r               the reservation to save; must have an ID
+     * @param expectedVersion the version the stored reservation must have, or {@code null} for any
+     * @return the stored reservation, or {@code null} if the version did not match
+     */
+    private Reservation write(Reservation r, Long expectedVersion) {
+        Reservation[] saved = new Reservation[1];
+        long[] lsn = {-1};
+        if (wal != null) {
+            checkpointLock.readLock().lock();
+        }
+        try {
+            store.compute(r.getId(), (id, current) -> {
+                if (expectedVersion != null
+                        && (current == null || !expectedVersion.equals(current.getVersion()))) {
+                    return current;
+                }
+                long version = changeLog.stamp();
+                Reservation stamped = r.withVersion(version);
+                try {
+                    if (wal != null) {
+                        lsn[0] = wal.append(stamped);
+                    }
+                    hotelIndex.update(id, stamped.getHotelName());
+                    allIds.add(id);
+                    stayIndex.update(id, stamped.getHotelName(), stamped.getCheckIn(), stamped.getCheckOut(),
+                            stamped.isActive());
+                } catch (RuntimeException e) {
+                    changeLog.abandon(version);
+                    throw e;
+                }
+                saved[0] = stamped;
+                return stamped;
+            });
+        } finally {
+            if (wal != null) {
+                checkpointLock.readLock().unlock();
+            }
+        }
+        if (saved[0] == null) {
+            return null;
+        }
+        changeLog.record(r.getId(), saved[0].getVersion());
+        awaitDurable(lsn[0]);
+        return saved[0];
+    }
+
+    /**
+     * Refuses to serve reads once the write-ahead log has failed, since the
+     * store may then hold saves that will be gone after a restart. Does
+     * nothing in memory mode.
+     *
+     * @throws java.io.UncheckedIOException if the log has failed
+     */
+    private void checkAvailable() {
+        if (wal != null) {
+            wal.checkNotFailed();
+        }
+    }
+
+    /**
+     * Waits for a log position to be forced, or leaves it to the end of the
+     * current thread's durable batch. Does nothing in memory mode.
+     */
+    private void awaitDurable(long lsn) {
+        if (wal == null) {
+            return;
+        }
+        long[] batch = batchLsn.get();
+        if (batch == null) {
+            wal.awaitDurable(lsn);
+        } else {
+            batch[0] = Math.max(batch[0], lsn);
+        }
+    }
+
+    /**
+     * Runs a batch of work whose saves wait for durability once, at the end,
+     * instead of one by one.
+     * <p>
+     * Saves made by the calling thread inside {@code work} are stored and
+     * visible as usual, but return without waiting for the write-ahead log;
+     * the call then blocks once until the last of them has been forced. A
+     * writer that applies many mutations in a row pays for one flush instead
+     * of one per save, and must not acknowledge any of them before this method
+     * returns. Nested batches join the outermost one. In memory mode the work
+     * simply runs.
+     * </p>
+     *
+     * @param work the saves to make
+     * @throws java.io.UncheckedIOException if the log could not be forced; the
+     *         saves of the batch are then not known to be durable
+     */
+    public void inDurableBatch(Runnable work) {
+        if (wal == null || batchLsn.get() != null) {
+            work.run();
+            return;
+        }
+        long[] batch = {-1};
+        batchLsn.set(batch);
+        try {
+            work.run();
+        } finally {
+            batchLsn.remove();
+        }
+        if (batch[0] >= 0) {
+            wal.awaitDurable(batch[0]);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the current store and discards the log segments and
+     * snapshots it supersedes. Writers are only paused while the log is rolled
+     * over to a new segment, not while the snapshot is written.
+     * <p>
+     * Does nothing in the in-memory mode.
+     * </p>
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public synchronized void snapshot() throws IOException {
+        if (wal == null) {
+            return;
+        }
+        long segment;
+        checkpointLock.writeLock().lock();
+        try {
+            segment = wal.roll();
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+        SnapshotFile.write(dataDir, segment, store.valueIterator(), seq.get());
+        wal.deleteSegmentsBefore(segment);
+        SnapshotFile.deleteOlderThan(dataDir, segment);
+    }
+
+    /**
+     * Stops periodic snapshots and flushes and closes the write-ahead log, if
+     * any. The in-memory mode has nothing to release.
+     *
+     * @throws IOException if the final flush fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (snapshotter != null) {
+            snapshotter.shutdown();
+            try {
+                snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    /** Scheduled snapshot task; failures are logged and retried on the next run. */
+    private void periodicSnapshot() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            LOG.log(System.Logger.Level.WARNING, "Reservation snapshot failed", e);
+        }
+    }
+
+    /**
+     * Applies one recovered snapshot or log record: the latest record for an ID wins and the
+     * ID and version counters are moved past every recovered value.
+     *
+     * @param r the recovered reservation
+     */
+    private void recover(Reservation r) {
+        changeLog.advanceTo(r.getVersion());
+        apply(r);
+        seq.accumulateAndGet(r.getId() + 1, Math::max);
+    }
+
+    /**
+     * Stores a reservation and brings the secondary indexes in line with it.
+     *
+     * @param r the reservation to store (must have an ID and a version)
+     */
+    private void apply(Reservation r) {
         store.put(r.getId(), r);
-        return r;
+        hotelIndex.update(r.getId(), r.getHotelName());
+        allIds.add(r.getId());
+        stayIndex.update(r.getId(), r.getHotelName(), r.getCheckIn(), r.getCheckOut(), r.isActive());
+        changeLog.record(r.getId(), r.getVersion());
     }
-}
\ No newline at end of file
+}
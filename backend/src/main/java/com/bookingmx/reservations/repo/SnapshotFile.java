@@ -0,0 +1,228 @@
+package com.bookingmx.reservations.repo;
+
+import com.bookingmx.reservations.model.Reservation;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact, memory-mapped binary snapshot of the reservation store.
+ * <p>
+ * A snapshot named after log segment {@code N} contains the state produced by
+ * every write-ahead log segment numbered below {@code N}, so recovery only has
+ * to load it and replay segments {@code N} and above. Snapshots are written
+ * through a memory mapping to a temporary file which is forced and then
+ * atomically renamed into place, so a crash never leaves a half-written
+ * snapshot behind.
+ * </p>
+ *
+ * <p>
+ * File layout:
+ * </p>
+ * <pre>
+ * int   magic ("BMXS")
+ * int   format version
+ * long  next value of the ID sequence
+ * long  number of reservations
+ * int   CRC-32C of all block bytes
+ * int   reserved
+ * ...   blocks of up to {@value #BLOCK_BYTES} bytes, each holding whole records:
+ *       byte 1 followed by a {@link ReservationCodec} record, or byte 0 to end the block
+ * </pre>
+ *
+ * <p>
+ * Records never straddle a block, which lets large snapshots be mapped one
+ * block at a time on both the write and the read path.
+ * </p>
+ *
+ * @see WriteAheadLog
+ * @see ReservationRepository
+ * @since 1.0
+ */
+final class SnapshotFile {
+
+    /** Result of loading a snapshot: the sequence value and the segment to replay from. */
+    record Loaded(long segment, long nextId) {
+    }
+
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final int MAGIC = 0x424D5853;
+    /** Format 2: every record carries its change version. */
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int BLOCK_BYTES = 64 * 1024 * 1024;
+    private static final byte RECORD = 1;
+    private static final byte END_OF_BLOCK = 0;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes a snapshot of {@code reservations} that covers every log segment
+     * below {@code segment}.
+     *
+     * @param dir          the data directory
+     * @param segment      the first log segment that is <em>not</em> covered
+     * @param reservations the reservations to store
+     * @param nextId       the next value of the ID sequence
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(Path dir, long segment, Iterator<Reservation> reservations, long nextId) throws IOException {
+        Path tmp = dir.resolve(fileName(segment) + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            long count = 0;
+            long blockStart = HEADER_BYTES;
+            MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_WRITE, blockStart, BLOCK_BYTES);
+
+            while (reservations.hasNext()) {
+                Reservation r = reservations.next();
+                byte[] guest = ReservationCodec.utf8(r.getGuestName());
+                byte[] hotel = ReservationCodec.utf8(r.getHotelName());
+                int size = 1 + ReservationCodec.encodedSize(guest, hotel);
+                if (size + 1 > BLOCK_BYTES) {
+                    throw new IOException("Reservation " + r.getId() + " is too large for a snapshot block");
+                }
+                if (block.remaining() < size + 1) {
+                    block.put(END_OF_BLOCK);
+                    crc.update(block.flip());
+                    block.force();
+                    blockStart += BLOCK_BYTES;
+                    block = channel.map(FileChannel.MapMode.READ_WRITE, blockStart, BLOCK_BYTES);
+                }
+                block.put(RECORD);
+                ReservationCodec.encode(r, guest, hotel, block);
+                count++;
+            }
+            block.put(END_OF_BLOCK);
+            long end = blockStart + block.position();
+            crc.update(block.flip());
+            block.force();
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(nextId).putLong(count).putInt((int) crc.getValue()).putInt(0);
+            header.force();
+            channel.truncate(end);
+            channel.force(true);
+        }
+        Files.move(tmp, dir.resolve(fileName(segment)), StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(dir);
+    }
+
+    /**
+     * Loads the newest snapshot in {@code dir}, if any.
+     *
+     * @param dir  the data directory
+     * @param sink receives every stored reservation
+     * @return the segment to resume log replay from and the stored sequence
+     *         value, or {@code null} if there is no snapshot
+     * @throws IOException if the newest snapshot is unreadable or fails its checksum
+     */
+    static Loaded loadLatest(Path dir, Consumer<Reservation> sink) throws IOException {
+        List<Long> segments = list(dir);
+        if (segments.isEmpty()) {
+            return null;
+        }
+        long segment = segments.get(segments.size() - 1);
+        Path file = dir.resolve(fileName(segment));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Truncated snapshot " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Unrecognized snapshot format in " + file);
+            }
+            long nextId = header.getLong();
+            long expected = header.getLong();
+            int checksum = header.getInt();
+
+            CRC32C crc = new CRC32C();
+            long count = 0;
+            try {
+                for (long start = HEADER_BYTES; start < size; start += BLOCK_BYTES) {
+                    MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY,
+                            start, Math.min(BLOCK_BYTES, size - start));
+                    while (block.get() == RECORD) {
+                        sink.accept(ReservationCodec.decode(block));
+                        count++;
+                    }
+                    crc.update(block.flip());
+                }
+            } catch (BufferUnderflowException | IllegalStateException e) {
+                throw new IOException("Corrupt snapshot " + file, e);
+            }
+            if (count != expected || (int) crc.getValue() != checksum) {
+                throw new IOException("Corrupt snapshot " + file);
+            }
+            return new Loaded(segment, nextId);
+        }
+    }
+
+    /**
+     * Deletes every snapshot older than the one for {@code segment}, along with
+     * leftovers of interrupted writes.
+     *
+     * @param dir     the data directory
+     * @param segment the snapshot to keep
+     * @throws IOException if a file cannot be deleted
+     */
+    static void deleteOlderThan(Path dir, long segment) throws IOException {
+        for (long s : list(dir)) {
+            if (s < segment) {
+                Files.deleteIfExists(dir.resolve(fileName(s)));
+            }
+        }
+        try (DirectoryStream<Path> tmp = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX + ".tmp")) {
+            for (Path file : tmp) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static List<Long> list(Path dir) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static String fileName(long segment) {
+        return String.format("%s%019d%s", PREFIX, segment, SUFFIX);
+    }
+
+    /** Makes the rename durable; not every platform can open a directory, so failures are ignored. */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // best effort
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.bookingmx.reservations.repo;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Concurrent secondary index of active stays, kept as one {@link IntervalTree}
+ * per hotel.
+ * <p>
+ * Each stay is indexed as the half-open interval {@code [checkIn, checkOut)},
+ * so a guest checking out on the day another checks in does not overlap them.
+ * The index remembers the stay each ID is currently filed under, so that a
+ * reservation whose hotel or dates change, or which is canceled, is taken out
+ * of the tree it was in. Each change runs atomically for its ID.
+ * </p>
+ *
+ * @see ReservationRepository#findOverlapping(String, LocalDate, LocalDate)
+ * @since 1.0
+ */
+final class StayIndex {
+
+    /** A stay as filed in a hotel's tree, in epoch days. */
+    private record Stay(String hotel, long checkIn, long checkOut) {
+    }
+
+    /** Stay each ID is currently filed under. */
+    private final ConcurrentLongMap<Stay> stayById = new ConcurrentLongMap<>();
+
+    /** Interval tree of each hotel's active stays. */
+    private final ConcurrentHashMap<String, IntervalTree> treeByHotel = new ConcurrentHashMap<>();
+
+    /**
+     * Files {@code id} under the given stay, replacing the stay it was
+     * previously filed under, if any.
+     *
+     * @param id       the reservation ID
+     * @param hotel    the reservation's hotel
+     * @param checkIn  the check-in date
+     * @param checkOut the check-out date
+     * @param active   whether the reservation is active; inactive ones are unfiled
+     */
+    void update(long id, String hotel, LocalDate checkIn, LocalDate checkOut, boolean active) {
+        Stay stay = active && hotel != null && checkIn != null && checkOut != null && checkOut.isAfter(checkIn)
+                ? new Stay(hotel, checkIn.toEpochDay(), checkOut.toEpochDay())
+                : null;
+        stayById.compute(id, (key, previous) -> {
+            if (stay != null && stay.equals(previous)) {
+                return previous;
+            }
+            if (previous != null) {
+                treeByHotel.get(previous.hotel()).remove(key, previous.checkIn(), previous.checkOut());
+            }
+            if (stay != null) {
+                treeByHotel.computeIfAbsent(stay.hotel(), name -> new IntervalTree())
+                        .insert(key, stay.checkIn(), stay.checkOut());
+            }
+            return stay;
+        });
+    }
+
+    /**
+     * Reports the ID of every stay at {@code hotel} overlapping the half-open
+     * window {@code [from, to)}, in ascending check-in order.
+     *
+     * @param hotel the hotel name
+     * @param from  the first night of the window
+     * @param to    the day the window ends, exclusive
+     * @param sink  receives the matching IDs
+     */
+    void overlapping(String hotel, LocalDate from, LocalDate to, LongConsumer sink) {
+        IntervalTree tree = treeByHotel.get(hotel);
+        if (tree != null) {
+            tree.overlapping(from.toEpochDay(), to.toEpochDay(), sink);
+        }
+    }
+}
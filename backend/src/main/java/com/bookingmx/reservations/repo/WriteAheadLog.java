@@ -0,0 +1,503 @@
+package com.bookingmx.reservations.repo;
+
+import com.bookingmx.reservations.model.Reservation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, group-committed write-ahead log of reservation mutations.
+ * <p>
+ * Every {@link #append(Reservation)} copies an encoded frame into an in-memory
+ * pending buffer and returns its log sequence number (LSN). A single background
+ * flusher thread repeatedly swaps that buffer out, writes it to disk and issues
+ * one {@link FileChannel#force(boolean)} for everything it contained. Writers
+ * that arrive while a flush is in progress accumulate in the next buffer, so any
+ * number of concurrent writers share one fsync instead of paying for their own.
+ * </p>
+ *
+ * <p>
+ * Frame layout on disk:
+ * </p>
+ * <pre>
+ * int  payload length
+ * int  CRC-32C of the payload
+ * int  number of reservations in the frame
+ * ...  reservations encoded with {@link ReservationCodec}
+ * </pre>
+ *
+ * <p>
+ * The log is split into numbered segment files. {@link #roll()} starts a new
+ * segment so that a snapshot can make every older segment obsolete; see
+ * {@link SnapshotFile}. On {@link #open(Path, long, Consumer) open} the
+ * segments from a given number onwards are replayed in order. A torn or corrupt
+ * frame at the tail of the newest segment (e.g. after a crash in the middle of a
+ * write) ends the replay and is truncated away, since its writers were never
+ * acknowledged.
+ * </p>
+ *
+ * @see ReservationRepository
+ * @since 1.0
+ */
+final class WriteAheadLog implements Closeable {
+
+    /** File name prefix of log segments. */
+    private static final String SEGMENT_PREFIX = "reservations-";
+
+    /** File name suffix of log segments. */
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    /** Size of the frame header (length + checksum), in bytes. */
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+
+    /** Initial capacity of the pending buffers. */
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+    private final Path dir;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingWork = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Thread flusher;
+
+    /** Segment currently receiving writes; guarded by {@link #lock}. */
+    private FileChannel channel;
+
+    /** Number of the current segment; guarded by {@link #lock}. */
+    private long segment;
+
+    /** Buffer receiving new frames; guarded by {@link #lock}. */
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+
+    /** Buffer owned by the flusher while it is being written. */
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+
+    /** LSN of the last appended frame; guarded by {@link #lock}. */
+    private long appendedLsn;
+
+    /** LSN of the last frame known to be on stable storage; guarded by {@link #lock}. */
+    private long durableLsn;
+
+    /**
+     * First I/O error seen by the flusher; once set the log is unusable. Written
+     * under {@link #lock}, volatile so that {@link #checkNotFailed()} needs no lock.
+     */
+    private volatile IOException failure;
+
+    /** Set by {@link #close()}; no appends are accepted afterwards. */
+    private boolean closed;
+
+    /** Set when the flusher thread has exited; nothing more will become durable. */
+    private boolean stopped;
+
+    private WriteAheadLog(Path dir, long segment, FileChannel channel) {
+        this.dir = dir;
+        this.segment = segment;
+        this.channel = channel;
+        this.flusher = new Thread(this::flushLoop, "reservation-wal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens the log in {@code dir}, replays every complete frame of the segments
+     * numbered {@code fromSegment} and above into {@code replay} in append
+     * order, and positions the newest segment for new appends.
+     *
+     * @param dir         the directory holding the segments
+     * @param fromSegment the first segment to replay; older ones are ignored
+     * @param replay      receives each recovered reservation
+     * @return the opened log
+     * @throws IOException if a segment cannot be read or truncated, or a
+     *                     segment other than the newest one is corrupt
+     */
+    static WriteAheadLog open(Path dir, long fromSegment, Consumer<Reservation> replay) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        for (long s : listSegments(dir)) {
+            if (s >= fromSegment) {
+                segments.add(s);
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(fromSegment);
+        }
+
+        FileChannel channel = null;
+        try {
+            for (int i = 0; i < segments.size(); i++) {
+                boolean newest = i == segments.size() - 1;
+                channel = FileChannel.open(segmentPath(dir, segments.get(i)), StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                long validEnd = replay(channel, replay);
+                if (validEnd < channel.size()) {
+                    if (!newest) {
+                        throw new IOException("Corrupt write-ahead log segment " + segments.get(i));
+                    }
+                    channel.truncate(validEnd);
+                    channel.force(true);
+                }
+                if (!newest) {
+                    channel.close();
+                    channel = null;
+                } else {
+                    channel.position(validEnd);
+                }
+            }
+            return new WriteAheadLog(dir, segments.get(segments.size() - 1), channel);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the numbers of the log segments present in {@code dir}, ascending.
+     *
+     * @param dir the log directory
+     * @return the segment numbers
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Long> listSegments(Path dir) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    segments.add(Long.parseLong(number));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * Deletes every segment numbered below {@code segment}.
+     *
+     * @param segment the oldest segment to keep
+     * @throws IOException if a segment cannot be deleted
+     */
+    void deleteSegmentsBefore(long segment) throws IOException {
+        for (long s : listSegments(dir)) {
+            if (s < segment) {
+                Files.deleteIfExists(segmentPath(dir, s));
+            }
+        }
+    }
+
+    /**
+     * Starts a new segment once every frame appended so far is durable in the
+     * current one.
+     * <p>
+     * The caller must make sure no {@link #append(Reservation)} runs concurrently,
+     * so that the old segment holds exactly the frames appended before the call.
+     * </p>
+     *
+     * @return the number of the new segment
+     * @throws IOException if the new segment cannot be created
+     */
+    long roll() throws IOException {
+        lock.lock();
+        try {
+            ensureUsable();
+            while (durableLsn < appendedLsn) {
+                flushed.awaitUninterruptibly();
+                ensureUsable();
+            }
+            long next = segment + 1;
+            FileChannel newChannel = FileChannel.open(segmentPath(dir, next),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            FileChannel old = channel;
+            channel = newChannel;
+            segment = next;
+            old.close();
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends one reservation to the log without waiting for it to become durable.
+     *
+     * @param r the reservation to log (must have an id)
+     * @return the LSN to pass to {@link #awaitDurable(long)}
+     * @throws UncheckedIOException if the log has failed or been closed
+     */
+    long append(Reservation r) {
+        return append(List.of(r));
+    }
+
+    /**
+     * Appends several reservations to the log as a single frame, without
+     * waiting for it to become durable. The frame is checksummed as a whole,
+     * so replay applies either all of the reservations or none of them.
+     *
+     * @param rs the reservations to log (each must have an id); not empty
+     * @return the LSN to pass to {@link #awaitDurable(long)}
+     * @throws UncheckedIOException if the log has failed or been closed
+     */
+    long append(List<Reservation> rs) {
+        int n = rs.size();
+        byte[][] guests = new byte[n][];
+        byte[][] hotels = new byte[n][];
+        int payload = Integer.BYTES;
+        for (int i = 0; i < n; i++) {
+            guests[i] = ReservationCodec.utf8(rs.get(i).getGuestName());
+            hotels[i] = ReservationCodec.utf8(rs.get(i).getHotelName());
+            payload += ReservationCodec.encodedSize(guests[i], hotels[i]);
+        }
+
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload);
+        frame.putInt(payload).putInt(0).putInt(n);
+        for (int i = 0; i < n; i++) {
+            ReservationCodec.encode(rs.get(i), guests[i], hotels[i], frame);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(frame.array(), HEADER_BYTES, payload);
+        frame.putInt(Integer.BYTES, (int) crc.getValue());
+        frame.flip();
+
+        lock.lock();
+        try {
+            ensureUsable();
+            if (pending.remaining() < frame.remaining()) {
+                pending = grow(pending, frame.remaining());
+            }
+            pending.put(frame);
+            pendingWork.signal();
+            return ++appendedLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the frame with the given LSN, and every frame before it, has
+     * been forced to stable storage.
+     *
+     * @param lsn the LSN returned by {@link #append(Reservation)}
+     * @throws UncheckedIOException if the flush failed or the log was closed first
+     */
+    void awaitDurable(long lsn) {
+        lock.lock();
+        try {
+            boolean interrupted = false;
+            while (durableLsn < lsn) {
+                if (failure != null || stopped) {
+                    ensureUsable();
+                }
+                try {
+                    flushed.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes everything appended so far and closes the file.
+     *
+     * @throws IOException if the final flush or close fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pendingWork.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Body of the flusher thread: drain, write, force, publish, repeat. */
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            FileChannel target;
+            long lsn;
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) {
+                    pendingWork.awaitUninterruptibly();
+                }
+                if (pending.position() == 0) {
+                    stopped = true;
+                    flushed.signalAll();
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                target = channel;
+                lsn = appendedLsn;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    target.write(batch);
+                }
+                target.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+            batch.clear();
+
+            lock.lock();
+            try {
+                spare = batch;
+                if (error != null) {
+                    failure = error;
+                    stopped = true;
+                } else {
+                    durableLsn = lsn;
+                }
+                flushed.signalAll();
+                if (error != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Throws if a flush has failed, so that the caller stops serving data the
+     * log may not hold. Costs one volatile read, so it is cheap enough for
+     * every read of the repository.
+     *
+     * @throws UncheckedIOException if the log has failed
+     */
+    void checkNotFailed() {
+        IOException f = failure;
+        if (f != null) {
+            throw new UncheckedIOException("Write-ahead log is unavailable", f);
+        }
+    }
+
+    private void ensureUsable() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log is unavailable", failure);
+        }
+        if (closed) {
+            throw new UncheckedIOException(new IOException("Write-ahead log is closed"));
+        }
+    }
+
+    private static Path segmentPath(Path dir, long segment) {
+        return dir.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < needed) {
+            capacity *= 2;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        bigger.put(buffer);
+        return bigger;
+    }
+
+    /**
+     * Reads frames from the start of the channel until the end of the file or
+     * the first incomplete or corrupt frame.
+     *
+     * @return the offset just past the last valid frame
+     */
+    private static long replay(FileChannel channel, Consumer<Reservation> replay) throws IOException {
+        long size = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32C crc = new CRC32C();
+
+        while (offset + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, offset);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < Integer.BYTES || offset + HEADER_BYTES + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, offset + HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            payload.flip();
+            Reservation[] decoded = new Reservation[payload.getInt()];
+            try {
+                for (int i = 0; i < decoded.length; i++) {
+                    decoded[i] = ReservationCodec.decode(payload);
+                }
+            } catch (BufferUnderflowException | IllegalStateException e) {
+                break;
+            }
+            for (Reservation r : decoded) {
+                replay.accept(r);
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer dst, long position) throws IOException {
+        while (dst.hasRemaining()) {
+            int n = channel.read(dst, position + dst.position());
+            if (n < 0) {
+                throw new IOException("Unexpected end of write-ahead log");
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.bookingmx.reservations.service;
+
+import com.bookingmx.reservations.repo.ReservationRepository;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A {@link MutationExecutor} in which every hotel is an actor: it has its own
+ * mailbox, and the mutations posted to it are applied one at a time, in
+ * order, by whichever thread is draining it.
+ * <p>
+ * A mailbox is scheduled on the executor's thread pool only while it has
+ * mail, so idle hotels cost no thread at all, and two hotels never wait for
+ * each other: there is no shared partition, queue or lock between them. On a
+ * JVM with virtual threads (Java 21 and later) every drain runs on a fresh
+ * virtual thread; on older JVMs it runs on a cached pool of platform threads.
+ * The choice is made at runtime, so the same build runs on both.
+ * </p>
+ *
+ * <p>
+ * Like {@link RingBufferMutationExecutor}, a drain applies the mail it found
+ * inside one {@link ReservationRepository#inDurableBatch(Runnable) durable batch},
+ * so in {@code wal} mode a busy hotel forces the log once per drain.
+ * </p>
+ *
+ * @see MutationExecutor
+ * @since 1.0
+ */
+public final class HotelActorMutationExecutor implements MutationExecutor {
+
+    /** Most mutations a mailbox applies in one durable batch. */
+    private static final int MAX_BATCH = 256;
+
+    private final ReservationRepository repo;
+    private final ExecutorService threads;
+    private final boolean virtual;
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /** The executor whose mailbox the current thread is draining, or {@code null}. */
+    private static final ThreadLocal<HotelActorMutationExecutor> DRAINING = new ThreadLocal<>();
+
+    private volatile boolean closed;
+
+    /**
+     * Creates an executor that drains mailboxes on virtual threads when the
+     * JVM has them, and on platform threads otherwise.
+     *
+     * @param repo the repository the mutations save to, for batching durability
+     */
+    public HotelActorMutationExecutor(ReservationRepository repo) {
+        this.repo = repo;
+        ExecutorService vts = newVirtualThreadPerTaskExecutor();
+        this.virtual = vts != null;
+        this.threads = virtual ? vts : Executors.newCachedThreadPool(platformThreads());
+    }
+
+    /**
+     * Returns {@code Executors.newVirtualThreadPerTaskExecutor()}, looked up
+     * reflectively because the code is compiled for a JDK without it.
+     *
+     * @return the executor, or {@code null} if virtual threads are not available
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Missing before Java 19, and a disabled preview on Java 19 and 20.
+            return null;
+        }
+    }
+
+    private static ThreadFactory platformThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread t = new Thread(task, "hotel-actor-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** @return whether mailboxes are drained on virtual threads */
+    public boolean usesVirtualThreads() {
+        return virtual;
+    }
+
+    /** @return the number of hotels that have had a mailbox so far */
+    public int mailboxes() {
+        return mailboxes.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A mutation submitted while draining a mailbox, which can only happen
+     * from inside another mutation, is applied right away on that thread
+     * instead of waiting behind the mutation that submitted it.
+     * </p>
+     */
+    @Override
+    public <T> T execute(String hotelName, Supplier<T> mutation) {
+        if (DRAINING.get() == this) {
+            return mutation.get();
+        }
+        if (closed) {
+            throw closedException();
+        }
+        MutationCommand<T> command = new MutationCommand<>(mutation);
+        mailboxes.computeIfAbsent(Objects.requireNonNullElse(hotelName, ""), h -> new Mailbox()).post(command);
+        return command.await();
+    }
+
+    /**
+     * Stops accepting mutations and waits for the mailboxes to apply those
+     * already posted.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        threads.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (threads.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("Mutation executor is closed");
+    }
+
+    /**
+     * One hotel's queue of mutations. {@link #scheduled} is set while a drain
+     * is pending or running, so at most one thread drains the mailbox at a time.
+     */
+    private final class Mailbox implements Runnable {
+        private final ConcurrentLinkedQueue<MutationCommand<?>> mail = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void post(MutationCommand<?> command) {
+            mail.add(command);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                threads.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Closed after the caller's check; nothing will drain this mailbox again.
+                MutationCommand<?> command;
+                while ((command = mail.poll()) != null) {
+                    command.reject(closedException());
+                }
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            MutationCommand<?>[] batch = new MutationCommand<?>[MAX_BATCH];
+            DRAINING.set(HotelActorMutationExecutor.this);
+            try {
+                while (true) {
+                    int n = 0;
+                    MutationCommand<?> command;
+                    while (n < batch.length && (command = mail.poll()) != null) {
+                        batch[n++] = command;
+                    }
+                    if (n > 0) {
+                        MutationCommand.applyAll(repo, batch, n);
+                        continue;
+                    }
+                    scheduled.set(false);
+                    // Mail posted after the last poll but before the flag was
+                    // cleared saw the drain as scheduled; pick it up here.
+                    if (mail.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } finally {
+                DRAINING.remove();
+            }
+        }
+    }
+}
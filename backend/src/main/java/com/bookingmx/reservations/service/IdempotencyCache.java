@@ -0,0 +1,212 @@
+package com.bookingmx.reservations.service;
+
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.ConflictException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring cache of the results of idempotent requests, keyed by
+ * the client's {@code Idempotency-Key}.
+ * <p>
+ * The first request with a key runs its action and the result is kept for
+ * the time to live; a retry with the same key gets that result back without
+ * running the action again. A retry that arrives while the first request is
+ * still running waits for it instead of running in parallel. Each key is
+ * bound to a fingerprint of the request it was first used with, and reusing
+ * it for a different request is a {@link ConflictException}. Failed actions
+ * are not cached, so the client can retry them.
+ * </p>
+ *
+ * <p>
+ * Keys are spread over independently locked stripes, each an access-ordered
+ * map that evicts its least recently used entry when full, and drops expired
+ * entries as new ones come in. The total number of entries never exceeds
+ * the configured maximum, which bounds the memory the cache can take.
+ * </p>
+ *
+ * @param <V> the type of cached results
+ * @since 1.0
+ */
+public final class IdempotencyCache<V> {
+
+    /** Default time a result is kept. */
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+
+    /** Default maximum number of cached results. */
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    /** Longest key accepted. */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    /** Fewest keys a stripe is sized for, so that its LRU order means something. */
+    private static final int MIN_STRIPE_ENTRIES = 16;
+
+    private final Stripe<V>[] stripes;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Creates a cache with {@link #DEFAULT_TTL} and {@link #DEFAULT_MAX_ENTRIES}.
+     */
+    public IdempotencyCache() {
+        this(DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param ttl        how long a result is kept after its first request
+     * @param maxEntries the most results kept at once
+     * @throws IllegalArgumentException if {@code ttl} is not positive or {@code maxEntries} is less than 1
+     */
+    public IdempotencyCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache with its own clock, for tests.
+     *
+     * @param ttl        how long a result is kept after its first request
+     * @param maxEntries the most results kept at once
+     * @param nanoClock  the clock, in nanoseconds, like {@link System#nanoTime()}
+     * @throws IllegalArgumentException if {@code ttl} is not positive or {@code maxEntries} is less than 1
+     */
+    @SuppressWarnings("unchecked")
+    public IdempotencyCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("TTL must be positive: " + ttl);
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+        }
+        // Enough stripes to keep contention low, but not so many that each holds too few keys to rank.
+        int count = Math.min(Integer.highestOneBit(Math.max(1, maxEntries / MIN_STRIPE_ENTRIES)),
+                Integer.highestOneBit(4 * Runtime.getRuntime().availableProcessors() - 1) << 1);
+        this.stripes = (Stripe<V>[]) new Stripe<?>[count];
+        // Share maxEntries out exactly, so the stripes together never hold more.
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(maxEntries / count + (i < maxEntries % count ? 1 : 0), nanoClock);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Runs an action once per key and returns its result to every request
+     * with that key until the result expires.
+     *
+     * @param key         the client's idempotency key
+     * @param fingerprint identifies the request; a key can only be reused for an equal fingerprint
+     * @param action      the action to run for the first request
+     * @return the result of the action, run now or by an earlier request
+     * @throws BadRequestException if the key is blank or longer than {@link #MAX_KEY_LENGTH}
+     * @throws ConflictException if the key was used for a request with another fingerprint
+     * @throws RuntimeException whatever the action threw, also to requests that waited for it
+     */
+    public V execute(String key, String fingerprint, Supplier<V> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Stripe<V> stripe = stripeFor(key);
+        Cached<V> entry;
+        boolean first = false;
+        synchronized (stripe) {
+            long now = nanoClock.getAsLong();
+            entry = stripe.get(key);
+            if (entry != null && entry.expired(now)) {
+                stripe.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Cached<>(fingerprint, now + ttlNanos);
+                stripe.put(key, entry);
+                first = true;
+            }
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new ConflictException("Idempotency-Key was already used for a different request");
+        }
+        if (first) {
+            return runFirst(stripe, key, entry, action);
+        }
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private V runFirst(Stripe<V> stripe, String key, Cached<V> entry, Supplier<V> action) {
+        V value;
+        try {
+            value = action.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (stripe) {
+                stripe.remove(key, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        entry.result.complete(value);
+        return value;
+    }
+
+    /** @return the number of results cached, including ones still being computed */
+    public int size() {
+        int size = 0;
+        for (Stripe<V> s : stripes) {
+            synchronized (s) {
+                size += s.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe<V> stripeFor(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    /** A result, or a request still computing it, and the request it belongs to. */
+    private static final class Cached<V> {
+        final String fingerprint;
+        final long expiresAt;
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Cached(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean expired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /** One lock's share of the keys, in least recently used order. */
+    private static final class Stripe<V> extends LinkedHashMap<String, Cached<V>> {
+        private final int capacity;
+        private final LongSupplier nanoClock;
+
+        Stripe(int capacity, LongSupplier nanoClock) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.nanoClock = nanoClock;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cached<V>> eldest) {
+            return size() > capacity || eldest.getValue().expired(nanoClock.getAsLong());
+        }
+    }
+}
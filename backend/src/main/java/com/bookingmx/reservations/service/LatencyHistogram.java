@@ -0,0 +1,145 @@
+package com.bookingmx.reservations.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, log-linear histogram of latencies in nanoseconds, in the
+ * manner of HdrHistogram.
+ * <p>
+ * Values below {@value #LINEAR_LIMIT} ns are counted exactly. Above that, each
+ * power of two is split into {@value #SUB_BUCKETS} equal buckets, so a value
+ * is placed within about 1.6% of itself whatever its magnitude. Values above
+ * {@link #MAX_VALUE}, about an hour, are counted as {@code MAX_VALUE}. The
+ * counters are allocated once, so {@link #record(long)} finds its bucket with
+ * a few shifts and increments one atomic counter; it never allocates and
+ * never blocks.
+ * </p>
+ *
+ * <p>
+ * {@link #snapshot()} reads the counters one by one while recording goes on,
+ * so it may miss values recorded during the read, but never counts one twice.
+ * {@link #reset()} zeroes them the same way.
+ * </p>
+ *
+ * @see LatencyMetrics
+ * @since 1.0
+ */
+public final class LatencyHistogram {
+
+    /** Buckets per power of two above {@link #LINEAR_LIMIT}. */
+    private static final int SUB_BUCKETS = 64;
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    /** Values below this are counted one bucket per nanosecond. */
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+    /** Largest value told apart from larger ones, {@code 2^42 - 1} ns or about 73 minutes. */
+    public static final long MAX_VALUE = (1L << 42) - 1;
+
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Summary of the values recorded so far. Each percentile is the highest
+     * value of the bucket it falls in, so it is never below the true value.
+     *
+     * @param count number of values recorded
+     * @param p50   median, in nanoseconds
+     * @param p90   90th percentile, in nanoseconds
+     * @param p99   99th percentile, in nanoseconds
+     * @param p999  99.9th percentile, in nanoseconds
+     * @param max   largest value recorded, in nanoseconds
+     */
+    public record Snapshot(long count, long p50, long p90, long p99, long p999, long max) {
+    }
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.getAndIncrement(index(value));
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Summarizes the values recorded so far.
+     *
+     * @return the count, percentiles and maximum
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long highest = max.get();
+        return new Snapshot(total,
+                percentile(copy, total, 0.50, highest),
+                percentile(copy, total, 0.90, highest),
+                percentile(copy, total, 0.99, highest),
+                percentile(copy, total, 0.999, highest),
+                total == 0 ? 0 : highest);
+    }
+
+    /**
+     * Forgets every value recorded so far.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long highest) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // The maximum is exact, and no bucket holds anything above it.
+                return Math.min(highestValue(i), highest);
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Returns the bucket of a value: the value itself below
+     * {@link #LINEAR_LIMIT}, otherwise its top {@code SUB_BUCKET_BITS + 1}
+     * bits offset by its magnitude.
+     */
+    static int index(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the highest value that falls in a bucket.
+     */
+    static long highestValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long top = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,219 @@
+package com.bookingmx.reservations.service;
+
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.exception.NotFoundException;
+import com.bookingmx.reservations.exception.PreconditionFailedException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency histograms of the API, by operation and outcome.
+ * <p>
+ * Each operation, such as an endpoint or a service method, gets a named
+ * {@link Timer} once and keeps it; the timer holds one
+ * {@link LatencyHistogram} per {@link Outcome}, created the first time that
+ * outcome is recorded. From then on recording a latency only increments a
+ * counter, so it allocates nothing and takes no lock.
+ * </p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>
+ * long start = System.nanoTime();
+ * try {
+ *     Reservation r = ...;
+ *     timer.succeeded(start);
+ *     return r;
+ * } catch (RuntimeException e) {
+ *     timer.failed(start, e);
+ *     throw e;
+ * }
+ * </pre>
+ *
+ * @see LatencyHistogram
+ * @since 1.0
+ */
+public final class LatencyMetrics {
+
+    /**
+     * How an operation ended, named after the HTTP status it maps to.
+     */
+    public enum Outcome {
+        SUCCESS("success"),
+        BAD_REQUEST("400"),
+        NOT_FOUND("404"),
+        CONFLICT("409"),
+        PRECONDITION_FAILED("412"),
+        /** Any other 4xx status. */
+        CLIENT_ERROR("4xx"),
+        /** Any 5xx status, or an exception the API does not map to a status. */
+        SERVER_ERROR("500");
+
+        private final String label;
+
+        Outcome(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the name the outcome is reported under.
+         *
+         * @return {@code success} or the status
+         */
+        public String label() {
+            return label;
+        }
+
+        /**
+         * Returns the outcome of a response status.
+         *
+         * @param status the HTTP status code
+         * @return the outcome; any status below 400 is a success
+         */
+        public static Outcome of(int status) {
+            return switch (status) {
+                case 400 -> BAD_REQUEST;
+                case 404 -> NOT_FOUND;
+                case 409 -> CONFLICT;
+                case 412 -> PRECONDITION_FAILED;
+                default -> status < 400 ? SUCCESS : status < 500 ? CLIENT_ERROR : SERVER_ERROR;
+            };
+        }
+
+        /**
+         * Returns the outcome of an operation that threw, as
+         * {@link com.bookingmx.reservations.exception.ApiExceptionHandler}
+         * would answer it.
+         *
+         * @param error the exception thrown
+         * @return the outcome
+         */
+        public static Outcome of(Throwable error) {
+            if (error instanceof BadRequestException) {
+                return BAD_REQUEST;
+            }
+            if (error instanceof NotFoundException) {
+                return NOT_FOUND;
+            }
+            if (error instanceof ConflictException) {
+                return CONFLICT;
+            }
+            if (error instanceof PreconditionFailedException) {
+                return PRECONDITION_FAILED;
+            }
+            return SERVER_ERROR;
+        }
+    }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    /**
+     * The histograms of one operation.
+     */
+    public static final class Timer {
+
+        private final AtomicReferenceArray<LatencyHistogram> histograms =
+                new AtomicReferenceArray<>(OUTCOMES.length);
+
+        private Timer() {
+        }
+
+        /**
+         * Records the latency of one call.
+         *
+         * @param outcome how the call ended
+         * @param nanos   how long it took, in nanoseconds
+         */
+        public void record(Outcome outcome, long nanos) {
+            LatencyHistogram h = histograms.get(outcome.ordinal());
+            if (h == null) {
+                histograms.compareAndSet(outcome.ordinal(), null, new LatencyHistogram());
+                h = histograms.get(outcome.ordinal());
+            }
+            h.record(nanos);
+        }
+
+        /**
+         * Records a call that succeeded.
+         *
+         * @param startNanos {@link System#nanoTime()} when the call started
+         */
+        public void succeeded(long startNanos) {
+            record(Outcome.SUCCESS, System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Records a call that threw.
+         *
+         * @param startNanos {@link System#nanoTime()} when the call started
+         * @param error      what it threw
+         */
+        public void failed(long startNanos, Throwable error) {
+            record(Outcome.of(error), System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Summarizes the outcomes recorded since the last reset.
+         *
+         * @return a snapshot per outcome label, in {@link Outcome} order; outcomes with no calls are left out
+         */
+        public Map<String, LatencyHistogram.Snapshot> snapshot() {
+            Map<String, LatencyHistogram.Snapshot> out = new LinkedHashMap<>();
+            for (Outcome outcome : OUTCOMES) {
+                LatencyHistogram h = histograms.get(outcome.ordinal());
+                if (h != null) {
+                    LatencyHistogram.Snapshot s = h.snapshot();
+                    if (s.count() > 0) {
+                        out.put(outcome.label(), s);
+                    }
+                }
+            }
+            return out;
+        }
+
+        void reset() {
+            for (int i = 0; i < OUTCOMES.length; i++) {
+                LatencyHistogram h = histograms.get(i);
+                if (h != null) {
+                    h.reset();
+                }
+            }
+        }
+    }
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the timer of an operation, creating it on first use. Callers
+     * should look a timer up once and keep it.
+     *
+     * @param name the operation, such as {@code GET /api/reservations/{id}}
+     * @return the operation's timer
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new Timer());
+    }
+
+    /**
+     * Summarizes every operation.
+     *
+     * @return the snapshots of each operation by outcome, operations sorted by name
+     */
+    public Map<String, Map<String, LatencyHistogram.Snapshot>> snapshot() {
+        Map<String, Map<String, LatencyHistogram.Snapshot>> out = new TreeMap<>();
+        timers.forEach((name, timer) -> out.put(name, timer.snapshot()));
+        return Collections.unmodifiableMap(out);
+    }
+
+    /**
+     * Forgets every latency recorded so far. The operations stay registered.
+     */
+    public void reset() {
+        timers.values().forEach(Timer::reset);
+    }
+}
@@ -0,0 +1,119 @@
+package com.bookingmx.reservations.service;
+
+import com.bookingmx.reservations.repo.ReservationRepository;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A mutation handed to another thread, and the caller parked until that
+ * thread has applied it.
+ * <p>
+ * The applying thread runs {@link #apply()} and then {@link #complete()}; the
+ * caller's {@link #await()} returns the mutation's result or rethrows what it
+ * threw. Shared by the {@link MutationExecutor} implementations that apply
+ * mutations off the caller's thread.
+ * </p>
+ *
+ * @param <T> the mutation's result type
+ * @since 1.0
+ */
+final class MutationCommand<T> {
+
+    private final Supplier<T> mutation;
+    private final Thread caller;
+    private T result;
+    private Throwable failure;
+    private volatile boolean done;
+
+    /**
+     * Creates a command for a mutation submitted by the current thread.
+     *
+     * @param mutation the mutation to apply
+     */
+    MutationCommand(Supplier<T> mutation) {
+        this.mutation = mutation;
+        this.caller = Thread.currentThread();
+    }
+
+    /**
+     * Applies a batch of commands inside one durable batch of the repository,
+     * then hands every caller its outcome. If the batch itself fails, for
+     * example because the log could not be forced, every command that
+     * succeeded fails with that error instead.
+     *
+     * @param repo  the repository the mutations save to
+     * @param batch the commands, in the order to apply them
+     * @param n     the number of commands at the start of {@code batch}; they are cleared afterwards
+     */
+    static void applyAll(ReservationRepository repo, MutationCommand<?>[] batch, int n) {
+        try {
+            repo.inDurableBatch(() -> {
+                for (int i = 0; i < n; i++) {
+                    batch[i].apply();
+                }
+            });
+        } catch (Throwable t) {
+            for (int i = 0; i < n; i++) {
+                if (batch[i].failure == null) {
+                    batch[i].failure = t;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            batch[i].complete();
+            batch[i] = null;
+        }
+    }
+
+    /** Applies the mutation, keeping its outcome. */
+    void apply() {
+        try {
+            result = mutation.get();
+        } catch (Throwable t) {
+            failure = t;
+        }
+    }
+
+    /** Fails the command without applying it. */
+    void reject(RuntimeException e) {
+        failure = e;
+        complete();
+    }
+
+    /** Publishes the outcome to the caller; the volatile write orders the fields before it. */
+    void complete() {
+        done = true;
+        LockSupport.unpark(caller);
+    }
+
+    /**
+     * Parks until the command is complete. Interrupts do not abandon the
+     * mutation, which may already be applied; they are kept for the caller.
+     *
+     * @return the mutation's result
+     * @throws RuntimeException whatever the mutation threw
+     */
+    T await() {
+        boolean interrupted = false;
+        while (!done) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure instanceof Error e) {
+            throw e;
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package com.bookingmx.reservations.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Decides which thread applies each reservation mutation.
+ * <p>
+ * {@link ReservationService} hands every create, update and cancellation to
+ * its executor together with the hotel the mutation belongs to, and returns
+ * whatever the mutation returns or throws. Mutations of one hotel are always
+ * applied in the order they were submitted; how mutations of different
+ * hotels overlap is up to the implementation.
+ * </p>
+ *
+ * <ul>
+ *   <li>{@link #direct()}: the caller applies its own mutation, so mutations
+ *       only wait for each other on the service's locks</li>
+ *   <li>{@link RingBufferMutationExecutor}: callers publish mutations to a
+ *       ring buffer per partition of hotels and one writer thread per
+ *       partition applies them</li>
+ *   <li>{@link HotelActorMutationExecutor}: every hotel has its own mailbox,
+ *       drained on a virtual thread where the JVM has them</li>
+ * </ul>
+ *
+ * @see ReservationService
+ * @since 1.0
+ */
+public interface MutationExecutor extends AutoCloseable {
+
+    /**
+     * Applies a mutation and waits for its outcome.
+     *
+     * @param hotelName the hotel the mutation belongs to; may be {@code null}
+     * @param mutation  the mutation to apply
+     * @param <T>       the mutation's result type
+     * @return the mutation's result
+     * @throws RuntimeException whatever the mutation threw
+     * @throws IllegalStateException if the executor has been closed
+     */
+    <T> T execute(String hotelName, Supplier<T> mutation);
+
+    /**
+     * Stops accepting mutations and releases the executor's threads once the
+     * mutations already submitted have been applied.
+     */
+    @Override
+    void close();
+
+    /**
+     * Returns the executor that applies every mutation on the calling thread.
+     *
+     * @return the shared direct executor
+     */
+    static MutationExecutor direct() {
+        return Direct.INSTANCE;
+    }
+
+    /** Applies mutations on the caller's thread; there is nothing to close. */
+    enum Direct implements MutationExecutor {
+        INSTANCE;
+
+        @Override
+        public <T> T execute(String hotelName, Supplier<T> mutation) {
+            return mutation.get();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bookingmx.reservations.service;
+
+import com.bookingmx.reservations.dto.ReservationResponse;
+
+/**
+ * A change to a reservation, as published on the {@link ReservationEventBus}.
+ * <p>
+ * The reservation is captured as a {@link ReservationResponse} at the moment
+ * of the change, so later changes to the stored entity do not leak into
+ * events that are still queued for delivery.
+ * </p>
+ *
+ * @param sequence    position of the event in the bus's publication order, starting at 1
+ * @param type        what happened to the reservation
+ * @param reservation the reservation's state right after the change
+ * @see ReservationEventBus
+ * @since 1.0
+ */
+public record ReservationEvent(long sequence, Type type, ReservationResponse reservation) {
+
+    /**
+     * Kinds of reservation change.
+     */
+    public enum Type {
+        /** A reservation was created. */
+        CREATED,
+        /** An active reservation's guest, hotel or dates changed. */
+        UPDATED,
+        /** A reservation was canceled. */
+        CANCELED
+    }
+}
@@ -0,0 +1,163 @@
+package com.bookingmx.reservations.service;
+
+import com.bookingmx.reservations.dto.ReservationResponse;
+import com.bookingmx.reservations.model.Reservation;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process publish/subscribe bus for {@link ReservationEvent}s.
+ * <p>
+ * Publishing never waits for a subscriber: every subscription has its own
+ * bounded queue, and an event is offered to each queue in turn. A subscriber that falls so far
+ * behind that its queue is full is <em>overflowed</em>: it is dropped from the
+ * bus, its queued events are discarded, and it is told so through its
+ * listener, so that it can resynchronise from the full list. One slow
+ * consumer therefore never delays writers or other consumers, and never
+ * holds more than its queue's worth of memory.
+ * </p>
+ *
+ * <p>
+ * Events are numbered and queued under one lock, so every subscriber receives
+ * them in increasing {@link ReservationEvent#sequence()} order, with no event
+ * numbered out of turn. The service publishes an update or cancellation while
+ * it still holds the reservation's lock, so the updates and cancellations of
+ * one reservation are also in the order of its versions. Only the queueing is serialized: the
+ * event's body is built before the lock is taken.
+ * </p>
+ *
+ * <p>
+ * When nobody is subscribed, publishing costs a single emptiness check.
+ * </p>
+ *
+ * @see ReservationService
+ * @since 1.0
+ */
+@Component
+public class ReservationEventBus {
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    /** Number of the last event published; guarded by {@link #publishLock}. */
+    private long sequence;
+
+    /**
+     * Publishes a change to every current subscriber.
+     * <p>
+     * The event gets the next sequence number and is queued for every
+     * subscriber before any later event is numbered, so concurrent publishers
+     * never interleave their events differently in different queues.
+     * </p>
+     *
+     * @param type        what happened to the reservation
+     * @param reservation the reservation right after the change
+     */
+    public void publish(ReservationEvent.Type type, Reservation reservation) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        ReservationResponse body = new ReservationResponse(
+                reservation.getId(),
+                reservation.getGuestName(),
+                reservation.getHotelName(),
+                reservation.getCheckIn(),
+                reservation.getCheckOut(),
+                reservation.getStatus(),
+                reservation.getVersion());
+        publishLock.lock();
+        try {
+            ReservationEvent event = new ReservationEvent(++sequence, type, body);
+            for (Subscription s : subscriptions) {
+                s.offer(event);
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Subscribes to every event published from now on.
+     *
+     * @param capacity the most events that may wait in the subscription's queue
+     * @param listener called, on the publishing thread and under the bus's
+     *                 publish lock, after an event is queued and when the
+     *                 subscription overflows; it must not block
+     * @return the new subscription
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public Subscription subscribe(int capacity, Runnable listener) {
+        Subscription s = new Subscription(capacity, listener);
+        subscriptions.add(s);
+        return s;
+    }
+
+    /**
+     * @return the number of current subscriptions
+     */
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * One subscriber's bounded queue of pending events.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final BlockingQueue<ReservationEvent> queue;
+        private final Runnable listener;
+        private volatile boolean overflowed;
+
+        private Subscription(int capacity, Runnable listener) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.listener = listener;
+        }
+
+        /**
+         * Takes the oldest pending event.
+         *
+         * @return the event, or {@code null} if none is pending
+         */
+        public ReservationEvent poll() {
+            return queue.poll();
+        }
+
+        /**
+         * @return whether events are waiting
+         */
+        public boolean hasPending() {
+            return !queue.isEmpty();
+        }
+
+        /**
+         * @return whether the queue overflowed, after which no more events are delivered
+         */
+        public boolean isOverflowed() {
+            return overflowed;
+        }
+
+        /**
+         * Unsubscribes. Pending events are discarded.
+         */
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+            queue.clear();
+        }
+
+        private void offer(ReservationEvent event) {
+            if (overflowed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                overflowed = true;
+                close();
+            }
+            listener.run();
+        }
+    }
+}
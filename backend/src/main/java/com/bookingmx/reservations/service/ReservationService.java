@@ -1,15 +1,26 @@
 package com.bookingmx.reservations.service;
 
+import com.bookingmx.reservations.dto.ReservationOperation;
 import com.bookingmx.reservations.dto.ReservationRequest;
 import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.exception.InvalidRequestException;
 import com.bookingmx.reservations.exception.NotFoundException;
+import com.bookingmx.reservations.exception.PreconditionFailedException;
 import com.bookingmx.reservations.model.Reservation;
 import com.bookingmx.reservations.model.ReservationStatus;
 import com.bookingmx.reservations.repo.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * Service layer responsible for managing {@link Reservation} entities and
@@ -25,12 +36,34 @@ import java.util.List;
  *   <li>Validating reservation requests</li>
  *   <li>Creating, updating, and canceling reservations</li>
  *   <li>Ensuring check-in/check-out dates are valid and in the future</li>
+ *   <li>Keeping each hotel within its room capacity through the {@link RoomInventory}</li>
+ *   <li>Publishing every change on the {@link ReservationEventBus}</li>
  * </ul>
  *
- * <p><strong>Note:</strong> This implementation uses an in-memory repository
- * ({@link ReservationRepository}), making it suitable for testing or
- * demonstration purposes. For production, it should be replaced by a
- * persistence-backed implementation.</p>
+ * <p>
+ * Every create, update and cancellation is applied through a
+ * {@link MutationExecutor}, which decides the thread it runs on: the caller's
+ * own by default, a partition's single writer thread when
+ * {@code bookingmx.mutations.mode=ring}, or the hotel's own mailbox when it is
+ * {@code actor}. Reads never go through it; they are
+ * served straight from the repository's immutable snapshots.
+ * </p>
+ *
+ * <p>
+ * The latency of {@link #list()}, {@link #findById(Long)},
+ * {@link #create(ReservationRequest)}, the updates and the cancellations is
+ * recorded in {@link LatencyMetrics}, under {@code ReservationService.<method>}
+ * and by outcome. Only calls from outside are recorded: the lookups the
+ * service makes for its own updates and cancellations are not counted as
+ * {@code findById} calls. Request validation is recorded as a stage of its
+ * own, {@code ReservationService.validate}, for every request body checked
+ * by a create, an update, a batch or a transaction.
+ * </p>
+ *
+ * <p><strong>Note:</strong> The {@link ReservationRepository} is in-memory by
+ * default, making it suitable for testing or demonstration purposes. Setting
+ * {@code bookingmx.persistence.mode=wal} backs it with a write-ahead log so
+ * reservations survive restarts.</p>
  *
  * @see com.bookingmx.reservations.model.Reservation
  * @see com.bookingmx.reservations.dto.ReservationRequest
@@ -40,8 +73,141 @@ import java.util.List;
 @Service
 public class ReservationService {
 
-    /** Repository managing in-memory reservation data. */
-    private final ReservationRepository repo = new ReservationRepository();
+    /** Largest page {@link #listPage(String, Long, int)} returns. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /** Most reservations {@link #createAll(List)} accepts in one batch. */
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * Outcome of one item of a batch: exactly one of the fields is set.
+     *
+     * @param reservation the saved reservation, or {@code null} if the item failed
+     * @param error       why the item failed, or {@code null} if it succeeded
+     */
+    public record BatchOutcome(Reservation reservation, RuntimeException error) {
+    }
+
+    /**
+     * Thrown for every unknown ID. Domain exceptions carry no stack trace and
+     * never change, so one instance serves every miss.
+     */
+    private static final NotFoundException NOT_FOUND = new NotFoundException("Reservation not found");
+
+    /** Thrown for every stale version, shared like {@link #NOT_FOUND}. */
+    private static final PreconditionFailedException MODIFIED =
+            new PreconditionFailedException("Reservation has been modified");
+
+    /** Repository managing reservation data. */
+    private final ReservationRepository repo;
+
+    /** Rooms booked per hotel and night. */
+    private final RoomInventory inventory;
+
+    /** Bus on which every change is published. */
+    private final ReservationEventBus events;
+
+    /** Serializes mutations of each reservation; see {@link #update(Long, ReservationRequest, Long)}. */
+    private final StripedLocks locks = new StripedLocks();
+
+    /** Runs every mutation, on the caller's thread or a writer thread. */
+    private final MutationExecutor mutations;
+
+    /** Checks request bodies before anything is locked or booked. */
+    private final ReservationRequestValidator validator = new ReservationRequestValidator();
+
+    /** Latency of each public operation, looked up once so recording never allocates. */
+    private final LatencyMetrics.Timer listTimer;
+    private final LatencyMetrics.Timer findByIdTimer;
+    private final LatencyMetrics.Timer createTimer;
+    private final LatencyMetrics.Timer updateTimer;
+    private final LatencyMetrics.Timer cancelTimer;
+    private final LatencyMetrics.Timer validateTimer;
+
+    /**
+     * Creates a service backed by a fresh in-memory repository.
+     */
+    public ReservationService() {
+        this(new ReservationRepository());
+    }
+
+    /**
+     * Creates a service backed by the given repository, with
+     * {@link RoomInventory#DEFAULT_ROOMS} rooms per hotel. The inventory is
+     * rebuilt from the reservations already in the repository.
+     *
+     * @param repo the repository holding reservation data
+     */
+    public ReservationService(ReservationRepository repo) {
+        this(repo, new RoomInventory());
+        inventory.restore(repo.findAll());
+    }
+
+    /**
+     * Creates a service backed by the given repository and inventory, with a
+     * private event bus. The inventory must already account for the
+     * reservations in the repository.
+     *
+     * @param repo      the repository holding reservation data
+     * @param inventory the room inventory to book against
+     */
+    public ReservationService(ReservationRepository repo, RoomInventory inventory) {
+        this(repo, inventory, new ReservationEventBus());
+    }
+
+    /**
+     * Creates a service backed by the given repository and inventory that
+     * publishes every change on the given bus. The inventory must already
+     * account for the reservations in the repository.
+     *
+     * @param repo      the repository holding reservation data
+     * @param inventory the room inventory to book against
+     * @param events    the bus on which changes are published
+     */
+    public ReservationService(ReservationRepository repo, RoomInventory inventory, ReservationEventBus events) {
+        this(repo, inventory, events, MutationExecutor.direct());
+    }
+
+    /**
+     * Creates a service that applies every mutation through the given
+     * executor. The inventory must already account for the reservations in
+     * the repository.
+     *
+     * @param repo      the repository holding reservation data
+     * @param inventory the room inventory to book against
+     * @param events    the bus on which changes are published
+     * @param mutations the executor that applies creates, updates and cancellations
+     */
+    public ReservationService(ReservationRepository repo, RoomInventory inventory, ReservationEventBus events,
+                              MutationExecutor mutations) {
+        this(repo, inventory, events, mutations, new LatencyMetrics());
+    }
+
+    /**
+     * Creates a service that applies every mutation through the given
+     * executor and records its latencies in the given metrics. The inventory
+     * must already account for the reservations in the repository.
+     *
+     * @param repo      the repository holding reservation data
+     * @param inventory the room inventory to book against
+     * @param events    the bus on which changes are published
+     * @param mutations the executor that applies creates, updates and cancellations
+     * @param metrics   where the latency of each operation is recorded
+     */
+    @Autowired
+    public ReservationService(ReservationRepository repo, RoomInventory inventory, ReservationEventBus events,
+                              MutationExecutor mutations, LatencyMetrics metrics) {
+        this.repo = repo;
+        this.inventory = inventory;
+        this.events = events;
+        this.mutations = mutations;
+        this.listTimer = metrics.timer("ReservationService.list");
+        this.findByIdTimer = metrics.timer("ReservationService.findById");
+        this.createTimer = metrics.timer("ReservationService.create");
+        this.updateTimer = metrics.timer("ReservationService.update");
+        this.cancelTimer = metrics.timer("ReservationService.cancel");
+        this.validateTimer = metrics.timer("ReservationService.validate");
+    }
 
     /**
      * Retrieves a list of all reservations.
@@ -49,7 +215,78 @@ public class ReservationService {
      * @return a list of all stored {@link Reservation} entities
      */
     public List<Reservation> list() {
-        return repo.findAll();
+        long start = System.nanoTime();
+        try {
+            List<Reservation> all = repo.findAll();
+            listTimer.succeeded(start);
+            return all;
+        } catch (RuntimeException e) {
+            listTimer.failed(start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the reservations booked at a given hotel.
+     *
+     * @param hotelName the exact hotel name to filter by
+     * @return the matching {@link Reservation} entities, in ascending ID order
+     */
+    public List<Reservation> listByHotel(String hotelName) {
+        return repo.findByHotel(hotelName);
+    }
+
+    /**
+     * Retrieves one page of reservations in ascending ID order.
+     *
+     * @param hotelName the exact hotel name to filter by, or {@code null} for every hotel
+     * @param after     the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit     the page size, from 1 to {@link #MAX_PAGE_SIZE}
+     * @return the page and the cursor of the next one
+     * @throws BadRequestException if the limit is out of range or the cursor is negative
+     */
+    public ReservationRepository.Page listPage(String hotelName, Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (after != null && after < 0) {
+            throw new BadRequestException("Cursor cannot be negative");
+        }
+        return repo.findPage(hotelName, after == null ? 0 : after, limit);
+    }
+
+    /**
+     * Retrieves the reservations changed after a given version.
+     *
+     * @param since the version returned by the previous call, or {@code 0} for everything
+     * @return the changed reservations and the version to pass next time
+     * @throws BadRequestException if {@code since} is negative
+     */
+    public ReservationRepository.Changes changesSince(long since) {
+        if (since < 0) {
+            throw new BadRequestException("Version cannot be negative");
+        }
+        return repo.findChangedSince(since);
+    }
+
+    /**
+     * Retrieves the active reservations at a hotel whose stay overlaps the
+     * window {@code [from, to)}.
+     *
+     * @param hotelName the exact hotel name to filter by
+     * @param from      the first night of the window
+     * @param to        the day the window ends, exclusive
+     * @return the overlapping {@link Reservation} entities, in ascending check-in order
+     * @throws BadRequestException if a bound is missing or {@code to} is not after {@code from}
+     */
+    public List<Reservation> findOverlapping(String hotelName, LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Dates cannot be null");
+        }
+        if (!to.isAfter(from)) {
+            throw new BadRequestException("The 'to' date must be after 'from'");
+        }
+        return repo.findOverlapping(hotelName, from, to);
     }
 
     /**
@@ -57,10 +294,24 @@ public class ReservationService {
      *
      * @param req the reservation creation request
      * @return the newly created {@link Reservation}
-     * @throws BadRequestException if the dates are invalid or in the past
+     * @throws InvalidRequestException listing every rule the request breaks, such as
+     *         blank names or dates that are missing, out of order or in the past
+     * @throws ConflictException if the hotel has no room left on one of the nights
      */
     public Reservation create(ReservationRequest req) {
-        validateDates(req.getCheckIn(), req.getCheckOut());
+        long start = System.nanoTime();
+        try {
+            validate(req);
+            Reservation created = mutations.execute(req.getHotelName(), () -> createNow(req));
+            createTimer.succeeded(start);
+            return created;
+        } catch (RuntimeException e) {
+            createTimer.failed(start, e);
+            throw e;
+        }
+    }
+
+    private Reservation createNow(ReservationRequest req) {
         Reservation r = new Reservation(
                 null,
                 req.getGuestName(),
@@ -68,7 +319,321 @@ public class ReservationService {
                 req.getCheckIn(),
                 req.getCheckOut()
         );
-        return repo.save(r);
+        inventory.reserve(r.getHotelName(), r.getCheckIn(), r.getCheckOut());
+        Reservation saved;
+        try {
+            saved = repo.save(r);
+        } catch (RuntimeException e) {
+            inventory.release(r.getHotelName(), r.getCheckIn(), r.getCheckOut());
+            throw e;
+        }
+        events.publish(ReservationEvent.Type.CREATED, saved);
+        return saved;
+    }
+
+    /**
+     * Creates many reservations in one bulk insert, reporting the outcome of
+     * each one.
+     * <p>
+     * Every request is validated in a single pass before anything is booked,
+     * with the same date rules as {@link #create(ReservationRequest)}. Rooms
+     * are then booked for the valid ones, and those that fit are saved with
+     * {@link ReservationRepository#insertAll(List)}: they get a contiguous
+     * block of IDs in request order and, in {@code wal} mode, share one log
+     * frame and one flush. An invalid or unbookable item does not stop the
+     * others.
+     * </p>
+     *
+     * <p>
+     * The batch is applied on the calling thread whatever the
+     * {@link MutationExecutor}: it spans hotels, and new reservations cannot
+     * race with changes of existing ones.
+     * </p>
+     *
+     * @param reqs the reservations to create
+     * @return one outcome per request, in request order
+     * @throws BadRequestException if the batch is empty or larger than {@link #MAX_BATCH_SIZE}
+     */
+    public List<BatchOutcome> createAll(List<ReservationRequest> reqs) {
+        if (reqs == null || reqs.isEmpty()) {
+            throw new BadRequestException("Batch cannot be empty");
+        }
+        if (reqs.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch cannot hold more than " + MAX_BATCH_SIZE + " reservations");
+        }
+        RuntimeException[] errors = new RuntimeException[reqs.size()];
+        for (int i = 0; i < reqs.size(); i++) {
+            try {
+                validate(reqs.get(i));
+            } catch (BadRequestException e) {
+                errors[i] = e;
+            }
+        }
+
+        List<Reservation> booked = new ArrayList<>(reqs.size());
+        for (int i = 0; i < reqs.size(); i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            ReservationRequest req = reqs.get(i);
+            Reservation r = new Reservation(null, req.getGuestName(), req.getHotelName(),
+                    req.getCheckIn(), req.getCheckOut());
+            try {
+                inventory.reserve(r.getHotelName(), r.getCheckIn(), r.getCheckOut());
+                booked.add(r);
+            } catch (ConflictException | BadRequestException e) {
+                errors[i] = e;
+            }
+        }
+
+        List<Reservation> saved;
+        try {
+            saved = repo.insertAll(booked);
+        } catch (RuntimeException e) {
+            for (Reservation r : booked) {
+                inventory.release(r.getHotelName(), r.getCheckIn(), r.getCheckOut());
+            }
+            throw e;
+        }
+
+        List<BatchOutcome> outcomes = new ArrayList<>(reqs.size());
+        Iterator<Reservation> next = saved.iterator();
+        for (RuntimeException error : errors) {
+            if (error != null) {
+                outcomes.add(new BatchOutcome(null, error));
+            } else {
+                Reservation r = next.next();
+                events.publish(ReservationEvent.Type.CREATED, r);
+                outcomes.add(new BatchOutcome(r, null));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Applies a mix of creates, updates and cancellations as one atomic
+     * transaction: either every operation takes effect or none does.
+     * <p>
+     * Every operation is checked up front, with the same rules as the single
+     * operations. The stripe locks of all the reservations involved are then
+     * taken in stripe order, so the transaction only excludes changes of
+     * those reservations and two transactions cannot deadlock. Under them the
+     * current states are read and checked, rooms are booked for every night
+     * the transaction adds, and all new states are saved with one
+     * {@link ReservationRepository#saveAllIfVersions(List)}. If any step
+     * fails, the rooms booked so far are given back and nothing is saved;
+     * once saved, the nights the transaction drops are released. Rooms freed
+     * by an operation are therefore not available to a later operation of the
+     * same transaction.
+     * </p>
+     *
+     * <p>
+     * Like {@link #createAll(List)}, a transaction runs on the calling
+     * thread whatever the {@link MutationExecutor}; the stripe locks order it
+     * with the single changes of the same reservations.
+     * </p>
+     *
+     * @param ops the operations, applied in order
+     * @return the state of each operation's reservation after the transaction, in order
+     * @throws BadRequestException if the transaction is empty or too large, names a
+     *         reservation twice, or an operation is malformed or invalid
+     * @throws NotFoundException if an updated or canceled reservation does not exist
+     * @throws ConflictException if a hotel has no room left on one of the added nights
+     * @throws PreconditionFailedException if a reservation is not at the version its operation gives
+     */
+    public List<Reservation> applyAll(List<ReservationOperation> ops) {
+        if (ops == null || ops.isEmpty()) {
+            throw new BadRequestException("Transaction cannot be empty");
+        }
+        if (ops.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Transaction cannot hold more than " + MAX_BATCH_SIZE + " operations");
+        }
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < ops.size(); i++) {
+            try {
+                checkOperation(ops.get(i), ids);
+            } catch (RuntimeException e) {
+                throw atOperation(i, e);
+            }
+        }
+
+        List<ReentrantLock> held = locks.locksFor(ids.stream().mapToLong(Long::longValue).toArray());
+        int locked = 0;
+        try {
+            for (ReentrantLock lock : held) {
+                lock.lock();
+                locked++;
+            }
+            return applyLocked(ops);
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    private void checkOperation(ReservationOperation op, Set<Long> ids) {
+        if (op == null || op.getType() == null) {
+            throw new BadRequestException("Operation type is required");
+        }
+        if (op.getType() == ReservationOperation.Type.CREATE) {
+            if (op.getId() != null) {
+                throw new BadRequestException("A create cannot name a reservation ID");
+            }
+        } else {
+            if (op.getId() == null) {
+                throw new BadRequestException("Reservation ID is required");
+            }
+            if (!ids.add(op.getId())) {
+                throw new BadRequestException("Reservation " + op.getId() + " appears twice");
+            }
+        }
+        if (op.getType() != ReservationOperation.Type.CANCEL) {
+            validate(op.getReservation());
+        }
+    }
+
+    private List<Reservation> applyLocked(List<ReservationOperation> ops) {
+        int n = ops.size();
+        boolean versioned = ops.stream().anyMatch(op -> op.getVersion() != null);
+        while (true) {
+            Reservation[] before = new Reservation[n];
+            Reservation[] after = new Reservation[n];
+            for (int i = 0; i < n; i++) {
+                try {
+                    planOperation(ops.get(i), i, before, after);
+                } catch (RuntimeException e) {
+                    throw atOperation(i, e);
+                }
+            }
+
+            List<Reservation> writes = new ArrayList<>(n);
+            for (Reservation r : after) {
+                if (r != null) {
+                    writes.add(r);
+                }
+            }
+            int booked = 0;
+            List<Reservation> saved = null;
+            try {
+                for (; booked < n; booked++) {
+                    try {
+                        book(before[booked], after[booked]);
+                    } catch (RuntimeException e) {
+                        throw atOperation(booked, e);
+                    }
+                }
+                saved = repo.saveAllIfVersions(writes).orElse(null);
+            } finally {
+                if (saved == null) {
+                    for (int i = booked - 1; i >= 0; i--) {
+                        unbook(before[i], after[i]);
+                    }
+                }
+            }
+            if (saved == null) {
+                if (versioned) {
+                    throw MODIFIED;
+                }
+                continue;
+            }
+
+            List<Reservation> results = new ArrayList<>(n);
+            Iterator<Reservation> next = saved.iterator();
+            for (int i = 0; i < n; i++) {
+                if (after[i] == null) {
+                    results.add(before[i]);
+                    continue;
+                }
+                Reservation r = next.next();
+                results.add(r);
+                if (before[i] == null) {
+                    events.publish(ReservationEvent.Type.CREATED, r);
+                } else if (!r.isActive()) {
+                    inventory.release(before[i].getHotelName(), before[i].getCheckIn(), before[i].getCheckOut());
+                    events.publish(ReservationEvent.Type.CANCELED, r);
+                } else {
+                    inventory.releaseDropped(before[i].getHotelName(), before[i].getCheckIn(), before[i].getCheckOut(),
+                            r.getHotelName(), r.getCheckIn(), r.getCheckOut());
+                    events.publish(ReservationEvent.Type.UPDATED, r);
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Works out the state an operation reads and the state it writes; a
+     * cancellation of a canceled reservation writes nothing.
+     */
+    private void planOperation(ReservationOperation op, int i, Reservation[] before, Reservation[] after) {
+        ReservationRequest req = op.getReservation();
+        switch (op.getType()) {
+            case CREATE -> after[i] = new Reservation(null, req.getGuestName(), req.getHotelName(),
+                    req.getCheckIn(), req.getCheckOut());
+            case UPDATE -> {
+                before[i] = findCurrent(op.getId(), op.getVersion());
+                if (!before[i].isActive()) {
+                    throw new BadRequestException("Cannot update a canceled reservation");
+                }
+                after[i] = before[i].withDetails(req.getGuestName(), req.getHotelName(),
+                        req.getCheckIn(), req.getCheckOut());
+            }
+            case CANCEL -> {
+                before[i] = findCurrent(op.getId(), op.getVersion());
+                after[i] = before[i].isActive() ? before[i].withStatus(ReservationStatus.CANCELED) : null;
+            }
+        }
+    }
+
+    /** Books the rooms an operation adds; cancellations add none. */
+    private void book(Reservation before, Reservation after) {
+        if (after == null || !after.isActive()) {
+            return;
+        }
+        if (before == null) {
+            inventory.reserve(after.getHotelName(), after.getCheckIn(), after.getCheckOut());
+        } else {
+            inventory.reserveAdded(before.getHotelName(), before.getCheckIn(), before.getCheckOut(),
+                    after.getHotelName(), after.getCheckIn(), after.getCheckOut());
+        }
+    }
+
+    /** Gives back exactly what {@link #book(Reservation, Reservation)} booked. */
+    private void unbook(Reservation before, Reservation after) {
+        if (after == null || !after.isActive()) {
+            return;
+        }
+        if (before == null) {
+            inventory.release(after.getHotelName(), after.getCheckIn(), after.getCheckOut());
+        } else {
+            inventory.releaseDropped(after.getHotelName(), after.getCheckIn(), after.getCheckOut(),
+                    before.getHotelName(), before.getCheckIn(), before.getCheckOut());
+        }
+    }
+
+    /**
+     * Returns an exception of the same kind as {@code e} whose message names
+     * the failed operation.
+     */
+    private static RuntimeException atOperation(int i, RuntimeException e) {
+        String message = "Operation " + i + ": " + e.getMessage();
+        if (e instanceof InvalidRequestException invalid) {
+            return new InvalidRequestException(message, invalid.getViolations());
+        }
+        if (e instanceof BadRequestException) {
+            return new BadRequestException(message);
+        }
+        if (e instanceof NotFoundException) {
+            return new NotFoundException(message);
+        }
+        if (e instanceof ConflictException) {
+            return new ConflictException(message);
+        }
+        if (e instanceof PreconditionFailedException) {
+            return new PreconditionFailedException(message);
+        }
+        return e;
     }
 
     /**
@@ -79,77 +644,252 @@ public class ReservationService {
      * @throws NotFoundException if no reservation exists with the given ID
      */
     public Reservation findById(Long id) {
+        long start = System.nanoTime();
+        try {
+            Reservation found = find(id);
+            findByIdTimer.succeeded(start);
+            return found;
+        } catch (RuntimeException e) {
+            findByIdTimer.failed(start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Looks a reservation up for the service's own use, without recording it
+     * as a {@link #findById(Long)} call.
+     */
+    private Reservation find(Long id) {
         return repo.findById(id)
-                .orElseThrow(() -> new NotFoundException("Reservation not found"));
+                .orElseThrow(() -> NOT_FOUND);
+    }
+
+    /**
+     * Retrieves several reservations by ID in one call. Missing IDs are
+     * reported in the result instead of failing the call.
+     *
+     * @param ids the IDs to look up, at most {@link #MAX_PAGE_SIZE}; repeats are looked up once
+     * @return the reservations found and the IDs that were missing, each in request order
+     * @throws BadRequestException if no IDs or too many are given
+     */
+    public ReservationRepository.Lookup findByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("At least one ID is required");
+        }
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Cannot look up more than " + MAX_PAGE_SIZE + " IDs at once");
+        }
+        return repo.findAllById(ids.stream().distinct().toList());
     }
 
     /**
      * Updates an existing reservation with new information.
-     * <p>
-     * A reservation can only be updated if it is currently active.
-     * </p>
      *
      * @param id  the ID of the reservation to update
      * @param req the updated reservation details
      * @return the updated {@link Reservation}
      * @throws NotFoundException if no reservation exists with the given ID
      * @throws BadRequestException if the reservation is canceled or the dates are invalid
+     * @throws ConflictException if the hotel has no room left on one of the added nights
+     * @see #update(Long, ReservationRequest, Long)
      */
     public Reservation update(Long id, ReservationRequest req) {
-        Reservation existing = repo.findById(id)
-                .orElseThrow(() -> new NotFoundException("Reservation not found"));
+        return update(id, req, null);
+    }
 
-        if (!existing.isActive()) {
-            throw new BadRequestException("Cannot update a canceled reservation");
+    /**
+     * Updates an existing reservation with new information, optionally only if
+     * it is still at the version the caller last read.
+     * <p>
+     * A reservation can only be updated if it is currently active. Rooms are
+     * booked for the nights the new stay adds before those it drops are given
+     * back, so a failed update keeps the original stay.
+     * </p>
+     *
+     * <p>
+     * Updates and cancellations of one reservation run one at a time under its
+     * stripe of a {@link StripedLocks} table, so the status check, the room
+     * move and the save form one atomic step and a concurrent cancellation
+     * cannot slip in between. Mutations of different reservations take
+     * different stripes and run in parallel. With a ring executor the stripe
+     * is rarely contended, since each writer applies one mutation at a time.
+     * The new state is still saved with
+     * {@link ReservationRepository#saveIfVersion(Reservation, long)} against the
+     * version it was based on; if a writer outside the service got in first,
+     * the rooms booked for it are given back and the update fails when
+     * {@code expectedVersion} is given, or starts over from the new state otherwise.
+     * </p>
+     *
+     * @param id              the ID of the reservation to update
+     * @param req             the updated reservation details
+     * @param expectedVersion the version the update is based on, or {@code null} to update any version
+     * @return the updated {@link Reservation}
+     * @throws NotFoundException if no reservation exists with the given ID
+     * @throws BadRequestException if the reservation is canceled
+     * @throws InvalidRequestException listing every rule the request breaks
+     * @throws ConflictException if the hotel has no room left on one of the added nights
+     * @throws PreconditionFailedException if the reservation is not at {@code expectedVersion}
+     */
+    public Reservation update(Long id, ReservationRequest req, Long expectedVersion) {
+        long start = System.nanoTime();
+        try {
+            Reservation updated = mutate(id, () -> updateLocked(id, req, expectedVersion));
+            updateTimer.succeeded(start);
+            return updated;
+        } catch (RuntimeException e) {
+            updateTimer.failed(start, e);
+            throw e;
         }
+    }
+
+    private Reservation updateLocked(Long id, ReservationRequest req, Long expectedVersion) {
+        while (true) {
+            Reservation existing = findCurrent(id, expectedVersion);
+            if (!existing.isActive()) {
+                throw new BadRequestException("Cannot update a canceled reservation");
+            }
+            validate(req);
 
-        validateDates(req.getCheckIn(), req.getCheckOut());
-        existing.setGuestName(req.getGuestName());
-        existing.setHotelName(req.getHotelName());
-        existing.setCheckIn(req.getCheckIn());
-        existing.setCheckOut(req.getCheckOut());
-        return repo.save(existing);
+            Reservation updated = existing.withDetails(
+                    req.getGuestName(),
+                    req.getHotelName(),
+                    req.getCheckIn(),
+                    req.getCheckOut()
+            );
+            inventory.reserveAdded(existing.getHotelName(), existing.getCheckIn(), existing.getCheckOut(),
+                    updated.getHotelName(), updated.getCheckIn(), updated.getCheckOut());
+            Reservation saved = null;
+            try {
+                saved = repo.saveIfVersion(updated, existing.getVersion()).orElse(null);
+            } finally {
+                if (saved == null) {
+                    // Give back exactly what reserveAdded booked.
+                    inventory.releaseDropped(updated.getHotelName(), updated.getCheckIn(), updated.getCheckOut(),
+                            existing.getHotelName(), existing.getCheckIn(), existing.getCheckOut());
+                }
+            }
+            if (saved != null) {
+                inventory.releaseDropped(existing.getHotelName(), existing.getCheckIn(), existing.getCheckOut(),
+                        updated.getHotelName(), updated.getCheckIn(), updated.getCheckOut());
+                events.publish(ReservationEvent.Type.UPDATED, saved);
+                return saved;
+            }
+            if (expectedVersion != null) {
+                throw MODIFIED;
+            }
+        }
     }
 
     /**
-     * Cancels a reservation by setting its status to {@link ReservationStatus#CANCELED}.
+     * Cancels a reservation by setting its status to {@link ReservationStatus#CANCELED}
+     * and gives its rooms back to the hotel.
      *
      * @param id the ID of the reservation to cancel
      * @return the canceled {@link Reservation}
      * @throws NotFoundException if the reservation is not found
+     * @see #cancel(Long, Long)
      */
     public Reservation cancel(Long id) {
-        Reservation existing = repo.findById(id)
-                .orElseThrow(() -> new NotFoundException("Reservation not found"));
-
-        existing.setStatus(ReservationStatus.CANCELED);
-        return repo.save(existing);
+        return cancel(id, null);
     }
 
     /**
-     * Validates the check-in and check-out dates for a reservation.
+     * Cancels a reservation, optionally only if it is still at the version the
+     * caller last read, and gives its rooms back to the hotel.
      * <p>
-     * This method ensures that:
-     * <ul>
-     *   <li>Both dates are provided</li>
-     *   <li>Check-out is after check-in</li>
-     *   <li>Check-in is in the future</li>
-     * </ul>
+     * Canceling an already canceled reservation changes nothing and returns
+     * it as it is. Like {@link #update(Long, ReservationRequest, Long)}, the
+     * cancellation holds the reservation's stripe lock and is saved against the
+     * version it was based on.
      * </p>
      *
-     * @param in  the check-in date
-     * @param out the check-out date
-     * @throws BadRequestException if any validation rule is violated
+     * @param id              the ID of the reservation to cancel
+     * @param expectedVersion the version the cancellation is based on, or {@code null} to cancel any version
+     * @return the canceled {@link Reservation}
+     * @throws NotFoundException if the reservation is not found
+     * @throws PreconditionFailedException if the reservation is not at {@code expectedVersion}
      */
-    public void validateDates(LocalDate in, LocalDate out) {
-        if (in == null || out == null) {
-            throw new BadRequestException("Dates cannot be null");
+    public Reservation cancel(Long id, Long expectedVersion) {
+        long start = System.nanoTime();
+        try {
+            Reservation canceled = mutate(id, () -> cancelLocked(id, expectedVersion));
+            cancelTimer.succeeded(start);
+            return canceled;
+        } catch (RuntimeException e) {
+            cancelTimer.failed(start, e);
+            throw e;
         }
-        if (!out.isAfter(in)) {
-            throw new BadRequestException("Check-out must be after check-in");
+    }
+
+    private Reservation cancelLocked(Long id, Long expectedVersion) {
+        while (true) {
+            Reservation existing = findCurrent(id, expectedVersion);
+            if (!existing.isActive()) {
+                return existing;
+            }
+            Reservation canceled = repo.saveIfVersion(existing.withStatus(ReservationStatus.CANCELED),
+                    existing.getVersion()).orElse(null);
+            if (canceled != null) {
+                inventory.release(existing.getHotelName(), existing.getCheckIn(), existing.getCheckOut());
+                events.publish(ReservationEvent.Type.CANCELED, canceled);
+                return canceled;
+            }
+            if (expectedVersion != null) {
+                throw MODIFIED;
+            }
         }
-        if (in.isBefore(LocalDate.now())) {
-            throw new BadRequestException("Check-in must be in the future");
+    }
+
+    /**
+     * Runs a change of an existing reservation through the executor, under the
+     * reservation's stripe lock. The change is submitted for the hotel the
+     * reservation is at now, so that it is ordered with the other changes of
+     * that hotel.
+     */
+    private <T> T mutate(Long id, Supplier<T> change) {
+        ReentrantLock lock = lockFor(id);
+        return mutations.execute(find(id).getHotelName(), () -> {
+            lock.lock();
+            try {
+                return change.get();
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns the stripe lock of a reservation ID.
+     */
+    private ReentrantLock lockFor(Long id) {
+        if (id == null) {
+            throw NOT_FOUND;
+        }
+        return locks.lockFor(id);
+    }
+
+    /**
+     * Checks a request body with the {@link #validator}, recording how long it took.
+     */
+    private void validate(ReservationRequest req) {
+        long start = System.nanoTime();
+        try {
+            validator.validate(req);
+            validateTimer.succeeded(start);
+        } catch (RuntimeException e) {
+            validateTimer.failed(start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a reservation for a change, checking the version the change is based on.
+     */
+    private Reservation findCurrent(Long id, Long expectedVersion) {
+        Reservation existing = find(id);
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw MODIFIED;
         }
+        return existing;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,262 @@
+package com.bookingmx.reservations.service;
+
+import com.bookingmx.reservations.repo.ReservationRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A {@link MutationExecutor} in which every partition of hotels has one writer
+ * thread that applies all of its mutations, fed through a ring buffer.
+ * <p>
+ * Hotels are hashed onto a fixed number of partitions. A caller claims the
+ * next sequence of its hotel's partition, places its mutation in the
+ * buffer slot of that sequence and parks until the writer has applied it.
+ * The writer drains every published slot in sequence order, so the mutations
+ * of a partition are applied one at a time in the order their sequences were
+ * claimed, and no two of them ever contend for a lock or a version. Callers
+ * only wait on the buffer when it is full.
+ * </p>
+ *
+ * <p>
+ * Everything the writer drains in one pass is applied inside one
+ * {@link ReservationRepository#inDurableBatch(Runnable) durable batch}: in
+ * {@code wal} mode the writer forces the log once for the whole batch and only
+ * then hands the callers their results, so a burst of writes costs one flush
+ * instead of one per write.
+ * </p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>
+ * try (MutationExecutor mutations = new RingBufferMutationExecutor(repo, 8, 1024)) {
+ *     ReservationService service = new ReservationService(repo, inventory, events, mutations);
+ *     // ...
+ * }
+ * </pre>
+ *
+ * @see MutationExecutor
+ * @since 1.0
+ */
+public final class RingBufferMutationExecutor implements MutationExecutor {
+
+    /** Default number of slots in each partition's ring buffer. */
+    public static final int DEFAULT_RING_SIZE = 1024;
+
+    /** Busy-wait iterations before a writer with nothing to do parks. */
+    private static final int WRITER_SPINS = 1 << 10;
+
+    private final ReservationRepository repo;
+    private final Partition[] partitions;
+
+    /**
+     * Creates an executor with one partition per available processor and
+     * {@value #DEFAULT_RING_SIZE} slots per ring.
+     *
+     * @param repo the repository the mutations save to, for batching durability
+     */
+    public RingBufferMutationExecutor(ReservationRepository repo) {
+        this(repo, Runtime.getRuntime().availableProcessors(), DEFAULT_RING_SIZE);
+    }
+
+    /**
+     * Creates an executor and starts its writer threads.
+     *
+     * @param repo       the repository the mutations save to, for batching durability
+     * @param partitions the number of partitions, each with its own writer thread
+     * @param ringSize   the minimum number of slots per ring; rounded up to a power of two
+     * @throws IllegalArgumentException if {@code partitions} is not between 1 and 1024,
+     *         or {@code ringSize} not between 2 and 2^20
+     */
+    public RingBufferMutationExecutor(ReservationRepository repo, int partitions, int ringSize) {
+        if (partitions < 1 || partitions > 1024) {
+            throw new IllegalArgumentException("Partitions must be between 1 and 1024: " + partitions);
+        }
+        if (ringSize < 2 || ringSize > 1 << 20) {
+            throw new IllegalArgumentException("Ring size must be between 2 and 2^20: " + ringSize);
+        }
+        int size = Integer.highestOneBit(ringSize);
+        if (size < ringSize) {
+            size <<= 1;
+        }
+        this.repo = repo;
+        this.partitions = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new Partition(i, size);
+        }
+        for (Partition p : this.partitions) {
+            p.writer.start();
+        }
+    }
+
+    /** @return the number of partitions */
+    public int partitions() {
+        return partitions.length;
+    }
+
+    /**
+     * Returns the partition a hotel's mutations are applied on.
+     *
+     * @param hotelName the hotel name; may be {@code null}
+     * @return the partition index, in {@code [0, partitions())}
+     */
+    public int partitionOf(String hotelName) {
+        int h = hotelName == null ? 0 : hotelName.hashCode() * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), partitions.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A mutation submitted from one of the writer threads, which can only
+     * happen from inside another mutation, is applied right away on that
+     * thread instead of waiting behind the mutation that submitted it.
+     * </p>
+     */
+    @Override
+    public <T> T execute(String hotelName, Supplier<T> mutation) {
+        if (Thread.currentThread() instanceof Writer w && w.owner() == this) {
+            return mutation.get();
+        }
+        MutationCommand<T> command = new MutationCommand<>(mutation);
+        partitions[partitionOf(hotelName)].publish(command);
+        return command.await();
+    }
+
+    /**
+     * Stops accepting mutations and waits for the writers to apply those
+     * already published.
+     */
+    @Override
+    public void close() {
+        for (Partition p : partitions) {
+            p.close();
+        }
+        boolean interrupted = false;
+        for (Partition p : partitions) {
+            while (p.writer.isAlive()) {
+                try {
+                    p.writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** A writer thread, marked so that mutations it submits itself run inline. */
+    private final class Writer extends Thread {
+        Writer(Runnable loop, int partition) {
+            super(loop, "reservation-writer-" + partition);
+            setDaemon(true);
+        }
+
+        RingBufferMutationExecutor owner() {
+            return RingBufferMutationExecutor.this;
+        }
+    }
+
+    /**
+     * One ring buffer and its writer.
+     * <p>
+     * Producers claim sequences from {@link #claimed}; a negative value means
+     * the partition is closed and its last sequence is {@code -claimed - 1}.
+     * A slot is published once {@link #published} holds its sequence, and free
+     * again once the writer's {@link #consumed} has moved past it.
+     * </p>
+     */
+    private final class Partition implements Runnable {
+        private final MutationCommand<?>[] ring;
+        private final AtomicLongArray published;
+        private final int mask;
+        private final AtomicLong claimed = new AtomicLong();
+        private final Writer writer;
+        private volatile long consumed;
+        private volatile boolean sleeping;
+
+        Partition(int index, int size) {
+            this.ring = new MutationCommand<?>[size];
+            this.published = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                published.set(i, -1);
+            }
+            this.mask = size - 1;
+            this.writer = new Writer(this, index);
+        }
+
+        void publish(MutationCommand<?> command) {
+            long seq;
+            do {
+                seq = claimed.get();
+                if (seq < 0) {
+                    throw new IllegalStateException("Mutation executor is closed");
+                }
+            } while (!claimed.compareAndSet(seq, seq + 1));
+
+            for (int spins = 0; seq - consumed >= ring.length; spins++) {
+                // The ring is full; wait for the writer to free our slot.
+                if (spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(1_000);
+                }
+            }
+            int slot = (int) seq & mask;
+            ring[slot] = command;
+            published.set(slot, seq);
+            if (sleeping) {
+                LockSupport.unpark(writer);
+            }
+        }
+
+        void close() {
+            long seq;
+            do {
+                seq = claimed.get();
+            } while (seq >= 0 && !claimed.compareAndSet(seq, -seq - 1));
+            LockSupport.unpark(writer);
+        }
+
+        @Override
+        public void run() {
+            MutationCommand<?>[] batch = new MutationCommand<?>[ring.length];
+            long next = 0;
+            int idle = 0;
+            while (true) {
+                int n = 0;
+                while (n < batch.length) {
+                    int slot = (int) (next + n) & mask;
+                    if (published.get(slot) != next + n) {
+                        break;
+                    }
+                    batch[n++] = ring[slot];
+                    ring[slot] = null;
+                }
+                if (n > 0) {
+                    next += n;
+                    consumed = next;
+                    MutationCommand.applyAll(repo, batch, n);
+                    idle = 0;
+                    continue;
+                }
+                long end = claimed.get();
+                if (end < 0 && next == -end - 1) {
+                    return;
+                }
+                if (idle++ < WRITER_SPINS) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                sleeping = true;
+                if (published.get((int) next & mask) != next && claimed.get() >= 0) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+            }
+        }
+    }
+}
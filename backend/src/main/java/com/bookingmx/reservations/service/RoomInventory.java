@@ -0,0 +1,464 @@
+package com.bookingmx.reservations.service;
+
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.model.Reservation;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks how many rooms are booked at each hotel for each night, so that a
+ * hotel is never booked past its capacity.
+ * <p>
+ * A stay from {@code checkIn} to {@code checkOut} occupies one room on every
+ * night in {@code [checkIn, checkOut)}. Each (hotel, night) pair has its own
+ * counter, updated with compare-and-set, so bookings at different hotels, or
+ * on different nights of the same hotel, never contend. Acquiring a stay takes
+ * its nights one at a time and, if any night is full, gives back the nights
+ * already taken before failing, so a failed booking leaves no trace.
+ * </p>
+ *
+ * <p>
+ * Every hotel has {@link #getDefaultRooms()} rooms unless it has its own entry
+ * in the capacity overrides.
+ * </p>
+ *
+ * <p>
+ * The counters are kept bounded. A booking longer than
+ * {@link #getMaxNights()} nights is rejected before any counter is touched.
+ * Counters of nights that have already passed are dropped the next time the
+ * hotel takes a booking, since no booking can include them any more, and a
+ * counter that a release brings back to zero is dropped at once. A hotel
+ * whose last counter is dropped is forgotten, so hotel names that no longer
+ * have bookings cost nothing.
+ * </p>
+ *
+ * <p>
+ * A dropped counter is first <em>retired</em>: it is set to {@code -1},
+ * which no booking can increment, so a booking that raced with the drop
+ * looks the night up again instead of counting into a counter nobody reads.
+ * A hotel is forgotten the same way, under its own lock, so a booking never
+ * adds a night to a forgotten hotel.
+ * </p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>
+ * RoomInventory inventory = new RoomInventory(20, Map.of("Hotel Tapatio", 5));
+ * inventory.reserve("Hotel Tapatio", checkIn, checkOut);   // throws ConflictException when full
+ * inventory.release("Hotel Tapatio", checkIn, checkOut);
+ * </pre>
+ *
+ * @see ReservationService
+ * @see com.bookingmx.reservations.exception.ConflictException
+ * @since 1.0
+ */
+public class RoomInventory {
+
+    /** Rooms per hotel used when no capacity is configured. */
+    public static final int DEFAULT_ROOMS = 100;
+
+    /** Longest stay accepted when no limit is configured. */
+    public static final int DEFAULT_MAX_NIGHTS = 365;
+
+    /** Value of a counter that has been dropped from its hotel. */
+    private static final int RETIRED = -1;
+
+    private final int defaultRooms;
+    private final Map<String, Integer> roomsByHotel;
+    private final int maxNights;
+
+    /** Decides which nights have passed. */
+    private final Clock clock;
+
+    /** Booked-room counters of each hotel, created on its first booking and dropped when it has none. */
+    private final ConcurrentHashMap<String, Hotel> hotels = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an inventory in which every hotel has {@link #DEFAULT_ROOMS} rooms.
+     */
+    public RoomInventory() {
+        this(DEFAULT_ROOMS, Map.of());
+    }
+
+    /**
+     * Creates an inventory with a default capacity and per-hotel overrides,
+     * accepting stays of up to {@link #DEFAULT_MAX_NIGHTS} nights.
+     *
+     * @param defaultRooms rooms of any hotel without an override
+     * @param roomsByHotel rooms of specific hotels, by exact hotel name
+     * @throws IllegalArgumentException if a capacity is negative
+     */
+    public RoomInventory(int defaultRooms, Map<String, Integer> roomsByHotel) {
+        this(defaultRooms, roomsByHotel, DEFAULT_MAX_NIGHTS, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates an inventory with a default capacity, per-hotel overrides and a
+     * limit on the length of a stay.
+     *
+     * @param defaultRooms rooms of any hotel without an override
+     * @param roomsByHotel rooms of specific hotels, by exact hotel name
+     * @param maxNights    the most nights one stay may book
+     * @param clock        the clock that decides which nights have passed
+     * @throws IllegalArgumentException if a capacity is negative or {@code maxNights} is not positive
+     */
+    public RoomInventory(int defaultRooms, Map<String, Integer> roomsByHotel, int maxNights, Clock clock) {
+        if (defaultRooms < 0 || roomsByHotel.values().stream().anyMatch(rooms -> rooms < 0)) {
+            throw new IllegalArgumentException("Room capacity cannot be negative");
+        }
+        if (maxNights <= 0) {
+            throw new IllegalArgumentException("Maximum stay must be at least one night: " + maxNights);
+        }
+        this.defaultRooms = defaultRooms;
+        this.roomsByHotel = Map.copyOf(roomsByHotel);
+        this.maxNights = maxNights;
+        this.clock = clock;
+    }
+
+    /** @return the rooms of a hotel without a capacity override */
+    public int getDefaultRooms() { return defaultRooms; }
+
+    /** @return the most nights one stay may book */
+    public int getMaxNights() { return maxNights; }
+
+    /**
+     * Returns the number of rooms a hotel has each night.
+     *
+     * @param hotel the hotel name
+     * @return the hotel's capacity
+     */
+    public int roomsAt(String hotel) {
+        return roomsByHotel.getOrDefault(hotel, defaultRooms);
+    }
+
+    /**
+     * Returns the number of rooms booked at a hotel on a night.
+     *
+     * @param hotel the hotel name
+     * @param night the night, identified by its date
+     * @return the booked rooms
+     */
+    public int booked(String hotel, LocalDate night) {
+        Hotel h = hotels.get(hotel);
+        if (h == null) {
+            return 0;
+        }
+        AtomicInteger counter = h.nights.get(night.toEpochDay());
+        return counter == null ? 0 : Math.max(counter.get(), 0);
+    }
+
+    /**
+     * @return the number of hotels that currently have booked-room counters
+     */
+    public int trackedHotels() {
+        return hotels.size();
+    }
+
+    /**
+     * Books one room at {@code hotel} for every night of the stay.
+     *
+     * @param hotel    the hotel name
+     * @param checkIn  the first night
+     * @param checkOut the check-out day, whose night is not booked
+     * @throws BadRequestException if the stay is longer than {@link #getMaxNights()} nights
+     * @throws ConflictException if the hotel is full on any night; nothing is booked then
+     */
+    public void reserve(String hotel, LocalDate checkIn, LocalDate checkOut) {
+        checkLength(checkIn, checkOut);
+        prune(hotel);
+        acquire(hotel, checkIn, checkOut, null, null);
+    }
+
+    /**
+     * Gives back the rooms booked by {@link #reserve(String, LocalDate, LocalDate)}.
+     *
+     * @param hotel    the hotel name
+     * @param checkIn  the first night
+     * @param checkOut the check-out day
+     */
+    public void release(String hotel, LocalDate checkIn, LocalDate checkOut) {
+        release(hotel, checkIn, checkOut, null, null);
+    }
+
+    /**
+     * Moves a booked stay to another hotel or other dates.
+     * <p>
+     * Only the nights the new stay adds are acquired and only the nights it
+     * drops are released, so shifting a stay by a day does not need a free
+     * room on the nights both stays share. The new nights are acquired before
+     * the old ones are released, so a failed move leaves the old stay booked.
+     * </p>
+     *
+     * @param fromHotel    the currently booked hotel
+     * @param fromCheckIn  the currently booked check-in
+     * @param fromCheckOut the currently booked check-out
+     * @param toHotel      the new hotel
+     * @param toCheckIn    the new check-in
+     * @param toCheckOut   the new check-out
+     * @throws BadRequestException if the new stay is longer than {@link #getMaxNights()} nights
+     * @throws ConflictException if the new hotel is full on an added night; nothing changes then
+     * @see #reserveAdded(String, LocalDate, LocalDate, String, LocalDate, LocalDate)
+     * @see #releaseDropped(String, LocalDate, LocalDate, String, LocalDate, LocalDate)
+     */
+    public void move(String fromHotel, LocalDate fromCheckIn, LocalDate fromCheckOut,
+                     String toHotel, LocalDate toCheckIn, LocalDate toCheckOut) {
+        reserveAdded(fromHotel, fromCheckIn, fromCheckOut, toHotel, toCheckIn, toCheckOut);
+        releaseDropped(fromHotel, fromCheckIn, fromCheckOut, toHotel, toCheckIn, toCheckOut);
+    }
+
+    /**
+     * First half of a {@link #move}: books the nights of the new stay that the
+     * booked stay does not already cover.
+     * <p>
+     * An optimistic writer calls this before trying to save the new stay, then
+     * {@link #releaseDropped} with the same arguments if the save succeeds, or
+     * with the two stays swapped to give back what it booked if it fails. Until
+     * then both stays count, so a concurrent booking may be refused but a hotel
+     * is never overbooked.
+     * </p>
+     *
+     * @param fromHotel    the currently booked hotel
+     * @param fromCheckIn  the currently booked check-in
+     * @param fromCheckOut the currently booked check-out
+     * @param toHotel      the new hotel
+     * @param toCheckIn    the new check-in
+     * @param toCheckOut   the new check-out
+     * @throws BadRequestException if the new stay is longer than {@link #getMaxNights()} nights
+     * @throws ConflictException if the new hotel is full on an added night; nothing is booked then
+     */
+    public void reserveAdded(String fromHotel, LocalDate fromCheckIn, LocalDate fromCheckOut,
+                             String toHotel, LocalDate toCheckIn, LocalDate toCheckOut) {
+        checkLength(toCheckIn, toCheckOut);
+        boolean sameHotel = Objects.equals(fromHotel, toHotel);
+        prune(toHotel);
+        acquire(toHotel, toCheckIn, toCheckOut,
+                sameHotel ? fromCheckIn : null, sameHotel ? fromCheckOut : null);
+    }
+
+    /**
+     * Second half of a {@link #move}: gives back the nights of the booked stay
+     * that the new stay does not cover.
+     *
+     * @param fromHotel    the previously booked hotel
+     * @param fromCheckIn  the previously booked check-in
+     * @param fromCheckOut the previously booked check-out
+     * @param toHotel      the new hotel
+     * @param toCheckIn    the new check-in
+     * @param toCheckOut   the new check-out
+     */
+    public void releaseDropped(String fromHotel, LocalDate fromCheckIn, LocalDate fromCheckOut,
+                               String toHotel, LocalDate toCheckIn, LocalDate toCheckOut) {
+        boolean sameHotel = Objects.equals(fromHotel, toHotel);
+        release(fromHotel, fromCheckIn, fromCheckOut,
+                sameHotel ? toCheckIn : null, sameHotel ? toCheckOut : null);
+    }
+
+    /**
+     * Counts the stays of already stored reservations without checking
+     * capacity or length, so that the inventory matches a recovered
+     * repository even if the limits have since been lowered. Nights that have
+     * already passed are not counted.
+     *
+     * @param reservations the stored reservations; inactive ones are skipped
+     */
+    public void restore(Iterable<Reservation> reservations) {
+        LocalDate today = LocalDate.now(clock);
+        for (Reservation r : reservations) {
+            if (r.isActive() && r.getHotelName() != null && r.getCheckIn() != null && r.getCheckOut() != null) {
+                LocalDate from = r.getCheckIn().isBefore(today) ? today : r.getCheckIn();
+                for (LocalDate night = from; night.isBefore(r.getCheckOut()); night = night.plusDays(1)) {
+                    while (!tryIncrement(counter(r.getHotelName(), night.toEpochDay()), Integer.MAX_VALUE)) {
+                        // Retired by a concurrent release; look the night up again.
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the counters of every night before today.
+     * <p>
+     * Bookings call this for their hotel, so it rarely needs calling
+     * directly; it does nothing if the hotel has no counter for a past night.
+     * Releasing a stay that included a dropped night simply skips that night.
+     * </p>
+     */
+    public void prunePastNights() {
+        hotels.keySet().forEach(this::prune);
+    }
+
+    private void checkLength(LocalDate checkIn, LocalDate checkOut) {
+        if (checkOut.toEpochDay() - checkIn.toEpochDay() > maxNights) {
+            throw new BadRequestException("A stay cannot be longer than " + maxNights + " nights");
+        }
+    }
+
+    /**
+     * Returns the live counter of a hotel's night, creating the hotel and the
+     * counter if needed. The counter may be retired by the time the caller
+     * uses it, in which case the caller asks again.
+     */
+    private AtomicInteger counter(String hotel, long day) {
+        while (true) {
+            Hotel h = hotels.computeIfAbsent(hotel, Hotel::new);
+            AtomicInteger counter = h.counter(day);
+            if (counter != null) {
+                return counter;
+            }
+            // The hotel was forgotten after we looked it up.
+        }
+    }
+
+    /**
+     * Removes a hotel's counters of past nights, if it may have any. Only one
+     * caller at a time walks a given range.
+     */
+    private void prune(String hotel) {
+        Hotel h = hotels.get(hotel);
+        if (h == null) {
+            return;
+        }
+        long today = LocalDate.now(clock).toEpochDay();
+        long oldest = h.oldestNight.get();
+        if (oldest < today && h.oldestNight.compareAndSet(oldest, today)) {
+            for (long day = oldest; day < today; day++) {
+                h.nights.computeIfPresent(day, (k, counter) -> {
+                    counter.set(RETIRED);
+                    return null;
+                });
+            }
+            forgetIfEmpty(h);
+        }
+    }
+
+    /**
+     * Takes one room on every night of {@code [checkIn, checkOut)} outside
+     * {@code [keepIn, keepOut)}, rolling back on the first full night.
+     */
+    private void acquire(String hotel, LocalDate checkIn, LocalDate checkOut, LocalDate keepIn, LocalDate keepOut) {
+        int rooms = roomsAt(hotel);
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            if (within(night, keepIn, keepOut)) {
+                continue;
+            }
+            while (true) {
+                AtomicInteger counter = counter(hotel, night.toEpochDay());
+                if (tryIncrement(counter, rooms)) {
+                    break;
+                }
+                if (counter.get() != RETIRED) {
+                    release(hotel, checkIn, night, keepIn, keepOut);
+                    throw new ConflictException("No rooms available at " + hotel + " on " + night);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives back one room on every night of {@code [checkIn, checkOut)} outside
+     * {@code [keepIn, keepOut)}. Nights without a counter, such as pruned ones,
+     * are skipped rather than created; counters left at zero are dropped, and
+     * the hotel with them if it has no other.
+     */
+    private void release(String hotel, LocalDate checkIn, LocalDate checkOut, LocalDate keepIn, LocalDate keepOut) {
+        Hotel h = hotels.get(hotel);
+        if (h == null) {
+            return;
+        }
+        boolean dropped = false;
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            if (!within(night, keepIn, keepOut)) {
+                AtomicInteger counter = h.nights.get(night.toEpochDay());
+                if (counter != null && tryDecrement(counter) == 0) {
+                    // Retire it only if nobody booked the room again meanwhile.
+                    h.nights.computeIfPresent(night.toEpochDay(),
+                            (k, c) -> c.compareAndSet(0, RETIRED) ? null : c);
+                    dropped = true;
+                }
+            }
+        }
+        if (dropped) {
+            forgetIfEmpty(h);
+        }
+    }
+
+    /** Removes a hotel from {@link #hotels} if it has no counters left. */
+    private void forgetIfEmpty(Hotel h) {
+        if (h.nights.isEmpty()) {
+            hotels.computeIfPresent(h.name, (name, current) -> current == h && h.retireIfEmpty() ? null : current);
+        }
+    }
+
+    private static boolean within(LocalDate night, LocalDate from, LocalDate to) {
+        return from != null && !night.isBefore(from) && night.isBefore(to);
+    }
+
+    /** Adds a room unless the night is full or the counter is retired. */
+    private static boolean tryIncrement(AtomicInteger counter, int limit) {
+        for (int booked = counter.get(); booked != RETIRED && booked < limit; booked = counter.get()) {
+            if (counter.compareAndSet(booked, booked + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Gives back a room, if any is booked, and returns the rooms left booked. */
+    private static int tryDecrement(AtomicInteger counter) {
+        for (int booked = counter.get(); booked > 0; booked = counter.get()) {
+            if (counter.compareAndSet(booked, booked - 1)) {
+                return booked - 1;
+            }
+        }
+        return RETIRED;
+    }
+
+    /** Per-night booked-room counters of one hotel. */
+    private static final class Hotel {
+        final String name;
+
+        /** Booked rooms by epoch day; a few hundred nights at most, so no striping is needed. */
+        final ConcurrentHashMap<Long, AtomicInteger> nights = new ConcurrentHashMap<>();
+
+        /** No night before this epoch day has a counter. */
+        final AtomicLong oldestNight = new AtomicLong(Long.MAX_VALUE);
+
+        /** Set, under the hotel's lock, once it has been removed from the inventory. */
+        private boolean retired;
+
+        Hotel(String name) {
+            this.name = name;
+        }
+
+        /** Returns the night's counter, creating it if needed, or {@code null} if the hotel is retired. */
+        AtomicInteger counter(long day) {
+            AtomicInteger counter = nights.get(day);
+            if (counter != null) {
+                return counter;
+            }
+            synchronized (this) {
+                if (retired) {
+                    return null;
+                }
+                counter = nights.computeIfAbsent(day, k -> new AtomicInteger());
+            }
+            for (long oldest = oldestNight.get(); day < oldest; oldest = oldestNight.get()) {
+                if (oldestNight.compareAndSet(oldest, day)) {
+                    break;
+                }
+            }
+            return counter;
+        }
+
+        synchronized boolean retireIfEmpty() {
+            retired = nights.isEmpty();
+            return retired;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.bookingmx.reservations.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed table of locks shared out among reservation IDs.
+ * <p>
+ * Each ID maps to one stripe, so two mutations of the same reservation always
+ * take the same lock while mutations of different reservations almost always
+ * take different ones. The table never grows, so there is nothing to create
+ * or clean up per reservation, and with many more stripes than cores two busy
+ * reservations rarely share a stripe.
+ * </p>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>
+ * ReentrantLock lock = locks.lockFor(id);
+ * lock.lock();
+ * try {
+ *     // read, check and save the reservation
+ * } finally {
+ *     lock.unlock();
+ * }
+ * </pre>
+ *
+ * @see ReservationService
+ * @since 1.0
+ */
+public final class StripedLocks {
+
+    /** Stripes per available processor in the default table. */
+    private static final int STRIPES_PER_CPU = 16;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * Creates a table with {@value #STRIPES_PER_CPU} stripes per available
+     * processor, rounded up to a power of two.
+     */
+    public StripedLocks() {
+        this(STRIPES_PER_CPU * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a table with at least {@code stripes} stripes.
+     *
+     * @param stripes the minimum number of stripes; rounded up to a power of two
+     * @throws IllegalArgumentException if {@code stripes} is not positive or too large
+     */
+    public StripedLocks(int stripes) {
+        if (stripes <= 0 || stripes > 1 << 30) {
+            throw new IllegalArgumentException("Stripes must be between 1 and 2^30: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /** @return the number of stripes */
+    public int size() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the stripe index of a reservation ID.
+     *
+     * @param id the reservation ID
+     * @return the index, in {@code [0, size())}
+     */
+    public int stripeOf(long id) {
+        // Fibonacci hashing; sequential IDs land on well spread stripes.
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the lock guarding a reservation ID.
+     *
+     * @param id the reservation ID
+     * @return the stripe's lock
+     */
+    public ReentrantLock lockFor(long id) {
+        return stripes[stripeOf(id)];
+    }
+
+    /**
+     * Returns the distinct locks guarding several reservation IDs, in stripe
+     * order. Callers that need more than one stripe must lock them in this
+     * order, so that two of them can never wait for each other.
+     *
+     * @param ids the reservation IDs; may repeat or share stripes
+     * @return the locks to take, in order
+     */
+    public List<ReentrantLock> locksFor(long[] ids) {
+        BitSet needed = new BitSet(stripes.length);
+        for (long id : ids) {
+            needed.set(stripeOf(id));
+        }
+        List<ReentrantLock> locks = new ArrayList<>(needed.cardinality());
+        for (int i = needed.nextSetBit(0); i >= 0; i = needed.nextSetBit(i + 1)) {
+            locks.add(stripes[i]);
+        }
+        return locks;
+    }
+}
@@ -3,7 +3,10 @@ package com.bookingmx.reservations.steps;
 import com.bookingmx.reservations.dto.ReservationRequest;
 import com.bookingmx.reservations.exception.ApiExceptionHandler;
 import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.exception.InvalidRequestException;
 import com.bookingmx.reservations.exception.NotFoundException;
+import com.bookingmx.reservations.exception.PreconditionFailedException;
 import com.bookingmx.reservations.service.ReservationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -16,7 +19,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -67,9 +72,66 @@ public class ApiExceptionHandlerTest {
                 .andExpect(jsonPath("$.timestamp").exists());
     }
 
+    @Test
+    void createReservation_invalidRequestException_returns400WithEveryViolation() throws Exception {
+        when(service.create(any())).thenThrow(new InvalidRequestException(
+                List.of("Guest name cannot be blank", "Check-out must be after check-in")));
+
+        ReservationRequest req = new ReservationRequest();
+        req.setGuestName(" ");
+        req.setHotelName("Hotel A");
+        req.setCheckIn(LocalDate.now().plusDays(2));
+        req.setCheckOut(LocalDate.now().plusDays(1));
+
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.violations.length()").value(2))
+                .andExpect(jsonPath("$.violations[1]").value("Check-out must be after check-in"))
+                .andExpect(jsonPath("$.timestamp").exists());
+    }
+
+    @Test
+    void createReservation_conflictException_returns409() throws Exception {
+        when(service.create(any())).thenThrow(new ConflictException("No rooms available at Hotel A"));
+
+        ReservationRequest req = new ReservationRequest();
+        req.setGuestName("John");
+        req.setHotelName("Hotel A");
+        req.setCheckIn(LocalDate.now().plusDays(1));
+        req.setCheckOut(LocalDate.now().plusDays(2));
+
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.message").value("No rooms available at Hotel A"))
+                .andExpect(jsonPath("$.timestamp").exists());
+    }
+
+    @Test
+    void unreadableParameterOrBody_returns400WithoutCallingTheService() throws Exception {
+        mockMvc.perform(get("/api/reservations").param("limit", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Invalid value for parameter 'limit'"));
+        mockMvc.perform(get("/api/reservations/overlapping").param("from", "2099-01-01").param("to", "2099-01-02"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Missing required parameter 'hotel'"));
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"checkIn\": \"soon\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Malformed request body"));
+        verifyNoInteractions(service);
+    }
+
     @Test
     void updateReservation_genericException_returns500() throws Exception {
-        when(service.update(any(), any())).thenThrow(new RuntimeException("Unexpected error"));
+        when(service.update(any(), any(), any())).thenThrow(new RuntimeException("Unexpected error"));
 
         ReservationRequest req = new ReservationRequest();
         req.setGuestName("Alice");
@@ -88,7 +150,7 @@ public class ApiExceptionHandlerTest {
 
     @Test
     void cancelReservation_notFoundException_returns404() throws Exception {
-        when(service.cancel(1L)).thenThrow(new NotFoundException("Reservation not found"));
+        when(service.cancel(1L, null)).thenThrow(new NotFoundException("Reservation not found"));
 
         mockMvc.perform(delete("/api/reservations/1"))
                 .andExpect(status().isNotFound())
@@ -96,4 +158,52 @@ public class ApiExceptionHandlerTest {
                 .andExpect(jsonPath("$.message").value("Reservation not found"))
                 .andExpect(jsonPath("$.timestamp").exists());
     }
+
+    @Test
+    void updateReservation_preconditionFailedException_returns412() throws Exception {
+        when(service.update(eq(1L), any(), eq(3L))).thenThrow(new PreconditionFailedException("Reservation has been modified"));
+
+        ReservationRequest req = new ReservationRequest();
+        req.setGuestName("Alice");
+        req.setHotelName("Hotel B");
+        req.setCheckIn(LocalDate.now().plusDays(2));
+        req.setCheckOut(LocalDate.now().plusDays(4));
+
+        mockMvc.perform(put("/api/reservations/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412))
+                .andExpect(jsonPath("$.message").value("Reservation has been modified"))
+                .andExpect(jsonPath("$.timestamp").exists());
+    }
+
+    @Test
+    void cancelReservation_weakIfMatch_returns412() throws Exception {
+        mockMvc.perform(delete("/api/reservations/1").header("If-Match", "W/\"3\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void errorBody_escapesTheMessage() throws Exception {
+        when(service.findById(2L)).thenThrow(new ConflictException("Hotel \"Sol\" is full\n"));
+
+        mockMvc.perform(get("/api/reservations/2"))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.message").value("Hotel \"Sol\" is full\n"))
+                .andExpect(jsonPath("$.timestamp").isString());
+    }
+
+    @Test
+    void domainExceptions_haveNoStackTrace() {
+        assertEquals(0, new NotFoundException("Reservation not found").getStackTrace().length);
+        assertEquals(0, new BadRequestException("Invalid dates").getStackTrace().length);
+        assertEquals(0, new ConflictException("Conflict").getStackTrace().length);
+        assertEquals(0, new PreconditionFailedException("Modified").getStackTrace().length);
+    }
 }
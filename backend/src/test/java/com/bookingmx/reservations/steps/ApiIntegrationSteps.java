@@ -11,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,11 +24,19 @@ public class ApiIntegrationSteps extends CucumberSpringContextConfig{
     private final CommonSteps commonSteps;
     @Autowired
     private ObjectMapper objectMapper;
+    private long taggedId;
+    private String etag;
+    private String previousEtag;
 
     public ApiIntegrationSteps(CommonSteps commonSteps) {
         this.commonSteps = commonSteps;
     }
 
+    /** A date relative to today, so the stays stay in the future. */
+    private static String inDays(int days) {
+        return LocalDate.now().plusDays(days).toString();
+    }
+
     @Given("The API is running")
     public void theApiIsRunning(){
         Assert.assertNotNull(mockMvc);
@@ -39,10 +48,10 @@ public class ApiIntegrationSteps extends CucumberSpringContextConfig{
             {
               "guestName": "John Doe",
               "hotelName": "Grand Sunset Resort",
-              "checkIn": "2025-12-20",
-              "checkOut": "2025-12-25"
+              "checkIn": "%s",
+              "checkOut": "%s"
             }
-        """;
+        """.formatted(inDays(30), inDays(35));
         result = mockMvc.perform(post("/api/reservations")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(json))
@@ -57,6 +66,116 @@ public class ApiIntegrationSteps extends CucumberSpringContextConfig{
         commonSteps.setResult(result);
     }
 
+    @When("I call GET reservations endpoint with hotel {string}")
+    public void iCallGetApiReservationsByHotel(String hotel) throws Exception{
+        result = mockMvc.perform(get("/api/reservations").param("hotel", hotel))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @When("I call GET reservations endpoint with limit {int} after {int}")
+    public void iCallGetApiReservationsPage(int limit, int after) throws Exception{
+        result = mockMvc.perform(get("/api/reservations")
+                        .param("limit", String.valueOf(limit))
+                        .param("after", String.valueOf(after)))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @When("I call GET {string}")
+    public void iCallGet(String uri) throws Exception{
+        result = mockMvc.perform(get(uri))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @When("I call POST {string} with body {string}")
+    public void iCallPostWithBody(String uri, String body) throws Exception{
+        result = mockMvc.perform(post(uri)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @Then("the error message must be {string}")
+    public void theErrorMessageMustBe(String message) throws Exception {
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        Assert.assertEquals(message, body.path("message").asText());
+    }
+
+    @Then("the response must have a next cursor")
+    public void theResponseMustHaveANextCursor() {
+        if (result.getResponse().getHeader("X-Next-Cursor") == null) {
+            throw new AssertionError("Expected an X-Next-Cursor header");
+        }
+    }
+
+    @When("I call GET reservations export endpoint")
+    public void iCallGetApiReservationsExport() throws Exception{
+        MvcResult started = mockMvc.perform(get("/api/reservations/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result = mockMvc.perform(asyncDispatch(started))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @Then("every line of the response must be a reservation in ascending id order")
+    public void everyLineOfTheResponseMustBeAReservation() throws Exception{
+        String content = result.getResponse().getContentAsString();
+        if (content.isEmpty() || !content.endsWith("\n")) {
+            throw new AssertionError("Expected newline-terminated JSON lines but got " + content);
+        }
+        long previousId = 0;
+        for (String line : content.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            if (!line.startsWith("{") || !node.isObject() || node.get("id").asLong() <= previousId) {
+                throw new AssertionError("Unexpected export line " + line);
+            }
+            previousId = node.get("id").asLong();
+        }
+    }
+
+    @When("I call GET reservation changes endpoint since {long}")
+    public void iCallGetApiReservationChanges(long since) throws Exception{
+        result = mockMvc.perform(get("/api/reservations/changes").param("since", String.valueOf(since)))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @When("I call GET reservation changes endpoint since the returned version")
+    public void iCallGetApiReservationChangesSinceReturnedVersion() throws Exception{
+        long version = objectMapper.readTree(result.getResponse().getContentAsString()).get("version").asLong();
+        iCallGetApiReservationChanges(version);
+    }
+
+    @Then("the changes response must contain {int} reservations or more")
+    public void theChangesResponseMustContainAtLeast(int count) throws Exception{
+        JsonNode node = objectMapper.readTree(result.getResponse().getContentAsString());
+        if (node.get("version").asLong() < 1 || node.get("reservations").size() < count) {
+            throw new AssertionError("Expected at least " + count + " changes but got " + node);
+        }
+    }
+
+    @Then("the changes response must contain no reservations")
+    public void theChangesResponseMustBeEmpty() throws Exception{
+        JsonNode node = objectMapper.readTree(result.getResponse().getContentAsString());
+        if (node.get("reservations").size() != 0) {
+            throw new AssertionError("Expected no changes but got " + node);
+        }
+    }
+
+    @When("I call GET overlapping reservations endpoint with hotel {string}, from {string}, to {string}")
+    public void iCallGetApiReservationsOverlapping(String hotel, String from, String to) throws Exception{
+        result = mockMvc.perform(get("/api/reservations/overlapping")
+                        .param("hotel", hotel)
+                        .param("from", from)
+                        .param("to", to))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
     @Then("the response must be an array with {int} reservations")
     public void theResponseMustBeAnArrayWithOneReservation(int numberOfReservations) throws Exception{
         String content = result.getResponse().getContentAsString();
@@ -93,10 +212,10 @@ public class ApiIntegrationSteps extends CucumberSpringContextConfig{
             {
               "guestName": "Doe John ",
               "hotelName": "Grand Moon Resort",
-              "checkIn": "2025-12-25",
-              "checkOut": "2025-12-31"
+              "checkIn": "%s",
+              "checkOut": "%s"
             }
-        """;
+        """.formatted(inDays(35), inDays(41));
         result = mockMvc.perform(put("/api/reservations/" + id)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(json))
@@ -128,4 +247,143 @@ public class ApiIntegrationSteps extends CucumberSpringContextConfig{
         commonSteps.setResult(result);
     }
 
+    @Then("the response must have an ETag")
+    public void theResponseMustHaveAnETag() throws Exception {
+        etag = result.getResponse().getHeader("ETag");
+        Assert.assertNotNull("missing ETag", etag);
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        Assert.assertEquals("\"" + body.get("version").asLong() + "\"", etag);
+        taggedId = body.get("id").asLong();
+    }
+
+    @When("I call UPDATE on that reservation with its ETag")
+    public void iCallUpdateWithItsETag() throws Exception {
+        updateIfMatch(etag);
+        previousEtag = etag;
+        etag = result.getResponse().getHeader("ETag");
+    }
+
+    @When("I call UPDATE on that reservation with its previous ETag")
+    public void iCallUpdateWithItsPreviousETag() throws Exception {
+        updateIfMatch(previousEtag);
+    }
+
+    @When("I create a batch of reservations at {string} where the second has check-out before check-in")
+    public void iCreateABatchOfReservations(String hotel) throws Exception {
+        String json = """
+            [
+              { "guestName": "Luis", "hotelName": "%1$s", "checkIn": "2099-05-01", "checkOut": "2099-05-03" },
+              { "guestName": "Rosa", "hotelName": "%1$s", "checkIn": "2099-05-05", "checkOut": "2099-05-04" },
+              { "guestName": "Eva", "hotelName": "%1$s", "checkIn": "2099-05-06", "checkOut": "2099-05-08" }
+            ]
+        """.formatted(hotel);
+        result = mockMvc.perform(post("/api/reservations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @Then("the batch response must report {int} created and {int} failed")
+    public void theBatchResponseMustReport(int created, int failed) throws Exception {
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        Assert.assertEquals(created, body.get("created").asInt());
+        Assert.assertEquals(failed, body.get("failed").asInt());
+    }
+
+    @Then("the batch item {int} must have status {int}")
+    public void theBatchItemMustHaveStatus(int index, int status) throws Exception {
+        JsonNode item = objectMapper.readTree(result.getResponse().getContentAsString()).get("results").get(index);
+        Assert.assertEquals(status, item.get("status").asInt());
+        Assert.assertTrue(item.has("error"));
+        Assert.assertFalse(item.has("reservation"));
+    }
+
+    @Then("the created batch reservations must have consecutive ids")
+    public void theCreatedBatchReservationsMustHaveConsecutiveIds() throws Exception {
+        JsonNode results = objectMapper.readTree(result.getResponse().getContentAsString()).get("results");
+        long first = results.get(0).get("reservation").get("id").asLong();
+        Assert.assertEquals(first + 1, results.get(2).get("reservation").get("id").asLong());
+    }
+
+    @When("I call GET reservations endpoint with ids of that reservation and {long}")
+    public void iCallGetReservationsWithIds(long otherId) throws Exception {
+        result = mockMvc.perform(get("/api/reservations").param("ids", taggedId + "," + otherId))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @Then("the lookup response must contain that reservation and miss id {long}")
+    public void theLookupResponseMustContainThatReservation(long missingId) throws Exception {
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        Assert.assertEquals(1, body.get("reservations").size());
+        Assert.assertEquals(taggedId, body.get("reservations").get(0).get("id").asLong());
+        Assert.assertEquals(1, body.get("missing").size());
+        Assert.assertEquals(missingId, body.get("missing").get(0).asLong());
+    }
+
+    @When("I create a Reservation for {string} at {string} with Idempotency-Key {string}")
+    public void iCreateAReservationWithIdempotencyKey(String guest, String hotel, String key) throws Exception {
+        String json = """
+            { "guestName": "%s", "hotelName": "%s", "checkIn": "2099-07-01", "checkOut": "2099-07-03" }
+        """.formatted(guest, hotel);
+        result = mockMvc.perform(post("/api/reservations")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @Then("the response must be that reservation at the same ETag")
+    public void theResponseMustBeThatReservationAtTheSameETag() throws Exception {
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        Assert.assertEquals(taggedId, body.get("id").asLong());
+        Assert.assertEquals(etag, result.getResponse().getHeader("ETag"));
+    }
+
+    @When("I reset the latency metrics")
+    public void iResetTheLatencyMetrics() throws Exception {
+        result = mockMvc.perform(delete("/internal/metrics"))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @When("I call GET latency metrics from {string}")
+    public void iCallGetLatencyMetricsFrom(String address) throws Exception {
+        result = mockMvc.perform(get("/internal/metrics").with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                }))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
+
+    @Then("the latency metrics must count {int} {string} for {string}")
+    public void theLatencyMetricsMustCount(int count, String outcome, String operation) throws Exception {
+        MvcResult metrics = mockMvc.perform(get("/internal/metrics"))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode snapshot = objectMapper.readTree(metrics.getResponse().getContentAsString())
+                .path(operation).path(outcome);
+        Assert.assertEquals(count, snapshot.path("count").asInt());
+        Assert.assertTrue(snapshot.path("p99").asLong() <= snapshot.path("max").asLong());
+    }
+
+    private void updateIfMatch(String ifMatch) throws Exception {
+        String json = """
+            {
+              "guestName": "Ana Maria",
+              "hotelName": "Hotel Zapopan",
+              "checkIn": "2099-04-11",
+              "checkOut": "2099-04-13"
+            }
+        """;
+        result = mockMvc.perform(put("/api/reservations/" + taggedId)
+                .header("If-Match", ifMatch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andReturn();
+        commonSteps.setResult(result);
+    }
 }
@@ -0,0 +1,94 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.repo.ConcurrentLongMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentLongMapTest {
+
+    @Test
+    void putAndGet_roundTripAndReplace() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+
+        assertNull(map.put(1L, "a"));
+        assertEquals("a", map.put(1L, "b"));
+        assertEquals("b", map.get(1L));
+        assertNull(map.get(2L));
+        assertNull(map.get(0L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void put_rejectsReservedKeyAndNullValue() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, "a"));
+        assertThrows(NullPointerException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void growsPastInitialCapacity_andIteratesEveryValue() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        for (long k = 1; k <= 100_000; k++) {
+            map.put(k, k);
+        }
+        map.put(-5L, -5L);
+
+        assertEquals(100_001, map.size());
+        for (long k = 1; k <= 100_000; k++) {
+            assertEquals(k, map.get(k));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        for (Iterator<Long> it = map.valueIterator(); it.hasNext(); ) {
+            seen.add(it.next());
+        }
+        assertEquals(100_001, seen.size());
+
+        Set<Long> visited = new HashSet<>();
+        map.forEachValue(visited::add);
+        assertEquals(seen, visited);
+    }
+
+    @Test
+    void concurrentWriters_andReaders_seeEveryEntry() throws Exception {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads * 2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long base = (long) t * perThread;
+            futures.add(pool.submit(() -> {
+                for (long k = base + 1; k <= base + perThread; k++) {
+                    map.put(k, k);
+                }
+            }));
+            futures.add(pool.submit(() -> {
+                for (long k = base + 1; k <= base + perThread; k++) {
+                    Long v = map.get(k);
+                    assertTrue(v == null || v == k);
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        assertEquals(threads * perThread, map.size());
+        for (long k = 1; k <= (long) threads * perThread; k++) {
+            assertEquals(k, map.get(k));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.HotelActorMutationExecutor;
+import com.bookingmx.reservations.service.ReservationEventBus;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bookingmx.reservations.steps.ReservationFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotelActorMutationExecutorTest {
+
+    @Test
+    void mutationsOfOneHotel_neverOverlap() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        AtomicInteger running = new AtomicInteger();
+        int[] applied = new int[1];
+        try (HotelActorMutationExecutor mutations = new HotelActorMutationExecutor(new ReservationRepository())) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> callers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    callers.add(pool.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            mutations.execute("Hotel Actor", () -> {
+                                assertEquals(1, running.incrementAndGet(), "two mutations of one hotel overlapped");
+                                applied[0]++;
+                                return running.decrementAndGet();
+                            });
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> f : callers) {
+                    f.get();
+                }
+            } finally {
+                pool.shutdown();
+            }
+            assertEquals(1, mutations.mailboxes());
+        }
+        assertEquals(threads * perThread, applied[0]);
+    }
+
+    @Test
+    void differentHotels_runAtTheSameTime() throws Exception {
+        try (HotelActorMutationExecutor mutations = new HotelActorMutationExecutor(new ReservationRepository())) {
+            CountDownLatch bothRunning = new CountDownLatch(2);
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            try {
+                List<Future<Boolean>> callers = new ArrayList<>();
+                for (String hotel : List.of("Hotel A", "Hotel B")) {
+                    callers.add(pool.submit(() -> mutations.execute(hotel, () -> {
+                        bothRunning.countDown();
+                        try {
+                            return bothRunning.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })));
+                }
+                for (Future<Boolean> f : callers) {
+                    assertTrue(f.get(), "one hotel waited for the other");
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void serviceErrors_reachTheCaller_andClosedExecutorRejectsMutations() {
+        ReservationRepository repo = new ReservationRepository();
+        HotelActorMutationExecutor mutations = new HotelActorMutationExecutor(repo);
+        ReservationService service = new ReservationService(repo, new RoomInventory(1, Map.of()),
+                new ReservationEventBus(), mutations);
+
+        long id = service.create(request("Hotel Tiny", 0, 2)).getId();
+        assertThrows(ConflictException.class, () -> service.create(request("Hotel Tiny", 1, 3)));
+        assertEquals(BASE.plusDays(5), service.update(id, request("Hotel Other", 5, 6)).getCheckIn());
+        assertFalse(service.cancel(id).isActive());
+
+        mutations.close();
+        assertThrows(IllegalStateException.class, () -> service.create(request("Hotel Tiny", 5, 6)));
+    }
+}
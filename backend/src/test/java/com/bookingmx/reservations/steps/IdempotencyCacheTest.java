@@ -0,0 +1,119 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.service.IdempotencyCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private String run() {
+        return "result-" + runs.incrementAndGet();
+    }
+
+    @Test
+    void replay_returnsTheFirstResultWithoutRunningAgain() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(Duration.ofMinutes(1), 10, now::get);
+        assertEquals("result-1", cache.execute("k", "body", this::run));
+        assertEquals("result-1", cache.execute("k", "body", this::run));
+        assertEquals(1, runs.get());
+        assertEquals("result-2", cache.execute("other", "body", this::run));
+    }
+
+    @Test
+    void keyReusedForAnotherRequest_isAConflict() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(Duration.ofMinutes(1), 10, now::get);
+        cache.execute("k", "body", this::run);
+        assertThrows(ConflictException.class, () -> cache.execute("k", "other body", this::run));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void malformedKeys_areRejected() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>();
+        assertThrows(BadRequestException.class, () -> cache.execute(" ", "body", this::run));
+        assertThrows(BadRequestException.class,
+                () -> cache.execute("k".repeat(IdempotencyCache.MAX_KEY_LENGTH + 1), "body", this::run));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void expiredResult_isComputedAgain() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(Duration.ofSeconds(10), 10, now::get);
+        cache.execute("k", "body", this::run);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertEquals("result-1", cache.execute("k", "body", this::run));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals("result-2", cache.execute("k", "other body", this::run));
+    }
+
+    @Test
+    void failure_isNotRemembered() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(Duration.ofMinutes(1), 10, now::get);
+        assertThrows(IllegalStateException.class, () -> cache.execute("k", "body", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(0, cache.size());
+        assertEquals("result-1", cache.execute("k", "body", this::run));
+    }
+
+    @Test
+    void size_neverExceedsTheMaximum_andRecentKeysSurvive() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(Duration.ofMinutes(1), 64, now::get);
+        cache.execute("hot", "body", this::run);
+        for (int i = 0; i < 10_000; i++) {
+            cache.execute("key-" + i, "body", this::run);
+            cache.execute("hot", "body", this::run);
+            assertTrue(cache.size() <= 64);
+        }
+        assertEquals("result-1", cache.execute("hot", "body", this::run));
+    }
+
+    @Test
+    void concurrentRetries_runTheActionOnce() throws Exception {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(Duration.ofMinutes(1), 10, now::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<String> first = pool.submit(() -> cache.execute("k", "body", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return run();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<String>> retries = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                retries.add(pool.submit(() -> cache.execute("k", "body", this::run)));
+            }
+            release.countDown();
+            assertEquals("result-1", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> retry : retries) {
+                assertEquals("result-1", retry.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, runs.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.exception.InvalidRequestException;
+import com.bookingmx.reservations.exception.NotFoundException;
+import com.bookingmx.reservations.service.LatencyHistogram;
+import com.bookingmx.reservations.service.LatencyMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void percentiles_areWithinTheBucketPrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 1_000_000; v++) {
+            h.record(v * 1_000);
+        }
+        LatencyHistogram.Snapshot s = h.snapshot();
+        assertEquals(1_000_000, s.count());
+        assertWithin(500_000_000L, s.p50());
+        assertWithin(900_000_000L, s.p90());
+        assertWithin(990_000_000L, s.p99());
+        assertWithin(999_000_000L, s.p999());
+        assertEquals(1_000_000_000L, s.max());
+    }
+
+    @Test
+    void smallValues_areExactAndLargeOnesAreCapped() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(-5);
+        h.record(7);
+        h.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot s = h.snapshot();
+        assertEquals(3, s.count());
+        assertEquals(7, s.p50());
+        assertEquals(LatencyHistogram.MAX_VALUE, s.p999());
+        assertEquals(LatencyHistogram.MAX_VALUE, s.max());
+    }
+
+    @Test
+    void reset_forgetsEverything() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(1_234);
+        h.reset();
+        assertEquals(new LatencyHistogram.Snapshot(0, 0, 0, 0, 0, 0), h.snapshot());
+    }
+
+    @Test
+    void metrics_areKeptByOperationAndOutcome() {
+        LatencyMetrics metrics = new LatencyMetrics();
+        LatencyMetrics.Timer timer = metrics.timer("ReservationService.update");
+        assertSame(timer, metrics.timer("ReservationService.update"));
+        timer.record(LatencyMetrics.Outcome.SUCCESS, 100);
+        timer.record(LatencyMetrics.Outcome.of(new InvalidRequestException(List.of("Guest name cannot be blank"))), 50);
+        timer.record(LatencyMetrics.Outcome.of(new NotFoundException("Reservation not found")), 10);
+        timer.record(LatencyMetrics.Outcome.of(new ConflictException("No rooms")), 10);
+        timer.record(LatencyMetrics.Outcome.of(new IllegalStateException()), 10);
+        timer.record(LatencyMetrics.Outcome.of(415), 10);
+
+        Map<String, LatencyHistogram.Snapshot> update = metrics.snapshot().get("ReservationService.update");
+        assertEquals(List.of("success", "400", "404", "409", "4xx", "500"), List.copyOf(update.keySet()));
+        assertEquals(100, update.get("success").max());
+
+        metrics.reset();
+        assertEquals(Map.of("ReservationService.update", Map.of()), metrics.snapshot());
+    }
+
+    @Test
+    void recording_isSafeFromManyThreads() throws InterruptedException {
+        LatencyHistogram h = new LatencyHistogram();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    h.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(800_000, h.snapshot().count());
+        assertEquals(99_999, h.snapshot().max());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 64,
+                () -> "expected " + actual + " within 1/64 above " + expected);
+    }
+}
@@ -0,0 +1,156 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.controller.ReservationEventsController;
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.ReservationEvent;
+import com.bookingmx.reservations.service.ReservationEventBus;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class ReservationEventsTest {
+
+    private ReservationEventBus bus;
+    private ReservationService service;
+    private ReservationEventsController controller;
+
+    @BeforeEach
+    void setup() {
+        bus = new ReservationEventBus();
+        service = new ReservationService(new ReservationRepository(), new RoomInventory(), bus);
+    }
+
+    @AfterEach
+    void teardown() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
+    private static ReservationRequest requestFor(String guest) {
+        ReservationRequest req = new ReservationRequest();
+        req.setGuestName(guest);
+        req.setHotelName("Hotel A");
+        req.setCheckIn(LocalDate.now().plusDays(1));
+        req.setCheckOut(LocalDate.now().plusDays(3));
+        return req;
+    }
+
+    private static List<ReservationEvent> drain(ReservationEventBus.Subscription subscription) {
+        List<ReservationEvent> events = new ArrayList<>();
+        for (ReservationEvent e; (e = subscription.poll()) != null; ) {
+            events.add(e);
+        }
+        return events;
+    }
+
+    @Test
+    void service_publishesCreateUpdateAndCancelInOrder() {
+        ReservationEventBus.Subscription subscription = bus.subscribe(16, () -> { });
+
+        Reservation r = service.create(requestFor("Ana"));
+        service.update(r.getId(), requestFor("Ana Maria"));
+        service.cancel(r.getId());
+        service.cancel(r.getId());
+
+        List<ReservationEvent> events = drain(subscription);
+        assertEquals(List.of(ReservationEvent.Type.CREATED, ReservationEvent.Type.UPDATED, ReservationEvent.Type.CANCELED),
+                events.stream().map(ReservationEvent::type).toList());
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(ReservationEvent::sequence).toList());
+        assertEquals("Ana", events.get(0).reservation().getGuestName());
+        assertEquals("Ana Maria", events.get(1).reservation().getGuestName());
+    }
+
+    @Test
+    void concurrentPublishers_areQueuedInSequenceOrderForEverySubscriber() throws InterruptedException {
+        ReservationEventBus.Subscription first = bus.subscribe(40_000, () -> { });
+        ReservationEventBus.Subscription second = bus.subscribe(40_000, () -> { });
+        Reservation r = new Reservation(1L, "Ana", "Hotel A", LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    bus.publish(ReservationEvent.Type.UPDATED, r);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        for (ReservationEventBus.Subscription s : List.of(first, second)) {
+            List<ReservationEvent> events = drain(s);
+            assertEquals(40_000, events.size());
+            for (int i = 0; i < events.size(); i++) {
+                assertEquals(i + 1, events.get(i).sequence());
+            }
+        }
+    }
+
+    @Test
+    void fullQueue_overflowsAndUnsubscribesOnlyThatSubscriber() {
+        AtomicInteger signals = new AtomicInteger();
+        ReservationEventBus.Subscription slow = bus.subscribe(2, signals::incrementAndGet);
+        ReservationEventBus.Subscription fast = bus.subscribe(16, () -> { });
+
+        for (int i = 0; i < 5; i++) {
+            service.create(requestFor("Guest " + i));
+        }
+
+        assertTrue(slow.isOverflowed());
+        assertFalse(slow.hasPending());
+        assertEquals(3, signals.get());
+        assertFalse(fast.isOverflowed());
+        assertEquals(5, drain(fast).size());
+        assertEquals(1, bus.subscriberCount());
+    }
+
+    @Test
+    void eventsEndpoint_streamsChanges() throws Exception {
+        controller = new ReservationEventsController(bus, 16, Duration.ofHours(1));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        MvcResult result = mockMvc.perform(get("/api/reservations/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        service.create(requestFor("Ana"));
+
+        String content = awaitContent(result.getResponse(), "\"guestName\":\"Ana\"");
+        assertTrue(content.startsWith(":connected"), content);
+        assertTrue(content.contains("event:created"), content);
+        assertTrue(content.contains("id:1"), content);
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            String content = response.getContentAsString();
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(10);
+        }
+        fail("Timed out waiting for " + expected + " in " + response.getContentAsString());
+        return null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.dto.ReservationRequest;
+
+import java.time.LocalDate;
+
+/**
+ * Requests shared by the service-level tests, dated relative to {@link #BASE}
+ * so that they always lie in the future.
+ */
+final class ReservationFixtures {
+
+    /** Day zero of the fixtures, safely after today. */
+    static final LocalDate BASE = LocalDate.now().plusDays(10);
+
+    private ReservationFixtures() {
+    }
+
+    /**
+     * @return a request for {@code guest} at {@code hotel} from day {@code fromDay} to day {@code toDay} after {@link #BASE}
+     */
+    static ReservationRequest request(String guest, String hotel, int fromDay, int toDay) {
+        ReservationRequest req = new ReservationRequest();
+        req.setGuestName(guest);
+        req.setHotelName(hotel);
+        req.setCheckIn(BASE.plusDays(fromDay));
+        req.setCheckOut(BASE.plusDays(toDay));
+        return req;
+    }
+
+    /**
+     * @return a request for a guest named {@code "Guest"}
+     */
+    static ReservationRequest request(String hotel, int fromDay, int toDay) {
+        return request("Guest", hotel, fromDay, toDay);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.controller.ReservationJsonCache;
+import com.bookingmx.reservations.dto.ReservationResponse;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.model.ReservationStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationJsonCacheTest {
+
+    private static final LocalDate BASE = LocalDate.of(2099, 3, 1);
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static Reservation reservation(long id, long version) {
+        return new Reservation(id, "Guest " + id, "Hotel Ajijic", BASE, BASE.plusDays(2),
+                ReservationStatus.ACTIVE, version);
+    }
+
+    private String plainJson(Reservation r) throws Exception {
+        return mapper.writeValueAsString(new ReservationResponse(r.getId(), r.getGuestName(), r.getHotelName(),
+                r.getCheckIn(), r.getCheckOut(), r.getStatus(), r.getVersion()));
+    }
+
+    @Test
+    void json_matchesJacksonAndIsReusedForTheSameVersion() throws Exception {
+        ReservationJsonCache cache = new ReservationJsonCache(mapper, 16);
+        Reservation r = reservation(1, 7);
+        byte[] first = cache.json(r);
+        assertEquals(plainJson(r), new String(first, StandardCharsets.UTF_8));
+        assertSame(first, cache.json(reservation(1, 7)));
+    }
+
+    @Test
+    void newVersion_replacesTheCachedJson() throws Exception {
+        ReservationJsonCache cache = new ReservationJsonCache(mapper, 16);
+        byte[] before = cache.json(reservation(1, 7));
+        Reservation canceled = reservation(1, 8).withStatus(ReservationStatus.CANCELED);
+        byte[] after = cache.json(canceled);
+        assertNotSame(before, after);
+        assertEquals(plainJson(canceled), new String(after, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void idsSharingASlot_eachGetTheirOwnJson() throws Exception {
+        ReservationJsonCache cache = new ReservationJsonCache(mapper, 1);
+        assertEquals(1, cache.slots());
+        for (long id = 1; id <= 3; id++) {
+            Reservation r = reservation(id, id);
+            assertEquals(plainJson(r), new String(cache.json(r), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void jsonArray_joinsTheObjects() throws Exception {
+        ReservationJsonCache cache = new ReservationJsonCache(mapper);
+        List<Reservation> page = List.of(reservation(1, 1), reservation(2, 2), reservation(3, 3));
+        assertEquals(mapper.writeValueAsString(List.of(mapper.readTree(plainJson(page.get(0))),
+                        mapper.readTree(plainJson(page.get(1))), mapper.readTree(plainJson(page.get(2))))),
+                new String(cache.jsonArray(page), StandardCharsets.UTF_8));
+        assertEquals("[]", new String(cache.jsonArray(List.of()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void slots_areRoundedUpToAPowerOfTwo() {
+        assertEquals(64, new ReservationJsonCache(mapper, 33).slots());
+        assertThrows(IllegalArgumentException.class, () -> new ReservationJsonCache(mapper, 0));
+    }
+}
@@ -0,0 +1,72 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.dto.ReservationJsonModule;
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.dto.ReservationResponse;
+import com.bookingmx.reservations.model.ReservationStatus;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationJsonModuleTest {
+
+    private final ObjectMapper plain = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper fast = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new ReservationJsonModule())
+            .build();
+
+    @Test
+    void response_isWrittenLikeTheBeanSerializer() throws Exception {
+        List<ReservationResponse> samples = List.of(
+                new ReservationResponse(1L, "Ana \"Quote\" D\u00edaz", "Hotel Ajijic",
+                        LocalDate.of(2099, 1, 9), LocalDate.of(2099, 12, 31), ReservationStatus.ACTIVE, 42L),
+                new ReservationResponse(2L, null, "Hotel Chapala",
+                        LocalDate.of(987, 2, 28), null, ReservationStatus.CANCELED, null),
+                new ReservationResponse(3L, "Bob", "Hotel Tapalpa",
+                        LocalDate.of(12345, 6, 1), LocalDate.of(2000, 2, 29), null, 7L));
+        for (ReservationResponse r : samples) {
+            assertEquals(plain.writeValueAsString(r), fast.writeValueAsString(r));
+        }
+        ObjectMapper timestamps = fast.copy().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        assertEquals(plain.copy().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(samples),
+                timestamps.writeValueAsString(samples));
+    }
+
+    @Test
+    void request_isReadLikeTheBeanDeserializer() throws Exception {
+        String json = """
+            { "guestName": "Ana", "extra": { "nested": [1, 2] }, "hotelName": "Hotel Ajijic",
+              "checkIn": "2099-02-28", "checkOut": [2099, 3, 2] }
+        """;
+        ObjectMapper lenient = fast.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ReservationRequest req = lenient.readValue(json, ReservationRequest.class);
+        assertEquals("Ana", req.getGuestName());
+        assertEquals("Hotel Ajijic", req.getHotelName());
+        assertEquals(LocalDate.of(2099, 2, 28), req.getCheckIn());
+        assertEquals(LocalDate.of(2099, 3, 2), req.getCheckOut());
+
+        ReservationRequest empty = fast.readValue("{\"guestName\": null, \"checkIn\": null}", ReservationRequest.class);
+        assertNull(empty.getGuestName());
+        assertNull(empty.getCheckIn());
+    }
+
+    @Test
+    void malformedRequests_failLikeTheBeanDeserializer() {
+        ObjectMapper strict = fast.copy().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        assertThrows(UnrecognizedPropertyException.class,
+                () -> strict.readValue("{\"roomNumber\": 4}", ReservationRequest.class));
+        assertThrows(InvalidFormatException.class,
+                () -> fast.readValue("{\"checkIn\": \"2099-02-30\"}", ReservationRequest.class));
+        assertThrows(InvalidFormatException.class,
+                () -> fast.readValue("{\"checkIn\": \"20x9-02-01\"}", ReservationRequest.class));
+    }
+}
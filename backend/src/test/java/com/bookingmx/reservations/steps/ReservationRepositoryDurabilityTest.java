@@ -0,0 +1,183 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.model.ReservationStatus;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationRepositoryDurabilityTest {
+
+    @TempDir
+    Path dataDir;
+
+    private static Reservation newReservation(String guest, String hotel) {
+        return new Reservation(null, guest, hotel, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+    }
+
+    @Test
+    void reopen_replaysSavedReservations() throws Exception {
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            repo.save(newReservation("John", "Hotel A"));
+            Reservation second = repo.save(newReservation("Jane", "Hotel B"));
+            repo.save(second.withStatus(ReservationStatus.CANCELED));
+        }
+
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            assertEquals(2, repo.findAll().size());
+            Reservation first = repo.findById(1L).orElseThrow();
+            assertEquals("John", first.getGuestName());
+            assertEquals("Hotel A", first.getHotelName());
+            assertEquals(LocalDate.now().plusDays(1), first.getCheckIn());
+            assertEquals(ReservationStatus.CANCELED, repo.findById(2L).orElseThrow().getStatus());
+
+            assertEquals(3L, repo.save(newReservation("Ann", "Hotel C")).getId());
+        }
+    }
+
+    @Test
+    void concurrentWriters_areAllRecovered() throws Exception {
+        int threads = 16;
+        int perThread = 200;
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        repo.save(newReservation("Guest " + thread + "-" + i, "Hotel " + thread));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            pool.shutdown();
+        }
+
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            assertEquals(threads * perThread, repo.findAll().size());
+        }
+    }
+
+    @Test
+    void tornTail_isDiscardedOnRecovery() throws Exception {
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            repo.save(newReservation("John", "Hotel A"));
+        }
+        Files.write(dataDir.resolve("reservations-0000000000000000000.wal"),
+                new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            assertEquals(1, repo.findAll().size());
+            repo.save(newReservation("Jane", "Hotel B"));
+        }
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            assertEquals("Jane", repo.findById(2L).orElseThrow().getGuestName());
+        }
+    }
+
+    @Test
+    void insertAll_assignsAContiguousBlock_andIsRecoveredAllOrNothing() throws Exception {
+        Path segment = dataDir.resolve("reservations-0000000000000000000.wal");
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            repo.save(newReservation("John", "Hotel A"));
+            List<Reservation> saved = repo.insertAll(List.of(
+                    newReservation("Ann", "Hotel B"), newReservation("Bob", "Hotel B"), newReservation("Cy", "Hotel C")));
+            assertEquals(List.of(2L, 3L, 4L), saved.stream().map(Reservation::getId).toList());
+            assertEquals(List.of(2L, 3L, 4L), saved.stream().map(Reservation::getVersion).toList());
+            assertEquals(2, repo.findByHotel("Hotel B").size());
+            assertThrows(IllegalArgumentException.class, () -> repo.insertAll(List.of(saved.get(0))));
+        }
+
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            assertEquals(4, repo.findAll().size());
+            assertEquals("Cy", repo.findById(4L).orElseThrow().getGuestName());
+        }
+
+        // Cut the batch frame short: none of its reservations may come back.
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            assertEquals(1, repo.findAll().size());
+            assertEquals(2L, repo.save(newReservation("Dee", "Hotel D")).getId());
+        }
+    }
+
+    @Test
+    void snapshot_recoversStoreAndLogTail() throws Exception {
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            for (int i = 0; i < 100; i++) {
+                repo.save(newReservation("Guest " + i, "Hotel A"));
+            }
+            repo.snapshot();
+            repo.save(repo.findById(5L).orElseThrow().withStatus(ReservationStatus.CANCELED));
+            repo.save(newReservation("After snapshot", "Hotel B"));
+        }
+
+        try (Stream<Path> files = Files.list(dataDir)) {
+            assertEquals(1, files.filter(f -> f.getFileName().toString().endsWith(".snap")).count());
+        }
+
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            assertEquals(101, repo.findAll().size());
+            assertEquals(ReservationStatus.CANCELED, repo.findById(5L).orElseThrow().getStatus());
+            assertEquals("After snapshot", repo.findById(101L).orElseThrow().getGuestName());
+            assertEquals(102L, repo.save(newReservation("Next", "Hotel C")).getId());
+        }
+    }
+
+    @Test
+    void reopen_keepsChangeVersions() throws Exception {
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            for (int i = 0; i < 10; i++) {
+                repo.save(newReservation("Guest " + i, "Hotel A"));
+            }
+            repo.snapshot();
+            repo.save(repo.findById(3L).orElseThrow().withStatus(ReservationStatus.CANCELED));
+        }
+
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            assertEquals(11L, repo.findById(3L).orElseThrow().getVersion());
+            assertEquals(10L, repo.findById(10L).orElseThrow().getVersion());
+            ReservationRepository.Changes changes = repo.findChangedSince(10);
+            assertEquals(List.of(3L), changes.items().stream().map(Reservation::getId).toList());
+            assertEquals(11L, changes.version());
+            assertEquals(12L, repo.save(newReservation("Next", "Hotel B")).getVersion());
+        }
+    }
+
+    @Test
+    void periodicSnapshots_keepOnlyTheLatest() throws Exception {
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir, Duration.ofMillis(20))) {
+            for (int i = 0; i < 50; i++) {
+                repo.save(newReservation("Guest " + i, "Hotel A"));
+                Thread.sleep(2);
+            }
+        }
+
+        try (Stream<Path> files = Files.list(dataDir)) {
+            assertTrue(files.filter(f -> f.getFileName().toString().endsWith(".snap")).count() <= 1);
+        }
+        try (ReservationRepository repo = ReservationRepository.durable(dataDir)) {
+            assertEquals(50, repo.findAll().size());
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.model.ReservationStatus;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationRepositoryQueryTest {
+
+    private static final LocalDate BASE = LocalDate.now().plusDays(10);
+
+    private ReservationRepository repo;
+
+    @BeforeEach
+    void setup() {
+        repo = new ReservationRepository();
+    }
+
+    private Reservation save(String hotel, int fromDay, int toDay) {
+        return repo.save(new Reservation(null, "Guest", hotel, BASE.plusDays(fromDay), BASE.plusDays(toDay)));
+    }
+
+    private static List<Long> ids(List<Reservation> reservations) {
+        return reservations.stream().map(Reservation::getId).toList();
+    }
+
+    @Test
+    void findByHotel_returnsOnlyThatHotel_inIdOrder() {
+        save("Hotel A", 0, 2);
+        save("Hotel B", 0, 2);
+        save("Hotel A", 1, 3);
+
+        assertEquals(List.of(1L, 3L), ids(repo.findByHotel("Hotel A")));
+        assertEquals(List.of(2L), ids(repo.findByHotel("Hotel B")));
+        assertTrue(repo.findByHotel("Hotel C").isEmpty());
+    }
+
+    @Test
+    void findByHotel_followsReservationsThatMoveHotel() {
+        Reservation r = save("Hotel A", 0, 2);
+        repo.save(r.withDetails(r.getGuestName(), "Hotel B", r.getCheckIn(), r.getCheckOut()));
+
+        assertTrue(repo.findByHotel("Hotel A").isEmpty());
+        assertEquals(List.of(1L), ids(repo.findByHotel("Hotel B")));
+    }
+
+    @Test
+    void findOverlapping_treatsStaysAndWindowAsHalfOpen() {
+        save("Hotel A", 0, 2);
+        save("Hotel A", 2, 4);
+        save("Hotel A", 4, 6);
+        save("Hotel B", 2, 4);
+
+        assertEquals(List.of(2L), ids(repo.findOverlapping("Hotel A", BASE.plusDays(2), BASE.plusDays(4))));
+        assertEquals(List.of(1L, 2L), ids(repo.findOverlapping("Hotel A", BASE.plusDays(1), BASE.plusDays(3))));
+        assertEquals(List.of(1L, 2L, 3L), ids(repo.findOverlapping("Hotel A", BASE, BASE.plusDays(10))));
+        assertTrue(repo.findOverlapping("Hotel C", BASE, BASE.plusDays(10)).isEmpty());
+    }
+
+    @Test
+    void findOverlapping_followsUpdatesAndCancellations() {
+        Reservation moved = save("Hotel A", 0, 2);
+        Reservation canceled = save("Hotel A", 0, 2);
+        repo.save(moved.withDetails(moved.getGuestName(), "Hotel A", BASE.plusDays(5), BASE.plusDays(7)));
+        repo.save(canceled.withStatus(ReservationStatus.CANCELED));
+
+        assertTrue(repo.findOverlapping("Hotel A", BASE, BASE.plusDays(2)).isEmpty());
+        assertEquals(List.of(1L), ids(repo.findOverlapping("Hotel A", BASE.plusDays(6), BASE.plusDays(7))));
+    }
+
+    @Test
+    void findOverlapping_matchesLinearScan() {
+        Random random = new Random(42);
+        String[] hotels = {"Hotel A", "Hotel B", "Hotel C"};
+        for (int i = 0; i < 2000; i++) {
+            int from = random.nextInt(365);
+            save(hotels[random.nextInt(hotels.length)], from, from + 1 + random.nextInt(14));
+        }
+        for (int i = 0; i < 500; i++) {
+            Reservation r = repo.findById(1L + random.nextInt(2000)).orElseThrow();
+            if (random.nextBoolean()) {
+                int from = random.nextInt(365);
+                repo.save(r.withDetails(r.getGuestName(), hotels[random.nextInt(hotels.length)],
+                        BASE.plusDays(from), BASE.plusDays(from + 1 + random.nextInt(14))));
+            } else {
+                repo.save(r.withStatus(ReservationStatus.CANCELED));
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String hotel = hotels[random.nextInt(hotels.length)];
+            LocalDate from = BASE.plusDays(random.nextInt(380));
+            LocalDate to = from.plusDays(1 + random.nextInt(30));
+            List<Long> expected = repo.findAll().stream()
+                    .filter(r -> r.isActive() && hotel.equals(r.getHotelName()))
+                    .filter(r -> r.getCheckIn().isBefore(to) && r.getCheckOut().isAfter(from))
+                    .sorted(Comparator.comparing(Reservation::getCheckIn).thenComparing(Reservation::getId))
+                    .map(Reservation::getId)
+                    .toList();
+            assertEquals(expected, ids(repo.findOverlapping(hotel, from, to)));
+        }
+    }
+
+    @Test
+    void findPage_walksEveryReservationOnceInIdOrder() {
+        for (int i = 0; i < 25; i++) {
+            save(i % 2 == 0 ? "Hotel A" : "Hotel B", 0, 2);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        long after = 0;
+        int pages = 0;
+        while (true) {
+            ReservationRepository.Page page = repo.findPage(null, after, 10);
+            seen.addAll(ids(page.items()));
+            pages++;
+            if (page.nextCursor() == null) {
+                break;
+            }
+            after = page.nextCursor();
+        }
+
+        assertEquals(3, pages);
+        assertEquals(ids(repo.findAll().stream().sorted(Comparator.comparing(Reservation::getId)).toList()), seen);
+    }
+
+    @Test
+    void findPage_lastFullPageHasNoCursor() {
+        for (int i = 0; i < 4; i++) {
+            save("Hotel A", 0, 2);
+        }
+
+        ReservationRepository.Page first = repo.findPage(null, 0, 2);
+        ReservationRepository.Page second = repo.findPage(null, first.nextCursor(), 2);
+
+        assertEquals(List.of(1L, 2L), ids(first.items()));
+        assertEquals(2L, first.nextCursor());
+        assertEquals(List.of(3L, 4L), ids(second.items()));
+        assertNull(second.nextCursor());
+        assertTrue(repo.findPage(null, 4, 2).items().isEmpty());
+    }
+
+    @Test
+    void findPage_skipsIdsAbandonedByFailedBatches() {
+        Reservation first = save("Hotel A", 0, 2);
+        repo.save(first.withStatus(ReservationStatus.CANCELED));
+        List<Reservation> batch = new ArrayList<>();
+        batch.add(first);
+        for (int i = 0; i < 100_000; i++) {
+            batch.add(new Reservation(null, "Guest", "Hotel A", BASE, BASE.plusDays(1)));
+        }
+        // first is stale, so the batch fails after taking its block of IDs.
+        assertTrue(repo.saveAllIfVersions(batch).isEmpty());
+        Reservation last = save("Hotel A", 0, 2);
+
+        ReservationRepository.Page page = repo.findPage(null, first.getId(), 1);
+
+        assertEquals(first.getId() + 100_001, last.getId());
+        assertEquals(List.of(last.getId()), ids(page.items()));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findPage_byHotel_followsTheHotelIndex() {
+        for (int i = 0; i < 10; i++) {
+            save(i % 3 == 0 ? "Hotel A" : "Hotel B", 0, 2);
+        }
+
+        ReservationRepository.Page first = repo.findPage("Hotel A", 0, 2);
+        ReservationRepository.Page second = repo.findPage("Hotel A", first.nextCursor(), 2);
+
+        assertEquals(List.of(1L, 4L), ids(first.items()));
+        assertEquals(List.of(7L, 10L), ids(second.items()));
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void findChangedSince_returnsEachChangedReservationOnceInVersionOrder() {
+        Reservation first = save("Hotel A", 0, 2);
+        save("Hotel A", 0, 2);
+        save("Hotel B", 0, 2);
+        first = repo.save(first.withStatus(ReservationStatus.CANCELED));
+
+        ReservationRepository.Changes all = repo.findChangedSince(0);
+        assertEquals(List.of(2L, 3L, 1L), ids(all.items()));
+        assertEquals(4L, all.version());
+        assertEquals(4L, first.getVersion());
+
+        ReservationRepository.Changes delta = repo.findChangedSince(2);
+        assertEquals(List.of(3L, 1L), ids(delta.items()));
+
+        ReservationRepository.Changes none = repo.findChangedSince(all.version());
+        assertTrue(none.items().isEmpty());
+        assertEquals(4L, none.version());
+    }
+
+    @Test
+    void findChangedSince_neverMissesConcurrentChanges() throws Exception {
+        int writers = 8;
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < writers; t++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 2000; i++) {
+                    if (i % 3 == 2) {
+                        repo.findById(1L + random.nextInt(i)).ifPresent(repo::save);
+                    } else {
+                        save("Hotel A", 0, 2);
+                    }
+                }
+            }));
+        }
+
+        Map<Long, Long> synced = new HashMap<>();
+        long since = 0;
+        try {
+            while (!done.get()) {
+                done.set(futures.stream().allMatch(Future::isDone));
+                ReservationRepository.Changes changes = repo.findChangedSince(since);
+                for (Reservation r : changes.items()) {
+                    synced.merge(r.getId(), r.getVersion(), Math::max);
+                }
+                assertTrue(changes.version() >= since);
+                since = changes.version();
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (Reservation r : repo.findChangedSince(since).items()) {
+            synced.merge(r.getId(), r.getVersion(), Math::max);
+        }
+        assertEquals(repo.findAll().size(), synced.size());
+        for (Reservation r : repo.findAll()) {
+            assertEquals(r.getVersion(), synced.get(r.getId()), "reservation " + r.getId());
+        }
+    }
+
+    @Test
+    void saveIfVersion_onlyReplacesTheExpectedVersion() {
+        Reservation r = save("Hotel A", 0, 2);
+        long read = r.getVersion();
+        Reservation first = new Reservation(r.getId(), "First", "Hotel B", BASE, BASE.plusDays(2));
+        Reservation second = new Reservation(r.getId(), "Second", "Hotel C", BASE, BASE.plusDays(2));
+
+        Reservation saved = repo.saveIfVersion(first, read).orElseThrow();
+        assertTrue(repo.saveIfVersion(second, read).isEmpty());
+
+        assertSame(saved, repo.findById(r.getId()).orElseThrow());
+        assertEquals("First", saved.getGuestName());
+        assertTrue(saved.getVersion() > read);
+        assertEquals(List.of(r.getId()), ids(repo.findByHotel("Hotel B")));
+        assertTrue(repo.findByHotel("Hotel C").isEmpty());
+    }
+
+    @Test
+    void saveIfVersion_missingReservation_isRejected() {
+        assertTrue(repo.saveIfVersion(new Reservation(99L, "Guest", "Hotel A", BASE, BASE.plusDays(1)), 1L).isEmpty());
+        assertTrue(repo.findById(99L).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> repo.saveIfVersion(new Reservation(null, "Guest", "Hotel A", BASE, BASE.plusDays(1)), 1L));
+    }
+
+    @Test
+    void findAllById_keepsRequestOrder_andCollectsMissingIds() {
+        Reservation a = save("Hotel A", 0, 2);
+        Reservation b = save("Hotel B", 1, 3);
+
+        ReservationRepository.Lookup lookup = repo.findAllById(List.of(b.getId(), 404L, a.getId(), 405L));
+        assertEquals(List.of(b.getId(), a.getId()), ids(lookup.found()));
+        assertEquals(List.of(404L, 405L), lookup.missing());
+    }
+
+    @Test
+    void saveAllIfVersions_writesAllOrNothing() {
+        Reservation a = save("Hotel A", 0, 2);
+        Reservation b = save("Hotel A", 1, 3);
+        Reservation created = new Reservation(null, "New", "Hotel B", BASE, BASE.plusDays(1));
+
+        List<Reservation> saved = repo.saveAllIfVersions(List.of(
+                a.withStatus(ReservationStatus.CANCELED), created, b.withDetails("Moved", "Hotel B", BASE, BASE.plusDays(1))))
+                .orElseThrow();
+        assertEquals(3, saved.size());
+        assertFalse(repo.findById(a.getId()).orElseThrow().isActive());
+        assertEquals(b.getId() + 1, saved.get(1).getId());
+        assertEquals(List.of(saved.get(1).getId(), b.getId()).stream().sorted().toList(), ids(repo.findByHotel("Hotel B")));
+
+        // b has moved on since it was read, so neither write may land.
+        assertTrue(repo.saveAllIfVersions(List.of(
+                saved.get(1).withStatus(ReservationStatus.CANCELED), b.withStatus(ReservationStatus.CANCELED))).isEmpty());
+        assertTrue(repo.findById(saved.get(1).getId()).orElseThrow().isActive());
+        assertThrows(IllegalArgumentException.class, () -> repo.saveAllIfVersions(List.of(saved.get(0), saved.get(0))));
+    }
+
+    @Test
+    void saveIfVersion_neverLosesConcurrentUpdates() throws Exception {
+        long id = repo.save(new Reservation(null, "0", "Hotel A", BASE, BASE.plusDays(1))).getId();
+        int threads = 16;
+        int incrementsPerThread = 500;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < incrementsPerThread; i++) {
+                        while (true) {
+                            Reservation current = repo.findById(id).orElseThrow();
+                            Reservation next = current.withDetails(Integer.toString(Integer.parseInt(current.getGuestName()) + 1),
+                                    current.getHotelName(), current.getCheckIn(), current.getCheckOut());
+                            if (repo.saveIfVersion(next, current.getVersion()).isPresent()) {
+                                break;
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(Integer.toString(threads * incrementsPerThread), repo.findById(id).orElseThrow().getGuestName());
+    }
+}
@@ -0,0 +1,96 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.exception.InvalidRequestException;
+import com.bookingmx.reservations.service.ReservationRequestValidator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationRequestValidatorTest {
+
+    private static final ZoneId ZONE = ZoneOffset.ofHours(-6);
+    private static final LocalDate TODAY = LocalDate.of(2099, 3, 10);
+
+    private static ReservationRequest request(String guest, String hotel, LocalDate in, LocalDate out) {
+        ReservationRequest req = new ReservationRequest();
+        req.setGuestName(guest);
+        req.setHotelName(hotel);
+        req.setCheckIn(in);
+        req.setCheckOut(out);
+        return req;
+    }
+
+    private static Clock at(LocalDate date, int hour) {
+        return Clock.fixed(date.atTime(hour, 0).atZone(ZONE).toInstant(), ZONE);
+    }
+
+    @Test
+    void validRequest_hasNoViolations() {
+        ReservationRequestValidator validator = new ReservationRequestValidator(at(TODAY, 12));
+        assertEquals(List.of(), validator.violations(request("Ana", "Hotel A", TODAY, TODAY.plusDays(1))));
+        validator.validate(request("Ana", "Hotel A", TODAY.plusDays(3), TODAY.plusDays(5)));
+    }
+
+    @Test
+    void everyViolation_isReportedAtOnce() {
+        ReservationRequestValidator validator = new ReservationRequestValidator(at(TODAY, 12));
+        InvalidRequestException e = assertThrows(InvalidRequestException.class,
+                () -> validator.validate(request(" ", null, TODAY.minusDays(1), TODAY.minusDays(2))));
+        assertEquals(List.of(
+                "Guest name cannot be blank",
+                "Hotel name cannot be blank",
+                "Check-out must be after check-in",
+                "Check-in must be in the future"), e.getViolations());
+        assertEquals(String.join("; ", e.getViolations()), e.getMessage());
+
+        assertEquals(List.of("Dates cannot be null"),
+                validator.violations(request("Ana", "Hotel A", null, null)));
+        assertEquals(List.of("Reservation cannot be null"), validator.violations(null));
+    }
+
+    @Test
+    void today_followsTheClockAcrossMidnight() {
+        MutableClock clock = new MutableClock(at(TODAY, 23).instant());
+        ReservationRequestValidator validator = new ReservationRequestValidator(clock);
+        ReservationRequest today = request("Ana", "Hotel A", TODAY, TODAY.plusDays(1));
+        assertTrue(validator.violations(today).isEmpty());
+
+        clock.now = at(TODAY.plusDays(1), 0).instant();
+        assertEquals(List.of("Check-in must be in the future"), validator.violations(today));
+
+        clock.now = at(TODAY, 8).instant();
+        assertTrue(validator.violations(today).isEmpty());
+    }
+
+    /** A clock whose instant the test moves. */
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.model.ReservationStatus;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test in the style of a jcstress test: writer actors keep replacing
+ * one reservation with one of two states that differ in every field, while
+ * reader actors read it through {@code findById} and {@code findAll} and
+ * record each observation as an outcome. The outcomes {@code A} and {@code B}
+ * are acceptable; {@code TORN}, a mix of fields from both states, is forbidden.
+ */
+public class ReservationSnapshotConsistencyTest {
+
+    private static final LocalDate BASE = LocalDate.now().plusDays(10);
+    private static final int WRITERS = 2;
+    private static final int READERS = 4;
+    private static final int SAVES_PER_WRITER = 100_000;
+
+    private static final Reservation STATE_A =
+            new Reservation(1L, "Guest A", "Hotel A", BASE, BASE.plusDays(2));
+    private static final Reservation STATE_B =
+            new Reservation(1L, "Guest B", "Hotel B", BASE.plusDays(5), BASE.plusDays(9))
+                    .withStatus(ReservationStatus.CANCELED);
+
+    private static String outcome(Reservation r) {
+        if (matches(r, STATE_A)) {
+            return "A";
+        }
+        if (matches(r, STATE_B)) {
+            return "B";
+        }
+        return "TORN";
+    }
+
+    private static boolean matches(Reservation r, Reservation state) {
+        return state.getGuestName().equals(r.getGuestName())
+                && state.getHotelName().equals(r.getHotelName())
+                && state.getCheckIn().equals(r.getCheckIn())
+                && state.getCheckOut().equals(r.getCheckOut())
+                && state.getStatus() == r.getStatus();
+    }
+
+    @Test
+    void concurrentReaders_neverSeeTornReservations() throws Exception {
+        ReservationRepository repo = new ReservationRepository();
+        repo.save(STATE_A);
+
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < SAVES_PER_WRITER; i++) {
+                        repo.save(i % 2 == 0 ? STATE_B : STATE_A);
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                boolean viaFindAll = r % 2 == 1;
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    long lastVersion = 0;
+                    while (writing.get()) {
+                        Reservation seen = viaFindAll ? repo.findAll().get(0) : repo.findById(1L).orElseThrow();
+                        outcomes.computeIfAbsent(outcome(seen), k -> new LongAdder()).increment();
+                        assertTrue(seen.getVersion() >= lastVersion, "versions went backwards");
+                        lastVersion = seen.getVersion();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : writers) {
+                f.get();
+            }
+            writing.set(false);
+            for (Future<?> f : readers) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertNull(outcomes.get("TORN"), "torn reads observed: " + outcomes);
+        assertNotNull(outcomes.get("A"), "outcome A never observed: " + outcomes);
+        assertNotNull(outcomes.get("B"), "outcome B never observed: " + outcomes);
+    }
+}
@@ -2,6 +2,7 @@ package com.bookingmx.reservations.steps;
 
 import com.bookingmx.reservations.dto.ReservationRequest;
 import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.NotFoundException;
 import com.bookingmx.reservations.model.Reservation;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -13,6 +14,8 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 public class ReservationTest {
 
@@ -95,17 +98,28 @@ public class ReservationTest {
 
     @Test
     void create_withCheckIn_null_throwsException() {
-        assertThrows(BadRequestException.class, () -> service.validateDates(null, LocalDate.now().plusDays(1)));
+        assertDatesCannotBeNull(null, LocalDate.now().plusDays(1));
     }
 
     @Test
     void create_withCheckOut_null_throwsException() {
-        assertThrows(BadRequestException.class, () -> service.validateDates(LocalDate.now().plusDays(1), null));
+        assertDatesCannotBeNull(LocalDate.now().plusDays(1), null);
     }
 
     @Test
     void create_withBothDates_null_throwsException() {
-        assertThrows(BadRequestException.class, () -> service.validateDates(null, null));
+        assertDatesCannotBeNull(null, null);
+    }
+
+    private void assertDatesCannotBeNull(LocalDate checkIn, LocalDate checkOut) {
+        ReservationRequest req = new ReservationRequest();
+        req.setGuestName("John");
+        req.setHotelName("Hotel A");
+        req.setCheckIn(checkIn);
+        req.setCheckOut(checkOut);
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> service.create(req));
+        assertEquals("Dates cannot be null", ex.getMessage());
     }
 
     @Test
@@ -120,18 +134,42 @@ public class ReservationTest {
         assertEquals("Check-out must be after check-in", ex.getMessage());
     }
 
+    @Test
+    void update_checksTheReservationBeforeTheBody() {
+        ReservationRequest invalid = new ReservationRequest();
+        invalid.setGuestName("John");
+        invalid.setHotelName("Hotel A");
+
+        assertThrows(NotFoundException.class, () -> service.update(99L, invalid));
+
+        Reservation canceled = new Reservation(1L, "John", "Hotel A",
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)).withStatus(ReservationStatus.CANCELED);
+        when(repo.findById(1L)).thenReturn(Optional.of(canceled));
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> service.update(1L, invalid));
+        assertEquals("Cannot update a canceled reservation", ex.getMessage());
+    }
+
+    @Test
+    void findByIds_looksUpEachIdOnce_andRejectsEmptyLists() {
+        ReservationRepository.Lookup lookup = new ReservationRepository.Lookup(List.of(), List.of(1L, 2L));
+        when(repo.findAllById(List.of(1L, 2L))).thenReturn(lookup);
+
+        assertSame(lookup, service.findByIds(List.of(1L, 2L, 1L)));
+        assertThrows(BadRequestException.class, () -> service.findByIds(List.of()));
+    }
+
     @Test
     void isActive_returnsTrue_whenStatusIsActive() {
-        Reservation r = new Reservation(1L, "John", "Hotel A", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
-        r.setStatus(ReservationStatus.ACTIVE);
+        Reservation r = new Reservation(1L, "John", "Hotel A", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2))
+                .withStatus(ReservationStatus.ACTIVE);
 
         assertTrue(r.isActive());
     }
 
     @Test
     void isActive_returnsFalse_whenStatusIsCanceled() {
-        Reservation r = new Reservation(1L, "John", "Hotel A", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
-        r.setStatus(ReservationStatus.CANCELED);
+        Reservation r = new Reservation(1L, "John", "Hotel A", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2))
+                .withStatus(ReservationStatus.CANCELED);
 
         assertFalse(r.isActive());
     }
@@ -144,19 +182,23 @@ public class ReservationTest {
     }
 
     @Test
-    void gettersAndSetters_workCorrectly() {
-        Reservation r = new Reservation(null, null, null, null, null);
+    void gettersAndWithers_workCorrectly() {
+        Reservation original = new Reservation(null, null, null, null, null);
 
-        r.setId(1L);
-        r.setGuestName("John");
-        r.setHotelName("Hotel A");
-        r.setCheckIn(LocalDate.now().plusDays(1));
-        r.setCheckOut(LocalDate.now().plusDays(2));
+        Reservation r = original
+                .withId(1L)
+                .withDetails("John", "Hotel A", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2))
+                .withVersion(7L);
 
         assertEquals(1L, r.getId());
         assertEquals("John", r.getGuestName());
         assertEquals("Hotel A", r.getHotelName());
         assertEquals(LocalDate.now().plusDays(1), r.getCheckIn());
         assertEquals(LocalDate.now().plusDays(2), r.getCheckOut());
+        assertEquals(ReservationStatus.ACTIVE, r.getStatus());
+        assertEquals(7L, r.getVersion());
+        assertNull(original.getId());
+        assertNull(original.getGuestName());
+        assertNull(original.getVersion());
     }
 }
@@ -0,0 +1,117 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.dto.ReservationOperation;
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.exception.PreconditionFailedException;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.bookingmx.reservations.steps.ReservationFixtures.*;
+import static com.bookingmx.reservations.dto.ReservationOperation.Type.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationTransactionTest {
+
+    private final ReservationRepository repo = new ReservationRepository();
+    private final RoomInventory inventory = new RoomInventory(1, Map.of());
+    private final ReservationService service = new ReservationService(repo, inventory);
+
+    @Test
+    void guestMovingBetweenHotels_isAppliedAsOneTransaction() {
+        Reservation ana = service.create(request("Ana", "Hotel A", 0, 2));
+
+        List<Reservation> results = service.applyAll(List.of(
+                new ReservationOperation(CANCEL, ana.getId(), ana.getVersion(), null),
+                new ReservationOperation(CREATE, null, null, request("Ana", "Hotel B", 0, 2))));
+
+        assertFalse(results.get(0).isActive());
+        assertEquals("Hotel B", results.get(1).getHotelName());
+        assertFalse(repo.findById(ana.getId()).orElseThrow().isActive());
+        assertEquals(0, inventory.booked("Hotel A", BASE));
+        assertEquals(1, inventory.booked("Hotel B", BASE));
+    }
+
+    @Test
+    void failedOperation_leavesEverythingAsItWas() {
+        Reservation ana = service.create(request("Ana", "Hotel A", 0, 2));
+        service.create(request("Bob", "Hotel Full", 0, 2));
+
+        ConflictException e = assertThrows(ConflictException.class, () -> service.applyAll(List.of(
+                new ReservationOperation(UPDATE, ana.getId(), null, request("Ana", "Hotel A", 1, 4)),
+                new ReservationOperation(CREATE, null, null, request("Cy", "Hotel Full", 1, 2)))));
+        assertTrue(e.getMessage().startsWith("Operation 1: "), e.getMessage());
+
+        Reservation stored = repo.findById(ana.getId()).orElseThrow();
+        assertEquals(ana.getVersion(), stored.getVersion());
+        assertEquals(BASE, stored.getCheckIn());
+        assertEquals(0, inventory.booked("Hotel A", BASE.plusDays(3)));
+        assertEquals(1, inventory.booked("Hotel A", BASE));
+        assertEquals(2, repo.findAll().size());
+    }
+
+    @Test
+    void staleVersion_failsTheTransaction() {
+        Reservation ana = service.create(request("Ana", "Hotel A", 0, 2));
+        Reservation bob = service.create(request("Bob", "Hotel B", 0, 2));
+        service.update(bob.getId(), request("Bob", "Hotel B", 3, 4));
+
+        assertThrows(PreconditionFailedException.class, () -> service.applyAll(List.of(
+                new ReservationOperation(CANCEL, ana.getId(), null, null),
+                new ReservationOperation(CANCEL, bob.getId(), bob.getVersion(), null))));
+        assertTrue(repo.findById(ana.getId()).orElseThrow().isActive());
+    }
+
+    @Test
+    void malformedTransactions_areRejected() {
+        Reservation ana = service.create(request("Ana", "Hotel A", 0, 2));
+        assertThrows(BadRequestException.class, () -> service.applyAll(List.of()));
+        assertThrows(BadRequestException.class, () -> service.applyAll(List.of(
+                new ReservationOperation(CANCEL, ana.getId(), null, null),
+                new ReservationOperation(UPDATE, ana.getId(), null, request("Ana", "Hotel A", 1, 3)))));
+        assertThrows(BadRequestException.class, () -> service.applyAll(List.of(
+                new ReservationOperation(UPDATE, ana.getId(), null, null))));
+        assertThrows(BadRequestException.class, () -> service.applyAll(List.of(
+                new ReservationOperation(CREATE, null, null, request("Ana", "Hotel A", 3, 2)))));
+    }
+
+    @Test
+    void transactionsOverlappingInOppositeOrder_doNotDeadlock() throws Exception {
+        RoomInventory roomy = new RoomInventory(Integer.MAX_VALUE, Map.of());
+        ReservationService big = new ReservationService(new ReservationRepository(), roomy);
+        long a = big.create(request("A", "Hotel A", 0, 2)).getId();
+        long b = big.create(request("B", "Hotel B", 0, 2)).getId();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long first = t % 2 == 0 ? a : b;
+                long second = t % 2 == 0 ? b : a;
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        big.applyAll(List.of(
+                                new ReservationOperation(UPDATE, first, null, request("X", "Hotel A", i % 3, 4)),
+                                new ReservationOperation(UPDATE, second, null, request("Y", "Hotel B", i % 3, 4))));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : workers) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(2, roomy.booked("Hotel A", BASE.plusDays(3)) + roomy.booked("Hotel B", BASE.plusDays(3)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.MutationExecutor;
+import com.bookingmx.reservations.service.ReservationEventBus;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RingBufferMutationExecutor;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bookingmx.reservations.steps.ReservationFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingBufferMutationExecutorTest {
+
+    @Test
+    void mutationsOfOneHotel_runOneAtATimeInSubmissionOrderPerCaller() throws Exception {
+        int threads = 8;
+        int perThread = 5_000;
+        AtomicInteger running = new AtomicInteger();
+        int[] lastSeen = new int[threads];
+        // A tiny ring so that callers also wait for free slots.
+        try (RingBufferMutationExecutor mutations = new RingBufferMutationExecutor(new ReservationRepository(), 2, 4)) {
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> callers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int caller = t;
+                    callers.add(pool.submit(() -> {
+                        start.await();
+                        for (int i = 1; i <= perThread; i++) {
+                            int seq = i;
+                            int result = mutations.execute("Hotel Ring", () -> {
+                                assertEquals(1, running.incrementAndGet(), "two mutations of one hotel overlapped");
+                                assertEquals(seq - 1, lastSeen[caller], "mutations applied out of order");
+                                lastSeen[caller] = seq;
+                                running.decrementAndGet();
+                                return seq;
+                            });
+                            assertEquals(seq, result);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> f : callers) {
+                    f.get();
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        for (int seen : lastSeen) {
+            assertEquals(perThread, seen);
+        }
+    }
+
+    @Test
+    void hotels_spreadOverPartitions_andNestedMutationsRunInline() {
+        try (RingBufferMutationExecutor mutations = new RingBufferMutationExecutor(new ReservationRepository(), 4, 8)) {
+            assertEquals(4, mutations.partitions());
+            assertEquals(mutations.partitionOf("Hotel A"), mutations.partitionOf("Hotel A"));
+            int[] perPartition = new int[4];
+            for (int i = 0; i < 400; i++) {
+                perPartition[mutations.partitionOf("Hotel " + i)]++;
+            }
+            for (int count : perPartition) {
+                assertTrue(count > 50, "uneven partitions: " + count);
+            }
+
+            assertEquals("inner", mutations.execute("Hotel A", () -> mutations.execute("Hotel A", () -> "inner")));
+        }
+    }
+
+    @Test
+    void serviceErrors_reachTheCaller_andClosedExecutorRejectsMutations() {
+        ReservationRepository repo = new ReservationRepository();
+        RingBufferMutationExecutor mutations = new RingBufferMutationExecutor(repo, 2, 16);
+        ReservationService service = new ReservationService(repo, new RoomInventory(1, Map.of()),
+                new ReservationEventBus(), mutations);
+
+        long id = service.create(request("Hotel Tiny", 0, 2)).getId();
+        assertThrows(ConflictException.class, () -> service.create(request("Hotel Tiny", 1, 3)));
+        service.cancel(id);
+        assertThrows(BadRequestException.class, () -> service.update(id, request("Hotel Tiny", 1, 3)));
+        assertEquals(id + 1, service.create(request("Hotel Tiny", 1, 3)).getId());
+
+        mutations.close();
+        assertThrows(IllegalStateException.class, () -> service.create(request("Hotel Tiny", 5, 6)));
+    }
+
+    @Test
+    void ringMode_inWalMode_persistsEveryAcknowledgedWrite(@TempDir Path dir) throws Exception {
+        int threads = 16;
+        int perThread = 200;
+        try (ReservationRepository repo = ReservationRepository.durable(dir, Duration.ZERO)) {
+            MutationExecutor mutations = new RingBufferMutationExecutor(repo, 2, 64);
+            ReservationService service = new ReservationService(repo, new RoomInventory(Integer.MAX_VALUE, Map.of()),
+                    new ReservationEventBus(), mutations);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> callers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    String hotel = "Hotel " + t;
+                    callers.add(pool.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            long id = service.create(request(hotel, 0, 2)).getId();
+                            if (i % 2 == 0) {
+                                service.cancel(id);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> f : callers) {
+                    f.get();
+                }
+            } finally {
+                pool.shutdown();
+                mutations.close();
+            }
+        }
+
+        try (ReservationRepository reopened = ReservationRepository.durable(dir, Duration.ZERO)) {
+            assertEquals(threads * perThread, reopened.findAll().size());
+            assertEquals(threads * perThread / 2,
+                    reopened.findAll().stream().filter(r -> r.isActive()).count());
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.dto.ReservationRequest;
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.exception.ConflictException;
+import com.bookingmx.reservations.exception.PreconditionFailedException;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RoomInventory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.bookingmx.reservations.steps.ReservationFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomInventoryTest {
+
+    private ReservationRepository repo;
+    private RoomInventory inventory;
+    private ReservationService service;
+
+    @BeforeEach
+    void setup() {
+        repo = new ReservationRepository();
+        inventory = new RoomInventory(2, Map.of("Hotel Small", 1));
+        service = new ReservationService(repo, inventory);
+    }
+
+    @Test
+    void create_whenAnyNightIsFull_throwsConflictAndBooksNothing() {
+        service.create(request("Hotel Small", 2, 3));
+
+        assertThrows(ConflictException.class, () -> service.create(request("Hotel Small", 0, 4)));
+        assertEquals(0, inventory.booked("Hotel Small", BASE));
+        assertEquals(0, inventory.booked("Hotel Small", BASE.plusDays(1)));
+        assertEquals(1, inventory.booked("Hotel Small", BASE.plusDays(2)));
+        assertEquals(1, repo.findAll().size());
+    }
+
+    @Test
+    void create_checkOutDayIsNotBooked() {
+        service.create(request("Hotel Small", 0, 2));
+
+        assertNotNull(service.create(request("Hotel Small", 2, 4)));
+    }
+
+    @Test
+    void cancel_releasesRoomsOnce() {
+        Reservation r = service.create(request("Hotel Small", 0, 2));
+        service.cancel(r.getId());
+        service.cancel(r.getId());
+
+        assertEquals(0, inventory.booked("Hotel Small", BASE));
+        assertNotNull(service.create(request("Hotel Small", 0, 2)));
+        assertThrows(ConflictException.class, () -> service.create(request("Hotel Small", 1, 2)));
+    }
+
+    @Test
+    void update_onlyNeedsRoomsForAddedNights() {
+        Reservation r = service.create(request("Hotel Small", 0, 2));
+        service.update(r.getId(), request("Hotel Small", 1, 3));
+
+        assertEquals(0, inventory.booked("Hotel Small", BASE));
+        assertEquals(1, inventory.booked("Hotel Small", BASE.plusDays(1)));
+        assertEquals(1, inventory.booked("Hotel Small", BASE.plusDays(2)));
+    }
+
+    @Test
+    void update_whenNewNightsAreFull_keepsOriginalStay() {
+        Reservation r = service.create(request("Hotel Small", 0, 2));
+        service.create(request("Hotel Small", 3, 4));
+
+        assertThrows(ConflictException.class, () -> service.update(r.getId(), request("Hotel Small", 2, 4)));
+        assertEquals(BASE, r.getCheckIn());
+        assertEquals(1, inventory.booked("Hotel Small", BASE));
+        assertEquals(0, inventory.booked("Hotel Small", BASE.plusDays(2)));
+    }
+
+    @Test
+    void update_toAnotherHotel_movesRooms() {
+        Reservation r = service.create(request("Hotel Small", 0, 2));
+        service.update(r.getId(), request("Hotel Big", 0, 2));
+
+        assertEquals(0, inventory.booked("Hotel Small", BASE));
+        assertEquals(1, inventory.booked("Hotel Big", BASE));
+    }
+
+    @Test
+    void update_withStaleVersion_failsAndKeepsRooms() {
+        Reservation r = service.create(request("Hotel Small", 0, 2));
+        long read = r.getVersion();
+        service.update(r.getId(), request("Hotel Small", 1, 3), read);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> service.update(r.getId(), request("Hotel Small", 4, 6), read));
+        assertThrows(PreconditionFailedException.class, () -> service.cancel(r.getId(), read));
+        assertEquals(0, inventory.booked("Hotel Small", BASE));
+        assertEquals(1, inventory.booked("Hotel Small", BASE.plusDays(2)));
+        assertEquals(0, inventory.booked("Hotel Small", BASE.plusDays(4)));
+        assertTrue(repo.findById(r.getId()).orElseThrow().isActive());
+    }
+
+    @Test
+    void newService_restoresInventoryFromRepository() {
+        service.create(request("Hotel Small", 0, 2));
+        Reservation canceled = service.create(request("Hotel Big", 0, 2));
+        service.cancel(canceled.getId());
+
+        RoomInventory restored = new RoomInventory(2, Map.of("Hotel Small", 1));
+        restored.restore(repo.findAll());
+
+        assertEquals(1, restored.booked("Hotel Small", BASE));
+        assertEquals(0, restored.booked("Hotel Big", BASE));
+    }
+
+    @Test
+    void stayLongerThanMaxNights_isRejectedBeforeBooking() {
+        assertThrows(BadRequestException.class,
+                () -> service.create(request("Hotel Big", 0, RoomInventory.DEFAULT_MAX_NIGHTS + 1)));
+        assertEquals(0, inventory.booked("Hotel Big", BASE));
+        assertNotNull(service.create(request("Hotel Big", 0, RoomInventory.DEFAULT_MAX_NIGHTS)));
+
+        Reservation r = service.create(request("Hotel Small", 0, 2));
+        assertThrows(BadRequestException.class,
+                () -> service.update(r.getId(), request("Hotel Small", 0, 400)));
+        assertEquals(1, inventory.booked("Hotel Small", BASE));
+        assertEquals(0, inventory.booked("Hotel Small", BASE.plusDays(2)));
+    }
+
+    @Test
+    void pastNights_arePruned() {
+        AtomicLong millis = new AtomicLong(LocalDate.of(2099, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+        Clock clock = new Clock() {
+            @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+            @Override public Clock withZone(ZoneId zone) { return this; }
+            @Override public Instant instant() { return Instant.ofEpochMilli(millis.get()); }
+        };
+        RoomInventory rooms = new RoomInventory(1, Map.of(), 30, clock);
+        LocalDate day = LocalDate.of(2099, 1, 1);
+        rooms.reserve("Hotel Small", day, day.plusDays(3));
+        assertThrows(ConflictException.class, () -> rooms.reserve("Hotel Small", day, day.plusDays(1)));
+
+        millis.addAndGet(Duration.ofDays(2).toMillis());
+        rooms.prunePastNights();
+        assertEquals(0, rooms.booked("Hotel Small", day));
+        assertEquals(0, rooms.booked("Hotel Small", day.plusDays(1)));
+        assertEquals(1, rooms.booked("Hotel Small", day.plusDays(2)));
+
+        rooms.release("Hotel Small", day, day.plusDays(3));
+        assertEquals(0, rooms.booked("Hotel Small", day.plusDays(2)));
+        assertEquals(0, rooms.booked("Hotel Small", day));
+        assertEquals(0, rooms.trackedHotels());
+    }
+
+    @Test
+    void hotelsWithoutBookings_areForgotten() {
+        List<Reservation> created = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            created.add(service.create(request("Hotel " + i, 0, 3)));
+        }
+        assertEquals(50, inventory.trackedHotels());
+
+        for (Reservation r : created) {
+            service.cancel(r.getId());
+        }
+        assertEquals(0, inventory.trackedHotels());
+
+        service.create(request("Hotel Small", 0, 1));
+        assertThrows(ConflictException.class, () -> service.create(request("Hotel Small", 0, 1)));
+        assertEquals(1, inventory.trackedHotels());
+    }
+
+    @Test
+    void negativeCapacity_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RoomInventory(-1, Map.of()));
+    }
+
+    @Test
+    void concurrentBookings_neverOverbook() throws Exception {
+        int threads = 128;
+        int opsPerThread = 200;
+        int rooms = 5;
+        int days = 20;
+        String[] hotels = {"Hotel A", "Hotel B", "Hotel C", "Hotel D"};
+        inventory = new RoomInventory(rooms, Map.of());
+        service = new ReservationService(repo, inventory);
+
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    List<Long> mine = new ArrayList<>();
+                    start.await();
+                    for (int i = 0; i < opsPerThread; i++) {
+                        int from = random.nextInt(days);
+                        ReservationRequest req = request(hotels[random.nextInt(hotels.length)],
+                                from, from + 1 + random.nextInt(4));
+                        try {
+                            int op = random.nextInt(4);
+                            if (op < 2 || mine.isEmpty()) {
+                                mine.add(service.create(req).getId());
+                            } else if (op == 2) {
+                                service.update(mine.get(random.nextInt(mine.size())), req);
+                            } else {
+                                service.cancel(mine.remove(random.nextInt(mine.size())));
+                            }
+                        } catch (ConflictException | BadRequestException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(conflicts.get() > 0, "the stress test should have filled some nights");
+        for (String hotel : hotels) {
+            for (int d = 0; d < days + 5; d++) {
+                LocalDate night = BASE.plusDays(d);
+                long active = repo.findAll().stream()
+                        .filter(r -> r.isActive() && hotel.equals(r.getHotelName()))
+                        .filter(r -> !r.getCheckIn().isAfter(night) && r.getCheckOut().isAfter(night))
+                        .count();
+                assertTrue(active <= rooms, hotel + " overbooked on " + night + ": " + active);
+                assertEquals(active, inventory.booked(hotel, night), hotel + " on " + night);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.bookingmx.reservations.steps;
+
+import com.bookingmx.reservations.exception.BadRequestException;
+import com.bookingmx.reservations.model.Reservation;
+import com.bookingmx.reservations.repo.ReservationRepository;
+import com.bookingmx.reservations.service.ReservationService;
+import com.bookingmx.reservations.service.RoomInventory;
+import com.bookingmx.reservations.service.StripedLocks;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.bookingmx.reservations.steps.ReservationFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedLocksTest {
+
+    @Test
+    void size_isRoundedUpToAPowerOfTwo() {
+        assertEquals(1, new StripedLocks(1).size());
+        assertEquals(64, new StripedLocks(33).size());
+        assertEquals(64, new StripedLocks(64).size());
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0));
+    }
+
+    @Test
+    void sameId_alwaysGetsTheSameLock_andSequentialIdsSpread() {
+        StripedLocks locks = new StripedLocks(64);
+        assertSame(locks.lockFor(42), locks.lockFor(42));
+
+        int[] perStripe = new int[locks.size()];
+        for (long id = 1; id <= 64 * 100; id++) {
+            perStripe[locks.stripeOf(id)]++;
+        }
+        for (int count : perStripe) {
+            assertTrue(count > 50 && count < 150, "uneven stripes: " + count);
+        }
+    }
+
+    @Test
+    void racingUpdateAndCancel_neverUpdateACanceledReservation() throws Exception {
+        ReservationRepository repo = new ReservationRepository();
+        RoomInventory inventory = new RoomInventory(1, Map.of());
+        ReservationService service = new ReservationService(repo, inventory);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2000; i++) {
+                long id = service.create(request("Hotel Small", 0, 2)).getId();
+                Future<Reservation> canceling = pool.submit(() -> {
+                    barrier.await();
+                    return service.cancel(id);
+                });
+                Future<Reservation> updating = pool.submit(() -> {
+                    barrier.await();
+                    try {
+                        return service.update(id, request("Hotel Small", 1, 3));
+                    } catch (BadRequestException alreadyCanceled) {
+                        return null;
+                    }
+                });
+                Reservation canceled = canceling.get();
+                Reservation updated = updating.get();
+
+                Reservation stored = repo.findById(id).orElseThrow();
+                assertFalse(stored.isActive());
+                assertEquals(canceled.getVersion(), stored.getVersion());
+                if (updated != null) {
+                    assertTrue(updated.getVersion() < canceled.getVersion(), "update landed after the cancellation");
+                    assertEquals(BASE.plusDays(1), stored.getCheckIn());
+                }
+                for (int night = 0; night < 3; night++) {
+                    assertEquals(0, inventory.booked("Hotel Small", BASE.plusDays(night)));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
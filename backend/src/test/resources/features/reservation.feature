@@ -38,4 +38,133 @@ Feature: Reservation Module
 
     Scenario: Find Reservation which doesn't exist
       When I call GET reservation by ID endpoint with id 10
-      Then the response status should be 404
\ No newline at end of file
+      Then the response status should be 404
+
+    Scenario: Filter Reservations by hotel
+      When I create a new Reservation with guestName "Ana", hotelName "Hotel Tapatio", checkIn "2099-01-10", checkOut "2099-01-12"
+      Then the response status should be 200
+      When I create a new Reservation with guestName "Luis", hotelName "Hotel Chapala", checkIn "2099-01-10", checkOut "2099-01-12"
+      Then the response status should be 200
+      When I call GET reservations endpoint with hotel "Hotel Tapatio"
+      Then the response status should be 200 and Content-Type JSON
+      Then the response must be an array with 1 reservations
+
+    Scenario: Find Reservations overlapping a date window
+      When I create a new Reservation with guestName "Ana", hotelName "Hotel Tlaquepaque", checkIn "2099-03-10", checkOut "2099-03-12"
+      Then the response status should be 200
+      When I create a new Reservation with guestName "Luis", hotelName "Hotel Tlaquepaque", checkIn "2099-03-12", checkOut "2099-03-15"
+      Then the response status should be 200
+      When I call GET overlapping reservations endpoint with hotel "Hotel Tlaquepaque", from "2099-03-11", to "2099-03-12"
+      Then the response status should be 200 and Content-Type JSON
+      Then the response must be an array with 1 reservations
+
+    Scenario: Find overlapping Reservations with an empty window
+      When I call GET overlapping reservations endpoint with hotel "Hotel Tlaquepaque", from "2099-03-12", to "2099-03-12"
+      Then the response status should be 400
+
+    Scenario: List Reservations one page at a time
+      When I create a new reservation
+      Then the response status should be 200
+      When I create a new reservation
+      Then the response status should be 200
+      When I call GET reservations endpoint with limit 1 after 0
+      Then the response status should be 200 and Content-Type JSON
+      Then the response must be an array with 1 reservations
+      Then the response must have a next cursor
+
+    Scenario: List Reservations with an invalid page size
+      When I call GET reservations endpoint with limit 0 after 0
+      Then the response status should be 400
+
+    Scenario Outline: Reject query parameters that cannot be read
+      When I call GET "<uri>"
+      Then the response status should be 400 and Content-Type JSON
+      Then the error message must be "<message>"
+
+      Examples:
+        | uri                                                                   | message                             |
+        | /api/reservations?limit=abc                                           | Invalid value for parameter 'limit' |
+        | /api/reservations?limit=10&after=x1                                   | Invalid value for parameter 'after' |
+        | /api/reservations?ids=a                                               | Invalid value for parameter 'ids'   |
+        | /api/reservations/changes?since=x                                     | Invalid value for parameter 'since' |
+        | /api/reservations/overlapping?from=2099-03-11&to=2099-03-12           | Missing required parameter 'hotel'  |
+        | /api/reservations/overlapping?hotel=Hotel%20A&from=soon&to=2099-03-12 | Invalid value for parameter 'from'  |
+
+    Scenario: Reject batch and transaction bodies that cannot be read
+      When I call POST "/api/reservations/batch" with body "[{"
+      Then the response status should be 400 and Content-Type JSON
+      Then the error message must be "Malformed request body"
+      When I call POST "/api/reservations/transactions" with body "{\"operations\": 5}"
+      Then the response status should be 400 and Content-Type JSON
+      Then the error message must be "Malformed request body"
+
+    Scenario: Export all Reservations as NDJSON
+      When I create a new reservation
+      Then the response status should be 200
+      When I call GET reservations export endpoint
+      Then the response status should be 200
+      Then every line of the response must be a reservation in ascending id order
+
+    Scenario: Sync Reservations changed since a version
+      When I create a new reservation
+      Then the response status should be 200
+      When I call GET reservation changes endpoint since 0
+      Then the response status should be 200 and Content-Type JSON
+      Then the changes response must contain 1 reservations or more
+      When I call GET reservation changes endpoint since the returned version
+      Then the response status should be 200
+      Then the changes response must contain no reservations
+
+    Scenario: Update a Reservation only if it has not changed
+      When I create a new Reservation with guestName "Ana", hotelName "Hotel Zapopan", checkIn "2099-04-10", checkOut "2099-04-12"
+      Then the response status should be 200
+      Then the response must have an ETag
+      When I call UPDATE on that reservation with its ETag
+      Then the response status should be 200
+      Then the response must have an ETag
+      When I call UPDATE on that reservation with its previous ETag
+      Then the response status should be 412
+
+    Scenario: Create several Reservations in one batch
+      When I create a batch of reservations at "Hotel Tlaquepaque" where the second has check-out before check-in
+      Then the response status should be 200 and Content-Type JSON
+      Then the batch response must report 2 created and 1 failed
+      Then the batch item 1 must have status 400
+      Then the created batch reservations must have consecutive ids
+
+    Scenario: Get several Reservations by id in one request
+      When I create a new Reservation with guestName "Marta", hotelName "Hotel Tonala", checkIn "2099-06-01", checkOut "2099-06-03"
+      Then the response status should be 200
+      Then the response must have an ETag
+      When I call GET reservations endpoint with ids of that reservation and 999999
+      Then the response status should be 200 and Content-Type JSON
+      Then the lookup response must contain that reservation and miss id 999999
+
+    Scenario: Retry a Reservation create with the same Idempotency-Key
+      When I create a Reservation for "Pedro" at "Hotel Tequila" with Idempotency-Key "retry-2099-07"
+      Then the response status should be 200
+      Then the response must have an ETag
+      When I create a Reservation for "Pedro" at "Hotel Tequila" with Idempotency-Key "retry-2099-07"
+      Then the response status should be 200
+      Then the response must be that reservation at the same ETag
+      When I create a Reservation for "Paula" at "Hotel Tequila" with Idempotency-Key "retry-2099-07"
+      Then the response status should be 409
+
+    Scenario: An Idempotency-Key cannot be replayed for names split at another newline
+      When I create a Reservation for "Rosa\nMaria" at "Hotel Tequila" with Idempotency-Key "retry-newline"
+      Then the response status should be 200
+      When I create a Reservation for "Rosa" at "Maria\nHotel Tequila" with Idempotency-Key "retry-newline"
+      Then the response status should be 409
+
+    Scenario: Latency metrics by endpoint and outcome
+      When I reset the latency metrics
+      Then the response status should be 204
+      When I call GET reservation by ID endpoint with id 999999
+      Then the response status should be 404
+      Then the latency metrics must count 1 "404" for "GET /api/reservations/{id}"
+      Then the latency metrics must count 1 "404" for "ReservationService.findById"
+      When I create a new Reservation with guestName "", hotelName "Hotel Mazamitla", checkIn "2099-08-01", checkOut "2099-08-03"
+      Then the response status should be 400
+      Then the latency metrics must count 1 "400" for "ReservationService.validate"
+      When I call GET latency metrics from "203.0.113.7"
+      Then the response status should be 404
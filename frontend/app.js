@@ -1,5 +1,5 @@
 import { sampleData, validateGraphData, buildGraph, getNearbyCities } from "./js/graph.js";
-import { listReservations, createReservation, cancelReservation } from "./js/api.js";
+import { listReservations, createReservation, cancelReservation, subscribeReservationEvents } from "./js/api.js";
 
 // Graph UI
 const form = document.getElementById("graph-form");
@@ -33,22 +33,63 @@ const resForm = document.getElementById("reservation-form");
 const refreshBtn = document.getElementById("refresh");
 const listEl = document.getElementById("reservation-list");
 
+// Whether the list is kept current by the server's change feed instead of re-fetching.
+const live = typeof EventSource !== "undefined";
+
+// Changes received while the list is loading; applied once it has rendered.
+let pendingChanges = null;
+
+function renderReservation(r) {
+  let li = listEl.querySelector(`li[data-id="${r.id}"]`);
+  if (!li) {
+    li = document.createElement("li");
+    li.setAttribute("data-id", r.id);
+    listEl.appendChild(li);
+  } else if (Number(li.getAttribute("data-version")) > r.version) {
+    // The row already shows a later change, e.g. a buffered event older than the list.
+    return;
+  }
+  li.setAttribute("data-version", r.version);
+  li.innerHTML = `
+    <strong>#${r.id}</strong> ${r.guestName} @ ${r.hotelName}
+    (${r.checkIn} → ${r.checkOut}) [${r.status}]
+    <button data-id=\"${r.id}\" class=\"cancel\">Cancel</button>
+  `;
+}
+
+function applyChange(r) {
+  if (pendingChanges) {
+    pendingChanges.push(r);
+  } else {
+    renderReservation(r);
+  }
+}
+
 async function refreshReservations() {
   listEl.innerHTML = "<li>Loading...</li>";
+  // Events that arrive during the fetch may be newer than the list it returns.
+  const buffered = [];
+  pendingChanges = buffered;
+  let loaded = false;
   try {
     const items = await listReservations();
     listEl.innerHTML = "";
     for (const r of items) {
-      const li = document.createElement("li");
-      li.innerHTML = `
-        <strong>#${r.id}</strong> ${r.guestName} @ ${r.hotelName}
-        (${r.checkIn} → ${r.checkOut}) [${r.status}]
-        <button data-id=\"${r.id}\" class=\"cancel\">Cancel</button>
-      `;
-      listEl.appendChild(li);
+      renderReservation(r);
     }
+    loaded = true;
   } catch (e) {
     listEl.innerHTML = `<li>Error: ${e.message}</li>`;
+  } finally {
+    // A newer refresh owns the buffer from here on, and its list covers these events.
+    if (pendingChanges === buffered) {
+      pendingChanges = null;
+      if (loaded) {
+        for (const r of buffered) {
+          renderReservation(r);
+        }
+      }
+    }
   }
 }
 
@@ -62,7 +103,7 @@ resForm.addEventListener("submit", async (e) => {
   };
   try {
     await createReservation(payload);
-    await refreshReservations();
+    if (!live) await refreshReservations();
     resForm.reset();
   } catch (err) {
     alert(err.message);
@@ -75,11 +116,19 @@ listEl.addEventListener("click", async (e) => {
   const id = btn.getAttribute("data-id");
   try {
     await cancelReservation(id);
-    await refreshReservations();
+    if (!live) await refreshReservations();
   } catch (err) {
     alert(err.message);
   }
 });
 
 refreshBtn.addEventListener("click", refreshReservations);
-refreshReservations();
+if (live) {
+  // The full list is loaded on every (re)connect; changes are then applied one by one.
+  subscribeReservationEvents({
+    onOpen: refreshReservations,
+    onChange: (type, r) => applyChange(r)
+  });
+} else {
+  refreshReservations();
+}
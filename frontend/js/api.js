@@ -101,4 +101,44 @@ export async function cancelReservation(id) {
   const res = await fetch(`${BASE_URL}/${encodeURIComponent(id)}`, { method: "DELETE" });
   if (!res.ok) throw new Error((await res.json()).message || "Cancel failed");
   return res.json();
-}
\ No newline at end of file
+}
+/**
+ * Names of the change events streamed by the backend.
+ * @type {string[]}
+ */
+export const RESERVATION_EVENTS = ["created", "updated", "canceled"];
+
+/**
+ * Subscribes to the backend's reservation change feed (Server-Sent Events).
+ *
+ * The browser reconnects on its own when the stream drops. Events published
+ * while disconnected are not replayed, so `onOpen` fires on every (re)connect
+ * and is the place to reload the full list. A client that falls too far behind
+ * receives a `resync` event before the server closes the stream; the
+ * reconnect that follows fires `onOpen` again.
+ *
+ * @function subscribeReservationEvents
+ * @param {Object} [handlers] - Callbacks for the feed.
+ * @param {function():void} [handlers.onOpen] - Called when the stream (re)connects.
+ * @param {function(string, Object):void} [handlers.onChange] - Called with the event name
+ *   (`created`, `updated` or `canceled`) and the reservation after the change.
+ * @param {function():void} [handlers.onResync] - Called when events were dropped.
+ * @returns {EventSource} The open event source; call `close()` to unsubscribe.
+ *
+ * @example
+ * const source = subscribeReservationEvents({
+ *   onOpen: () => refreshReservations(),
+ *   onChange: (type, reservation) => render(reservation)
+ * });
+ */
+export function subscribeReservationEvents({ onOpen, onChange, onResync } = {}) {
+  const source = new EventSource(`${BASE_URL}/events`);
+  if (onOpen) source.addEventListener("open", () => onOpen());
+  if (onChange) {
+    for (const type of RESERVATION_EVENTS) {
+      source.addEventListener(type, (e) => onChange(type, JSON.parse(e.data)));
+    }
+  }
+  if (onResync) source.addEventListener("resync", () => onResync());
+  return source;
+}
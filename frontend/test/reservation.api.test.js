@@ -3,7 +3,8 @@ import {
     listReservations,
     createReservation,
     updateReservation,
-    cancelReservation
+    cancelReservation,
+    subscribeReservationEvents
 } from '../js/api.js';
 
 const BASE_URL = "http://localhost:8080/api/reservations";
@@ -107,4 +108,27 @@ describe('API module', () => {
 
         await expect(cancelReservation(4)).rejects.toThrow('Cancel failed: not found');
     });
+
+    test('subscribeReservationEvents: opens the feed and dispatches events', () => {
+        const listeners = {};
+        const source = { addEventListener: jest.fn((type, fn) => { listeners[type] = fn; }) };
+        global.EventSource = jest.fn(() => source);
+        const onOpen = jest.fn();
+        const onChange = jest.fn();
+        const onResync = jest.fn();
+
+        const result = subscribeReservationEvents({ onOpen, onChange, onResync });
+        listeners.open();
+        listeners.created({ data: JSON.stringify({ id: 5, status: 'ACTIVE' }) });
+        listeners.canceled({ data: JSON.stringify({ id: 5, status: 'CANCELED' }) });
+        listeners.resync();
+
+        expect(EventSource).toHaveBeenCalledWith(`${BASE_URL}/events`);
+        expect(result).toBe(source);
+        expect(onOpen).toHaveBeenCalledTimes(1);
+        expect(onChange).toHaveBeenNthCalledWith(1, 'created', { id: 5, status: 'ACTIVE' });
+        expect(onChange).toHaveBeenNthCalledWith(2, 'canceled', { id: 5, status: 'CANCELED' });
+        expect(onResync).toHaveBeenCalledTimes(1);
+        delete global.EventSource;
+    });
 });